@@ -36,6 +36,9 @@ android {
 }
 
 dependencies {
+    // Models, counting engines and serialization (plain Java)
+    implementation(project(":core"))
+    
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
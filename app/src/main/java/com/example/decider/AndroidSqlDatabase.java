@@ -0,0 +1,86 @@
+package com.example.decider;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// SqlDatabase trên SQLiteDatabase của Android
+public class AndroidSqlDatabase implements SqlDatabase {
+    private final SQLiteDatabase db;
+
+    public AndroidSqlDatabase(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    public static AndroidSqlDatabase open(Context context, String name) {
+        return new AndroidSqlDatabase(context.openOrCreateDatabase(name, Context.MODE_PRIVATE, null));
+    }
+
+    public static SqlPollStore openPollStore(Context context, PollChangeBus changes) {
+        return new SqlPollStore(open(context, SqlPollStore.DATABASE_NAME), changes);
+    }
+
+    @Override
+    public void execute(String sql, Object... args) {
+        db.execSQL(sql, args);
+    }
+
+    @Override
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... args) {
+        // rawQuery chỉ nhận tham số chuỗi; cột INTEGER vẫn so sánh đúng nhờ type affinity
+        String[] bindArgs = new String[args.length];
+        for (int i = 0; i < args.length; i++) {
+            bindArgs[i] = String.valueOf(args[i]);
+        }
+        List<T> rows = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery(sql, bindArgs)) {
+            Row row = new CursorRow(cursor);
+            while (cursor.moveToNext()) {
+                rows.add(mapper.map(row));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void inTransaction(Runnable body) {
+        db.beginTransaction();
+        try {
+            body.run();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void close() {
+        db.close();
+    }
+
+    private static final class CursorRow implements Row {
+        private final Cursor cursor;
+
+        CursorRow(Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public String getString(int column) {
+            return cursor.getString(column);
+        }
+
+        @Override
+        public long getLong(int column) {
+            return cursor.getLong(column);
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            return cursor.isNull(column);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.decider;
+
+import android.os.Trace;
+
+// Trace section của MetricsRegistry dưới dạng android.os.Trace, hiện trong Perfetto/systrace
+final class AndroidTracer implements MetricsRegistry.Tracer {
+    private static final int MAX_SECTION_NAME = 127;
+
+    @Override
+    public void beginSection(String name) {
+        Trace.beginSection(name.length() > MAX_SECTION_NAME ? name.substring(0, MAX_SECTION_NAME) : name);
+    }
+
+    @Override
+    public void endSection() {
+        Trace.endSection();
+    }
+}
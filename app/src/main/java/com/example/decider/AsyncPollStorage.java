@@ -0,0 +1,149 @@
+package com.example.decider;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+// Chạy mọi thao tác PollRepository (backend chọn ở PollRepositories) trên một luồng ghi riêng (dùng chung cả tiến trình) để không
+// parse/ghi JSON trên UI thread. Kết quả đọc được trả về qua Future và callback trên main looper.
+// Vì đọc và ghi cùng đi qua một luồng, một lần đọc luôn thấy các lần ghi đã gửi trước nó.
+public class AsyncPollStorage {
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final Context appContext;
+
+    public AsyncPollStorage(Context context) {
+        this.appContext = context != null ? context.getApplicationContext() : null;
+    }
+
+    // Reads
+    public Future<List<Poll>> getAllPolls(Callback<List<Poll>> callback) {
+        return submit(() -> storage().getAllPolls(), callback);
+    }
+
+    public Future<List<PollSummary>> getPollSummaries(Callback<List<PollSummary>> callback) {
+        return submit(() -> storage().getPollSummaries(), callback);
+    }
+
+    public Future<Page<PollSummary>> getPollSummaryPage(Page.Cursor after, int limit, Callback<Page<PollSummary>> callback) {
+        return submit(() -> storage().getPollSummaryPage(after, limit), callback);
+    }
+
+    public Future<Poll> getPollById(String id, Callback<Poll> callback) {
+        return submit(() -> storage().getPollById(id), callback);
+    }
+
+    public Future<Poll> getPollByInviteCode(String inviteCode, Callback<Poll> callback) {
+        return submit(() -> storage().getPollByInviteCode(inviteCode), callback);
+    }
+
+    public Future<Poll> getCurrentPoll(Callback<Poll> callback) {
+        return submit(() -> storage().getCurrentPoll(), callback);
+    }
+
+    public Future<List<PollTemplate>> getAllTemplates(Callback<List<PollTemplate>> callback) {
+        return submit(() -> storage().getAllTemplates(), callback);
+    }
+
+    public Future<Page<PollTemplate>> getTemplatePage(Page.Cursor after, int limit, Callback<Page<PollTemplate>> callback) {
+        return submit(() -> storage().getTemplatePage(after, limit), callback);
+    }
+
+    public Future<PollTemplate> getTemplateById(String id, Callback<PollTemplate> callback) {
+        return submit(() -> storage().getTemplateById(id), callback);
+    }
+
+    public Future<Boolean> hasTemplates(Callback<Boolean> callback) {
+        return submit(() -> storage().hasTemplates(), callback);
+    }
+
+    // Nạp sẵn cache poll để các màn hình sau không phải chờ đọc đĩa
+    public void preload() {
+        submit(() -> storage().getAllPolls(), null);
+    }
+
+    // Nhận PollChange của một poll trên main looper; trả về listener để hủy bằng unsubscribe
+    public PollChangeBus.Listener subscribe(String pollId, Callback<PollChange> callback) {
+        PollChangeBus.Listener listener = change -> MAIN_HANDLER.post(() -> callback.onResult(change));
+        PollRepositories.changes().subscribe(pollId, listener);
+        return listener;
+    }
+
+    public void unsubscribe(String pollId, PollChangeBus.Listener listener) {
+        PollRepositories.changes().unsubscribe(pollId, listener);
+    }
+
+    // Writes
+    public Future<Void> savePoll(Poll poll) {
+        return submit(() -> {
+            storage().savePoll(poll);
+            return null;
+        }, null);
+    }
+
+    // Ghi ngay các poll đang được gộp trong bộ đệm ghi trễ
+    public Future<Void> flush() {
+        return submit(() -> {
+            storage().flush();
+            return null;
+        }, null);
+    }
+
+    public Future<Void> deletePoll(String id) {
+        return submit(() -> {
+            storage().deletePoll(id);
+            return null;
+        }, null);
+    }
+
+    public Future<Void> setCurrentPoll(Poll poll) {
+        return submit(() -> {
+            storage().setCurrentPoll(poll);
+            return null;
+        }, null);
+    }
+
+    public Future<Void> saveTemplate(PollTemplate template) {
+        return submit(() -> {
+            storage().saveTemplate(template);
+            return null;
+        }, null);
+    }
+
+    public Future<Void> deleteTemplate(String id) {
+        return submit(() -> {
+            storage().deleteTemplate(id);
+            return null;
+        }, null);
+    }
+
+    // Chỉ gọi trên luồng của StorageExecutor: lần đầu mở backend (đọc đĩa, chuyển dữ liệu cũ)
+    private PollRepository storage() {
+        return PollRepositories.get(appContext);
+    }
+
+    private <T> Future<T> submit(Callable<T> task, Callback<T> callback) {
+        return StorageExecutor.get().submit(() -> {
+            T result = null;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            if (callback != null) {
+                T delivered = result;
+                MAIN_HANDLER.post(() -> callback.onResult(delivered));
+            }
+            return result;
+        });
+    }
+}
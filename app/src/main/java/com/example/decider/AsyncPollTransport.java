@@ -0,0 +1,51 @@
+package com.example.decider;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Chạy PollTransport trên luồng mạng riêng và trả kết quả về main looper.
+// Khi lỗi mạng, callback nhận null.
+public class AsyncPollTransport {
+    private static final ExecutorService NETWORK = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "poll-network");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final PollTransport transport;
+
+    public AsyncPollTransport(PollTransport transport) {
+        this.transport = transport;
+    }
+
+    public Future<Poll> findPollByInviteCode(String inviteCode, AsyncPollStorage.Callback<Poll> callback) {
+        return submit(() -> transport.findPollByInviteCode(inviteCode), callback);
+    }
+
+    public Future<List<VoteAck>> submitVotes(String pollId, List<Vote> votes, AsyncPollStorage.Callback<List<VoteAck>> callback) {
+        return submit(() -> transport.submitVotes(pollId, votes), callback);
+    }
+
+    static <T> Future<T> submit(Callable<T> task, AsyncPollStorage.Callback<T> callback) {
+        return NETWORK.submit(() -> {
+            T result = null;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            if (callback != null) {
+                T delivered = result;
+                MAIN_HANDLER.post(() -> callback.onResult(delivered));
+            }
+            return result;
+        });
+    }
+}
@@ -27,6 +27,7 @@ public class CreatePollActivity extends AppCompatActivity {
     private RecyclerView recyclerViewOptions;
     private Button buttonAddOption;
     private RadioGroup radioGroupMode;
+    private RadioGroup radioGroupCounting;
     private SwitchMaterial switchAutoLock;
     private LinearLayout layoutTimerSettings;
     private EditText editTextTimer;
@@ -37,7 +38,7 @@ public class CreatePollActivity extends AppCompatActivity {
     
     private PollOptionsAdapter optionsAdapter;
     private List<String> options;
-    private PollStorage storage;
+    private AsyncPollStorage storage;
     private PollTemplate selectedTemplate;
     
     @Override
@@ -46,7 +47,7 @@ public class CreatePollActivity extends AppCompatActivity {
             super.onCreate(savedInstanceState);
             setContentView(R.layout.activity_create_poll);
             
-            storage = new PollStorage(this);
+            storage = new AsyncPollStorage(this);
             options = new ArrayList<>();
             initializeViews();
             setupUI();
@@ -69,6 +70,7 @@ public class CreatePollActivity extends AppCompatActivity {
             recyclerViewOptions = findViewById(R.id.recycler_view_options);
             buttonAddOption = findViewById(R.id.button_add_option);
             radioGroupMode = findViewById(R.id.radio_group_mode);
+            radioGroupCounting = findViewById(R.id.radio_group_counting);
             switchAutoLock = findViewById(R.id.switch_auto_lock);
             layoutTimerSettings = findViewById(R.id.layout_timer_settings);
             editTextTimer = findViewById(R.id.edit_text_timer);
@@ -123,13 +125,21 @@ public class CreatePollActivity extends AppCompatActivity {
             
             if (buttonUseTemplate != null) {
                 buttonUseTemplate.setOnClickListener(v -> {
-                    if (storage != null && storage.hasTemplates()) {
-                        Intent intent = new Intent(CreatePollActivity.this, TemplateLibraryActivity.class);
-                        intent.putExtra("select_mode", true);
-                        startActivityForResult(intent, 100);
-                    } else {
-                        Toast.makeText(CreatePollActivity.this, "Chưa có mẫu nào được lưu", Toast.LENGTH_SHORT).show();
+                    if (storage == null) {
+                        return;
                     }
+                    storage.hasTemplates(hasTemplates -> {
+                        if (isFinishing()) {
+                            return;
+                        }
+                        if (Boolean.TRUE.equals(hasTemplates)) {
+                            Intent intent = new Intent(CreatePollActivity.this, TemplateLibraryActivity.class);
+                            intent.putExtra("select_mode", true);
+                            startActivityForResult(intent, 100);
+                        } else {
+                            Toast.makeText(CreatePollActivity.this, "Chưa có mẫu nào được lưu", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 });
             }
             
@@ -137,6 +147,13 @@ public class CreatePollActivity extends AppCompatActivity {
                 buttonSaveTemplate.setOnClickListener(v -> saveCurrentAsTemplate());
             }
             
+            // Cách đếm chỉ áp dụng cho bình chọn xếp hạng
+            if (radioGroupMode != null && radioGroupCounting != null) {
+                radioGroupMode.setOnCheckedChangeListener((group, checkedId) -> {
+                    radioGroupCounting.setVisibility(checkedId == R.id.radio_ranked_choice ? View.VISIBLE : View.GONE);
+                });
+            }
+            
             // Setup auto timer switch
             if (switchAutoLock != null && layoutTimerSettings != null) {
                 switchAutoLock.setOnCheckedChangeListener((buttonView, isChecked) -> {
@@ -263,6 +280,14 @@ public class CreatePollActivity extends AppCompatActivity {
             
             // Create poll with safe parameters
             Poll poll = new Poll("poll_" + System.currentTimeMillis(), question, validOptions, votingMode);
+            if (votingMode == Poll.VotingMode.RANKED_CHOICE && radioGroupCounting != null) {
+                int countingId = radioGroupCounting.getCheckedRadioButtonId();
+                if (countingId == R.id.radio_counting_runoff) {
+                    poll.setCountingMethod(Poll.CountingMethod.INSTANT_RUNOFF);
+                } else if (countingId == R.id.radio_counting_schulze) {
+                    poll.setCountingMethod(Poll.CountingMethod.SCHULZE);
+                }
+            }
             
             // Set timer if enabled
             if (switchAutoLock != null && switchAutoLock.isChecked() && editTextTimer != null) {
@@ -312,8 +337,16 @@ public class CreatePollActivity extends AppCompatActivity {
                 return;
             }
             
-            PollTemplate template = storage.getTemplateById(templateId);
-            if (template != null) {
+            storage.getTemplateById(templateId, this::applyTemplate);
+        } catch (Exception e) {
+            e.printStackTrace();
+            Toast.makeText(this, "Có lỗi xảy ra khi tải mẫu: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+    
+    private void applyTemplate(PollTemplate template) {
+        try {
+            if (template != null && !isFinishing()) {
                 selectedTemplate = template;
                 
                 if (editTextQuestion != null) {
@@ -513,4 +546,12 @@ public class CreatePollActivity extends AppCompatActivity {
             Toast.makeText(this, "Lỗi khi lưu mẫu: " + e.getMessage(), Toast.LENGTH_LONG).show();
         }
     }
+    
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (storage != null) {
+            storage.flush();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.decider;
+
+import android.app.Application;
+
+public class DeciderApplication extends Application {
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Các timer của MetricsRegistry mở trace section cùng tên cho system trace
+        MetricsRegistry.get().setTracer(new AndroidTracer());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.decider;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.provider.Settings;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.View;
@@ -15,23 +16,25 @@ import androidx.appcompat.app.AppCompatActivity;
 public class JoinPollActivity extends AppCompatActivity {
     
     private EditText editTextInviteCode;
+    private EditText editTextHostAddress;
     private Button buttonJoinPoll;
     private Button buttonBack;
     private TextView textViewInstructions;
-    private PollStorage storage;
+    private AsyncPollStorage storage;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_join_poll);
         
-        storage = new PollStorage(this);
+        storage = new AsyncPollStorage(this);
         initializeViews();
         setupUI();
     }
     
     private void initializeViews() {
         editTextInviteCode = findViewById(R.id.edit_text_invite_code);
+        editTextHostAddress = findViewById(R.id.edit_text_host_address);
         buttonJoinPoll = findViewById(R.id.button_join_poll);
         buttonBack = findViewById(R.id.button_back);
         textViewInstructions = findViewById(R.id.text_view_instructions);
@@ -83,11 +86,36 @@ public class JoinPollActivity extends AppCompatActivity {
                 return;
             }
             
-            // Tìm poll theo mã mời
-            Poll poll = storage.getPollByInviteCode(inviteCode);
+            // Tìm poll theo mã mời, trên máy chủ của người tạo nếu có nhập địa chỉ
+            buttonJoinPoll.setEnabled(false);
+            String hostAddress = editTextHostAddress.getText().toString().trim();
+            if (hostAddress.isEmpty()) {
+                storage.getPollByInviteCode(inviteCode, poll -> onPollFound(poll, null, null));
+            } else {
+                // ANDROID_ID không đổi giữa các lần mở app, nên tham gia lại vẫn nhận đúng danh tính cũ
+                String deviceId = Settings.Secure.getString(getContentResolver(), Settings.Secure.ANDROID_ID);
+                HttpPollTransport remote = new HttpPollTransport(hostAddress, deviceId);
+                new AsyncPollTransport(remote)
+                        .findPollByInviteCode(inviteCode, poll -> onPollFound(poll, hostAddress, remote));
+            }
+            
+        } catch (Exception e) {
+            e.printStackTrace();
+            Toast.makeText(this, "Có lỗi xảy ra khi tham gia cuộc bình chọn: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+    
+    private void onPollFound(Poll poll, String hostAddress, HttpPollTransport remote) {
+        try {
+            if (isFinishing()) {
+                return;
+            }
+            updateJoinButtonState();
             
             if (poll == null) {
-                Toast.makeText(this, "Không tìm thấy cuộc bình chọn với mã này", Toast.LENGTH_SHORT).show();
+                Toast.makeText(this, hostAddress != null
+                        ? "Không tìm thấy cuộc bình chọn trên máy chủ này"
+                        : "Không tìm thấy cuộc bình chọn với mã này", Toast.LENGTH_SHORT).show();
                 return;
             }
             
@@ -96,12 +124,21 @@ public class JoinPollActivity extends AppCompatActivity {
                 return;
             }
             
-            // Lưu poll hiện tại và chuyển đến màn hình bình chọn
-            storage.setCurrentPoll(poll);
+            // Chuyển đến màn hình bình chọn. Poll từ máy chủ không có phiếu của người khác, nên không
+            // lưu vào máy này (kết quả của nó chỉ có một phiếu); VoteActivity nhận nó qua intent.
             Toast.makeText(this, "Đã tham gia cuộc bình chọn: " + poll.getQuestion(), Toast.LENGTH_SHORT).show();
             
             Intent intent = new Intent(this, VoteActivity.class);
             intent.putExtra("poll_id", poll.getId());
+            if (hostAddress == null) {
+                storage.setCurrentPoll(poll);
+            } else {
+                intent.putExtra("remote_poll", PollGson.create().toJson(poll));
+                intent.putExtra("host_address", hostAddress);
+                // Danh tính người bầu do máy chủ cấp; phiếu gửi lên phải mang đúng danh tính này
+                intent.putExtra("voter_id", remote.getVoterId());
+                intent.putExtra("voter_token", remote.getVoterToken());
+            }
             startActivity(intent);
             finish();
             
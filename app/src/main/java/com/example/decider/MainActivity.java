@@ -3,6 +3,7 @@ package com.example.decider;
 import android.content.Intent;
 import android.os.Bundle;
 import android.widget.Button;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
@@ -13,7 +14,7 @@ import androidx.core.view.WindowInsetsCompat;
 
 public class MainActivity extends AppCompatActivity {
     
-    private PollStorage storage;
+    private AsyncPollStorage storage;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -26,7 +27,8 @@ public class MainActivity extends AppCompatActivity {
             return insets;
         });
         
-        storage = new PollStorage(this);
+        storage = new AsyncPollStorage(this);
+        storage.preload();
         setupUI();
     }
     
@@ -55,5 +57,14 @@ public class MainActivity extends AppCompatActivity {
             Intent intent = new Intent(this, SavedPollsActivity.class);
             startActivity(intent);
         });
+        
+        // Màn hình số đo hiệu năng, chỉ có ở bản debug
+        if (MetricsActivity.isAvailable(getApplicationInfo())) {
+            TextView textViewTitle = findViewById(R.id.text_view_app_title);
+            textViewTitle.setOnLongClickListener(v -> {
+                startActivity(new Intent(this, MetricsActivity.class));
+                return true;
+            });
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.decider;
+
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Màn hình debug hiển thị MetricsRegistry: p50/p99/max của từng timer, histogram và counter.
+// Chỉ mở được ở bản debuggable (giữ lâu tiêu đề ở màn hình chính).
+public class MetricsActivity extends AppCompatActivity {
+
+    private TextView textViewMetrics;
+
+    static boolean isAvailable(ApplicationInfo info) {
+        return info != null && (info.flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        if (!isAvailable(getApplicationInfo())) {
+            finish();
+            return;
+        }
+        setContentView(R.layout.activity_metrics);
+
+        textViewMetrics = findViewById(R.id.text_view_metrics);
+        Button buttonBack = findViewById(R.id.button_back);
+        Button buttonRefresh = findViewById(R.id.button_refresh_metrics);
+        Button buttonExport = findViewById(R.id.button_export_metrics);
+        Button buttonReset = findViewById(R.id.button_reset_metrics);
+
+        buttonBack.setOnClickListener(v -> finish());
+        buttonRefresh.setOnClickListener(v -> showMetrics());
+        buttonExport.setOnClickListener(v -> exportMetrics());
+        buttonReset.setOnClickListener(v -> {
+            MetricsRegistry.get().reset();
+            showMetrics();
+        });
+        showMetrics();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showMetrics();
+    }
+
+    private void showMetrics() {
+        try {
+            textViewMetrics.setText(String.join("\n", MetricsRegistry.get().report()));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Ghi bảng số đo ra file trong thư mục riêng của ứng dụng, trên luồng lưu trữ
+    private void exportMetrics() {
+        File directory = getExternalFilesDir(null) != null ? getExternalFilesDir(null) : getFilesDir();
+        File file = new File(directory, "metrics-" + System.currentTimeMillis() + ".txt");
+        StorageExecutor.get().execute(() -> {
+            boolean written = false;
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                MetricsRegistry.get().dump(writer);
+                written = true;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            boolean success = written;
+            runOnUiThread(() -> Toast.makeText(this,
+                    success ? "Đã xuất " + file.getAbsolutePath() : "Không thể xuất số đo",
+                    Toast.LENGTH_LONG).show());
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.decider;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+// Gọi onLoadMore khi người dùng cuộn tới gần cuối danh sách (còn ít hơn threshold mục chưa hiện)
+public class PagingScrollListener extends RecyclerView.OnScrollListener {
+    private final LinearLayoutManager layoutManager;
+    private final int threshold;
+    private final Runnable onLoadMore;
+
+    public PagingScrollListener(LinearLayoutManager layoutManager, int threshold, Runnable onLoadMore) {
+        this.layoutManager = layoutManager;
+        this.threshold = threshold;
+        this.onLoadMore = onLoadMore;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy <= 0) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= layoutManager.getItemCount() - threshold) {
+            onLoadMore.run();
+        }
+    }
+}
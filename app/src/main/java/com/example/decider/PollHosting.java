@@ -0,0 +1,63 @@
+package com.example.decider;
+
+import android.content.Context;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.util.Collections;
+
+// Giữ một PollHostServer cho cả tiến trình, phục vụ các poll trong PollRepository của máy này
+final class PollHosting {
+    private static PollHostServer server;
+
+    private PollHosting() {}
+
+    // Khởi động server nếu chưa chạy; callback nhận địa chỉ "ip:port" cho người tham gia, null nếu lỗi
+    static void start(Context context, AsyncPollStorage.Callback<String> callback) {
+        Context appContext = context.getApplicationContext();
+        AsyncPollTransport.submit(() -> {
+            int port = ensureStarted(appContext);
+            String address = lanAddress();
+            return address != null ? address + ":" + port : null;
+        }, callback);
+    }
+
+    private static synchronized int ensureStarted(Context context) throws IOException {
+        if (server != null && server.isRunning()) {
+            return server.getPort();
+        }
+        // Phiếu từ mọi kết nối đi qua một hàng đợi, áp dụng và lưu theo lô
+        VoteIngestionPipeline backend = new VoteIngestionPipeline(localTransport(context));
+        backend.start();
+        server = new PollHostServer(backend, null, PollHostServer.DEFAULT_PORT);
+        try {
+            server.start();
+        } catch (IOException e) {
+            // Cổng mặc định đang bận: để hệ điều hành chọn cổng khác
+            server = new PollHostServer(backend, null, 0);
+            server.start();
+        }
+        return server.getPort();
+    }
+
+    // Transport trên repository của máy này, chạy trên StorageExecutor như AsyncPollStorage
+    private static LocalPollTransport localTransport(Context context) {
+        return new LocalPollTransport(() -> PollRepositories.get(context), StorageExecutor.get());
+    }
+
+    private static String lanAddress() throws IOException {
+        for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                continue;
+            }
+            for (InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                if (address instanceof Inet4Address && address.isSiteLocalAddress()) {
+                    return address.getHostAddress();
+                }
+            }
+        }
+        return InetAddress.getLoopbackAddress().getHostAddress();
+    }
+}
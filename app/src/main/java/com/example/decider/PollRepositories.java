@@ -0,0 +1,46 @@
+package com.example.decider;
+
+import android.content.Context;
+
+// Nơi duy nhất chọn backend lưu trữ và giữ một PollRepository cho cả tiến trình.
+// AsyncPollStorage (màn hình) và PollHosting (máy chủ poll) đều lấy repository ở đây,
+// và chỉ gọi nó trên luồng của StorageExecutor.
+final class PollRepositories {
+    enum Backend {
+        RECORDS, // record JSON + nhật ký sự kiện
+        SQLITE
+    }
+
+    // Đổi ở đây để chạy app trên backend khác; dữ liệu không được chuyển giữa các backend
+    static final Backend BACKEND = Backend.RECORDS;
+
+    private static final String PREFS_NAME = "decider_prefs";
+    // Bus có trước repository, để màn hình đăng ký nghe mà không phải mở CSDL trên UI thread
+    private static final PollChangeBus CHANGES = new PollChangeBus();
+    private static PollRepository repository;
+
+    private PollRepositories() {}
+
+    static synchronized PollRepository get(Context context) {
+        if (repository == null) {
+            repository = create(context.getApplicationContext(), BACKEND);
+        }
+        return repository;
+    }
+
+    static PollChangeBus changes() {
+        return CHANGES;
+    }
+
+    private static PollRepository create(Context context, Backend backend) {
+        switch (backend) {
+            case SQLITE:
+                return AndroidSqlDatabase.openPollStore(context, CHANGES);
+            case RECORDS:
+            default:
+                return new RecordPollRepository(context.getFilesDir(),
+                        new SharedPreferencesStore(context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)),
+                        StorageExecutor.get(), CHANGES);
+        }
+    }
+}
@@ -23,6 +23,8 @@ import java.util.ArrayList;
 
 public class ResultsActivity extends AppCompatActivity {
     
+    private static final MetricsRegistry.Timer CLOSE_TIMER = MetricsRegistry.get().timer("results.closePoll");
+    
     private TextView textViewQuestionResult;
     private FrameLayout frameLayoutResultContainer;
     private RecyclerView recyclerViewResults;
@@ -35,10 +37,11 @@ public class ResultsActivity extends AppCompatActivity {
     private Button buttonEndPoll;
     
     private Poll poll;
-    private PollStorage storage;
+    private AsyncPollStorage storage;
     private boolean isCreator;
     private ResultsAdapter resultsAdapter;
     private Random random = new Random();
+    private PollChangeBus.Listener changeListener;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -46,12 +49,11 @@ public class ResultsActivity extends AppCompatActivity {
             super.onCreate(savedInstanceState);
             setContentView(R.layout.activity_results);
             
-            storage = new PollStorage(this);
+            storage = new AsyncPollStorage(this);
             isCreator = getIntent().getBooleanExtra("is_creator", false);
             
             initializeViews();
             loadPoll();
-            setupUI();
         } catch (Exception e) {
             e.printStackTrace();
             Toast.makeText(this, "Có lỗi xảy ra khi khởi tạo: " + e.getMessage(), Toast.LENGTH_LONG).show();
@@ -92,16 +94,34 @@ public class ResultsActivity extends AppCompatActivity {
         try {
             String pollId = getIntent().getStringExtra("poll_id");
             if (pollId != null) {
-                poll = storage.getPollById(pollId);
+                storage.getPollById(pollId, this::onPollLoaded);
             } else {
-                poll = storage.getCurrentPoll();
+                storage.getCurrentPoll(this::onPollLoaded);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            Toast.makeText(this, "Có lỗi xảy ra khi tải cuộc bình chọn: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            finish();
+        }
+    }
+    
+    private void onPollLoaded(Poll loadedPoll) {
+        try {
+            if (isFinishing()) {
+                return;
             }
             
+            poll = loadedPoll;
             if (poll == null) {
                 Toast.makeText(this, "Cuộc bình chọn không tồn tại", Toast.LENGTH_SHORT).show();
                 finish();
                 return;
             }
+            
+            if (changeListener == null) {
+                changeListener = storage.subscribe(poll.getId(), this::onPollChanged);
+            }
+            setupUI();
         } catch (Exception e) {
             e.printStackTrace();
             Toast.makeText(this, "Có lỗi xảy ra khi tải cuộc bình chọn: " + e.getMessage(), Toast.LENGTH_LONG).show();
@@ -115,7 +135,7 @@ public class ResultsActivity extends AppCompatActivity {
             
             // Close poll if not already closed
             if (poll.isActive() && poll.isExpired()) {
-                poll.closePoll();
+                closePoll();
                 storage.savePoll(poll);
             }
             
@@ -180,11 +200,21 @@ public class ResultsActivity extends AppCompatActivity {
         }
     }
     
+    // Bật máy chủ poll của máy này để thiết bị khác tham gia được, rồi hiện mã mời kèm địa chỉ
     private void showInviteCodeDialog() {
+        PollHosting.start(this, hostAddress -> {
+            if (!isFinishing()) {
+                showInviteCodeDialog(hostAddress);
+            }
+        });
+    }
+    
+    private void showInviteCodeDialog(String hostAddress) {
         try {
+            String hostLine = hostAddress != null ? "\nĐịa chỉ máy chủ: " + hostAddress : "";
             new AlertDialog.Builder(this)
                 .setTitle("🎉 Cuộc bình chọn đã được tạo!")
-                .setMessage("Mã mời: " + poll.getInviteCode() + "\n\nChia sẻ mã này với người khác để họ có thể tham gia bình chọn.")
+                .setMessage("Mã mời: " + poll.getInviteCode() + hostLine + "\n\nChia sẻ mã này với người khác để họ có thể tham gia bình chọn.")
                 .setPositiveButton("Sao chép mã", (dialog, which) -> {
                     try {
                         // Copy invite code to clipboard
@@ -206,7 +236,7 @@ public class ResultsActivity extends AppCompatActivity {
                         shareIntent.setType("text/plain");
                         shareIntent.putExtra(Intent.EXTRA_SUBJECT, "Mã mời tham gia bình chọn");
                         shareIntent.putExtra(Intent.EXTRA_TEXT, 
-                            "Mã mời: " + poll.getInviteCode() + "\n\nHãy nhập mã này vào ứng dụng Decider để tham gia bình chọn: " + poll.getQuestion());
+                            "Mã mời: " + poll.getInviteCode() + hostLine + "\n\nHãy nhập mã này vào ứng dụng Decider để tham gia bình chọn: " + poll.getQuestion());
                         startActivity(Intent.createChooser(shareIntent, "Chia sẻ mã mời"));
                     } catch (Exception e) {
                         e.printStackTrace();
@@ -230,7 +260,7 @@ public class ResultsActivity extends AppCompatActivity {
             
             // Chỉ đóng poll nếu đã hết hạn
             if (poll != null && poll.isActive() && poll.isExpired()) {
-                poll.closePoll();
+                closePoll();
                 if (storage != null) {
                     storage.savePoll(poll);
                 }
@@ -285,13 +315,23 @@ public class ResultsActivity extends AppCompatActivity {
         }
     }
 
+    // Đóng poll và tính kết quả, đo thời gian trên luồng gọi (UI thread)
+    private void closePoll() {
+        long started = CLOSE_TIMER.start();
+        try {
+            poll.closePoll();
+        } finally {
+            CLOSE_TIMER.stop(started);
+        }
+    }
+
     private void endPollAndPersist() {
         try {
             if (poll == null || storage == null) return;
             if (!poll.isActive()) return;
 
             // Close poll, compute results, mark end time
-            poll.closePoll();
+            closePoll();
 
             // Persist updated poll with final results/end time
             storage.savePoll(poll);
@@ -379,7 +419,7 @@ public class ResultsActivity extends AppCompatActivity {
                         java.util.Collections.shuffle(options);
                         results.addAll(options);
                         
-                        poll.setResults(results);
+                        poll.overrideResults(results);
                         if (storage != null) {
                             storage.savePoll(poll);
                         }
@@ -418,15 +458,15 @@ public class ResultsActivity extends AppCompatActivity {
                     .setPositiveButton("Tuyệt vời!", (dialog, which) -> {
                         try {
                             // Update poll with result
-                            if (poll.getResults() != null) {
-                                poll.getResults().clear();
-                                poll.getResults().add(winner);
-                                poll.getResults().addAll(options.stream()
-                                    .filter(o -> !o.equals(winner))
-                                    .toList());
-                                if (storage != null) {
-                                    storage.savePoll(poll);
-                                }
+                            // getResults() trả về bản sao, nên dựng danh sách mới rồi overrideResults
+                            List<String> spinnerResults = new ArrayList<>();
+                            spinnerResults.add(winner);
+                            spinnerResults.addAll(options.stream()
+                                .filter(o -> !o.equals(winner))
+                                .toList());
+                            poll.overrideResults(spinnerResults);
+                            if (storage != null) {
+                                storage.savePoll(poll);
                             }
                             
                             // Switch to regular results view
@@ -497,7 +537,10 @@ public class ResultsActivity extends AppCompatActivity {
             }
             
             List<String> results = poll.getResults();
-            List<String> tiedOptions = results.subList(0, Math.min(2, results.size()));
+            List<String> tiedOptions = poll.analyzeTies().getTiedOptions();
+            if (tiedOptions.size() < 2) {
+                return;
+            }
             
             // Show magic hat animation
             new AlertDialog.Builder(this)
@@ -517,7 +560,7 @@ public class ResultsActivity extends AppCompatActivity {
                         if (results != null) {
                             results.remove(magicWinner);
                             results.add(0, magicWinner);
-                            poll.setResults(results);
+                            poll.overrideResults(results);
                             if (storage != null) {
                                 storage.savePoll(poll);
                             }
@@ -530,7 +573,7 @@ public class ResultsActivity extends AppCompatActivity {
                             .setPositiveButton("Chấp nhận kết quả", (dialog, which) -> {
                                 try {
                                     if (resultsAdapter != null) {
-                                        resultsAdapter.notifyDataSetChanged();
+                                        resultsAdapter.updateResults(results);
                                     }
                                 } catch (Exception e) {
                                     e.printStackTrace();
@@ -592,4 +635,51 @@ public class ResultsActivity extends AppCompatActivity {
             Toast.makeText(this, "Có lỗi xảy ra khi hiển thị dialog lưu mẫu: " + e.getMessage(), Toast.LENGTH_LONG).show();
         }
     }
+    
+    // Áp dụng delta phiếu vào poll và chỉ bind lại phần số liệu của các hàng bị ảnh hưởng
+    private void onPollChanged(PollChange change) {
+        try {
+            if (isFinishing() || poll == null || changeListener == null) {
+                return;
+            }
+            
+            if (change.isDeleted()) {
+                Toast.makeText(this, "Cuộc bình chọn đã bị xóa", Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
+            
+            // Poll được kết thúc ở nơi khác: tải lại để hiển thị kết quả cuối cùng
+            if (change.isClosed() && poll.isActive()) {
+                loadPoll();
+                return;
+            }
+            
+            if (change.hasVoteChanges() && poll.getVotingMode() != Poll.VotingMode.RANDOM_SPINNER) {
+                poll.applyChange(change);
+                if (resultsAdapter != null) {
+                    resultsAdapter.refreshCounts();
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    @Override
+    protected void onDestroy() {
+        if (storage != null && poll != null && changeListener != null) {
+            storage.unsubscribe(poll.getId(), changeListener);
+            changeListener = null;
+        }
+        super.onDestroy();
+    }
+    
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (storage != null) {
+            storage.flush();
+        }
+    }
 }
\ No newline at end of file
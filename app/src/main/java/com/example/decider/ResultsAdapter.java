@@ -7,90 +7,108 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ViewHolder> {
     
+    // Ảnh chụp bất biến của một hàng, để diff được tính trên luồng nền mà không đọc Poll
+    static final class ResultRow {
+        final String option;
+        final int rank;
+        final int votes;
+        final int percentage;
+        final int eliminatedRound; // vòng bị loại khi đếm loại dần, 0 nếu không bị loại
+        
+        ResultRow(String option, int rank, int votes, int percentage, int eliminatedRound) {
+            this.option = option;
+            this.rank = rank;
+            this.votes = votes;
+            this.percentage = percentage;
+            this.eliminatedRound = eliminatedRound;
+        }
+        
+        boolean sameContentAs(ResultRow other) {
+            return rank == other.rank && votes == other.votes && percentage == other.percentage
+                    && eliminatedRound == other.eliminatedRound;
+        }
+    }
+    
+    static final Object PAYLOAD_COUNTS = new Object();
+    
+    // Diff theo option; hạng nằm trong nội dung để hàng đổi vị trí cũng được bind lại số hạng
+    private static final DiffUtil.ItemCallback<ResultRow> DIFF = new DiffUtil.ItemCallback<ResultRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ResultRow oldItem, @NonNull ResultRow newItem) {
+            return oldItem.option.equals(newItem.option);
+        }
+        
+        @Override
+        public boolean areContentsTheSame(@NonNull ResultRow oldItem, @NonNull ResultRow newItem) {
+            return oldItem.sameContentAs(newItem);
+        }
+        
+        @Override
+        public Object getChangePayload(@NonNull ResultRow oldItem, @NonNull ResultRow newItem) {
+            return oldItem.rank == newItem.rank ? PAYLOAD_COUNTS : null;
+        }
+    };
+    
+    private static final MetricsRegistry.Timer BIND_TIMER = MetricsRegistry.get().timer("results.onBindViewHolder");
+    private static final MetricsRegistry.Timer BIND_COUNTS_TIMER = MetricsRegistry.get().timer("results.onBindViewHolder.counts");
+    private static final MetricsRegistry.Timer COUNT_TIMER = MetricsRegistry.get().timer("results.calculateVoteCounts");
+    
+    private final AsyncListDiffer<ResultRow> differ = new AsyncListDiffer<>(this, DIFF);
     private List<String> results;
     private Poll poll;
-    private Map<String, Integer> voteCounts;
-    private int totalVotes;
+    private VoteCounts voteCounts = VoteCounts.empty();
     
     public ResultsAdapter(List<String> results, Poll poll) {
         this.results = results != null ? new ArrayList<>(results) : new ArrayList<>();
         this.poll = poll;
         calculateVoteCounts();
+        differ.submitList(buildRows());
     }
     
     private void calculateVoteCounts() {
+        long started = COUNT_TIMER.start();
         try {
-            voteCounts = new HashMap<>();
-            totalVotes = 0;
-            
-            if (poll == null || poll.getOptions() == null) {
-                return;
-            }
-            
-            // Initialize all options with 0 votes
-            for (String option : poll.getOptions()) {
-                if (option != null) {
-                    voteCounts.put(option, 0);
-                }
-            }
-            
-            // Count votes based on voting mode
-            if (poll.getVotes() != null) {
-                switch (poll.getVotingMode()) {
-                    case SINGLE_CHOICE:
-                        for (Vote vote : poll.getVotes().values()) {
-                            if (vote != null && vote.getSingleChoice() != null) {
-                                voteCounts.put(vote.getSingleChoice(), 
-                                    voteCounts.getOrDefault(vote.getSingleChoice(), 0) + 1);
-                                totalVotes++;
-                            }
-                        }
-                        break;
-                        
-                    case RANKED_CHOICE:
-                        // For ranked choice, calculate points
-                        for (Vote vote : poll.getVotes().values()) {
-                            if (vote != null) {
-                                List<String> rankings = vote.getRankings();
-                                if (rankings != null) {
-                                    for (int i = 0; i < rankings.size(); i++) {
-                                        String option = rankings.get(i);
-                                        if (option != null) {
-                                            int points = poll.getOptions().size() - i;
-                                            voteCounts.put(option, voteCounts.getOrDefault(option, 0) + points);
-                                        }
-                                    }
-                                    totalVotes++;
-                                }
-                            }
-                        }
-                        break;
-                        
-                    case RANDOM_SPINNER:
-                        // For spinner, winner gets all votes
-                        if (results != null && !results.isEmpty() && results.get(0) != null) {
-                            voteCounts.put(results.get(0), 1);
-                            totalVotes = 1;
-                        }
-                        break;
-                }
-            }
+            voteCounts = VoteCounts.of(poll, results);
         } catch (Exception e) {
             e.printStackTrace();
-            voteCounts = new HashMap<>();
-            totalVotes = 0;
+            voteCounts = VoteCounts.empty();
+        } finally {
+            COUNT_TIMER.stop(started);
         }
     }
     
+    private List<ResultRow> buildRows() {
+        List<ResultRow> rows = new ArrayList<>();
+        for (String option : results) {
+            if (option == null) {
+                continue;
+            }
+            int votes = voteCounts.get(option);
+            int total = voteCounts.getTotal();
+            int eliminatedRound = 0;
+            InstantRunoffEngine.Result runoff = voteCounts.getRunoff();
+            if (runoff != null) {
+                // Phần trăm trên số phiếu còn được tính ở vòng của option đó
+                eliminatedRound = runoff.getEliminatedRound(option);
+                InstantRunoffEngine.Round round = eliminatedRound > 0
+                        ? runoff.getRounds().get(eliminatedRound - 1) : runoff.getFinalRound();
+                total = round != null ? round.getContinuing() : 0;
+            }
+            int percentage = total > 0 ? (votes * 100) / total : 0;
+            rows.add(new ResultRow(option, rows.size(), votes, percentage, eliminatedRound));
+        }
+        return rows;
+    }
+    
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -101,53 +119,95 @@ public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ViewHold
     
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        long started = BIND_TIMER.start();
         try {
-            if (results == null || position >= results.size() || results.get(position) == null) {
+            List<ResultRow> rows = differ.getCurrentList();
+            if (position < 0 || position >= rows.size()) {
                 return;
             }
             
-            String option = results.get(position);
-            int votes = voteCounts.getOrDefault(option, 0);
-            
+            ResultRow row = rows.get(position);
             if (holder.textViewOption != null) {
-                holder.textViewOption.setText(option);
+                holder.textViewOption.setText(row.option);
             }
             
-            if (holder.textViewVotes != null) {
-                if (poll != null && poll.getVotingMode() == Poll.VotingMode.RANKED_CHOICE) {
-                    holder.textViewVotes.setText(votes + " điểm");
-                } else {
-                    holder.textViewVotes.setText(votes + " phiếu");
-                }
-            }
-            
-            // Calculate percentage
-            int percentage = totalVotes > 0 ? (votes * 100) / totalVotes : 0;
-            if (holder.textViewPercentage != null) {
-                holder.textViewPercentage.setText(percentage + "%");
-            }
-            if (holder.progressBarVotes != null) {
-                holder.progressBarVotes.setProgress(percentage);
-            }
+            bindCounts(holder, row);
             
             // Highlight winner
             if (holder.textViewRank != null) {
-                if (position == 0) {
+                if (row.rank == 0) {
                     holder.textViewRank.setText("🏆");
                     holder.textViewRank.setTextSize(20);
                 } else {
-                    holder.textViewRank.setText(String.valueOf(position + 1));
+                    holder.textViewRank.setText(String.valueOf(row.rank + 1));
                     holder.textViewRank.setTextSize(16);
                 }
             }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            BIND_TIMER.stop(started);
+        }
+    }
+    
+    // Khi chỉ số phiếu đổi, chỉ bind lại số phiếu, phần trăm và thanh tiến độ
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.contains(PAYLOAD_COUNTS)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        long started = BIND_COUNTS_TIMER.start();
+        try {
+            List<ResultRow> rows = differ.getCurrentList();
+            if (position >= 0 && position < rows.size()) {
+                bindCounts(holder, rows.get(position));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            BIND_COUNTS_TIMER.stop(started);
+        }
+    }
+    
+    private void bindCounts(ViewHolder holder, ResultRow row) {
+        if (holder.textViewVotes != null) {
+            if (voteCounts.getRunoff() != null) {
+                String text = row.votes + " phiếu";
+                if (row.eliminatedRound > 0) {
+                    text += " · loại ở vòng " + row.eliminatedRound;
+                }
+                holder.textViewVotes.setText(text);
+            } else if (voteCounts.getSchulze() != null) {
+                holder.textViewVotes.setText("thắng " + row.votes + " cặp");
+            } else if (poll != null && poll.getVotingMode() == Poll.VotingMode.RANKED_CHOICE) {
+                holder.textViewVotes.setText(row.votes + " điểm");
+            } else {
+                holder.textViewVotes.setText(row.votes + " phiếu");
+            }
+        }
+        
+        if (holder.textViewPercentage != null) {
+            holder.textViewPercentage.setText(row.percentage + "%");
+        }
+        if (holder.progressBarVotes != null) {
+            holder.progressBarVotes.setProgress(row.percentage);
         }
     }
     
     @Override
     public int getItemCount() {
-        return results != null ? results.size() : 0;
+        return differ.getCurrentList().size();
+    }
+    
+    // Tính lại số phiếu từ tally của poll sau khi có phiếu mới, giữ nguyên thứ tự hàng
+    public void refreshCounts() {
+        try {
+            calculateVoteCounts();
+            differ.submitList(buildRows());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
     }
     
     public void updateResults(List<String> newResults) {
@@ -155,7 +215,7 @@ public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ViewHold
             if (newResults != null) {
                 this.results = new ArrayList<>(newResults);
                 calculateVoteCounts();
-                notifyDataSetChanged();
+                differ.submitList(buildRows());
             }
         } catch (Exception e) {
             e.printStackTrace();
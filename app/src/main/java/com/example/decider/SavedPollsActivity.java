@@ -16,20 +16,28 @@ import java.util.List;
 
 public class SavedPollsActivity extends AppCompatActivity {
 
+    private static final int PAGE_SIZE = 30;
+
     private RecyclerView recyclerViewSavedPolls;
     private TextView textViewEmptyTitle;
     private TextView textViewEmptySubtitle;
     private Button buttonBack;
 
-    private PollStorage storage;
+    private AsyncPollStorage storage;
     private SavedPollsAdapter adapter;
 
+    // Trạng thái phân trang; generation tăng mỗi lần tải lại để bỏ qua trang cũ trả về muộn
+    private Page.Cursor nextCursor;
+    private boolean hasMorePages = true;
+    private boolean loadingPage = false;
+    private int generation = 0;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_saved_polls);
 
-        storage = new PollStorage(this);
+        storage = new AsyncPollStorage(this);
         initializeViews();
         setupUI();
         loadPolls();
@@ -43,11 +51,13 @@ public class SavedPollsActivity extends AppCompatActivity {
     }
 
     private void setupUI() {
-        recyclerViewSavedPolls.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerViewSavedPolls.setLayoutManager(layoutManager);
+        recyclerViewSavedPolls.addOnScrollListener(new PagingScrollListener(layoutManager, PAGE_SIZE / 2, this::loadNextPage));
 
         adapter = new SavedPollsAdapter(new ArrayList<>(), new SavedPollsAdapter.ActionListener() {
             @Override
-            public void onViewResults(Poll poll) {
+            public void onViewResults(PollSummary poll) {
                 try {
                     Intent intent = new Intent(SavedPollsActivity.this, ResultsActivity.class);
                     intent.putExtra("poll_id", poll.getId());
@@ -60,7 +70,7 @@ public class SavedPollsActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onVote(Poll poll) {
+            public void onVote(PollSummary poll) {
                 try {
                     if (!poll.isActive()) {
                         Toast.makeText(SavedPollsActivity.this, "Cuộc bình chọn đã kết thúc", Toast.LENGTH_SHORT).show();
@@ -76,11 +86,15 @@ public class SavedPollsActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onDelete(Poll poll) {
+            public void onDelete(PollSummary poll) {
                 try {
                     storage.deletePoll(poll.getId());
                     Toast.makeText(SavedPollsActivity.this, "Đã xóa cuộc bình chọn", Toast.LENGTH_SHORT).show();
-                    loadPolls();
+                    adapter.removePoll(poll.getId(), () -> {
+                        if (adapter.getItemCount() == 0) {
+                            loadPolls();
+                        }
+                    });
                 } catch (Exception e) {
                     e.printStackTrace();
                     Toast.makeText(SavedPollsActivity.this, "Không thể xóa", Toast.LENGTH_SHORT).show();
@@ -95,9 +109,47 @@ public class SavedPollsActivity extends AppCompatActivity {
         });
     }
 
+    // Tải lại từ trang đầu
     private void loadPolls() {
+        generation++;
+        nextCursor = null;
+        hasMorePages = true;
+        loadingPage = false;
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        if (loadingPage || !hasMorePages) {
+            return;
+        }
+        loadingPage = true;
+        int requested = generation;
+        boolean firstPage = nextCursor == null;
+        storage.getPollSummaryPage(nextCursor, PAGE_SIZE, page -> showPage(requested, firstPage, page));
+    }
+
+    private void showPage(int requested, boolean firstPage, Page<PollSummary> page) {
+        if (requested != generation) {
+            return;
+        }
+        loadingPage = false;
+        if (page == null) {
+            page = Page.empty();
+        }
+        nextCursor = page.getNext();
+        hasMorePages = page.hasMore();
+        if (firstPage) {
+            showPolls(page.getItems());
+        } else if (!isFinishing()) {
+            adapter.appendData(page.getItems());
+        }
+    }
+
+    private void showPolls(List<PollSummary> polls) {
         try {
-            List<Poll> polls = storage.getAllPolls();
+            if (isFinishing()) {
+                return;
+            }
             if (polls == null || polls.isEmpty()) {
                 recyclerViewSavedPolls.setVisibility(View.GONE);
                 textViewEmptyTitle.setVisibility(View.VISIBLE);
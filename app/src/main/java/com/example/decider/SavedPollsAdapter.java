@@ -7,6 +7,8 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
@@ -15,25 +17,56 @@ import java.util.List;
 public class SavedPollsAdapter extends RecyclerView.Adapter<SavedPollsAdapter.ViewHolder> {
 
     interface ActionListener {
-        void onViewResults(Poll poll);
-        void onVote(Poll poll);
-        void onDelete(Poll poll);
+        void onViewResults(PollSummary poll);
+        void onVote(PollSummary poll);
+        void onDelete(PollSummary poll);
     }
 
-    private final List<Poll> polls;
+    // Diff theo poll id, tính trên luồng nền của AsyncListDiffer
+    private static final DiffUtil.ItemCallback<PollSummary> DIFF = new DiffUtil.ItemCallback<PollSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PollSummary oldItem, @NonNull PollSummary newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PollSummary oldItem, @NonNull PollSummary newItem) {
+            return oldItem.sameContentAs(newItem);
+        }
+    };
+
+    private final AsyncListDiffer<PollSummary> differ = new AsyncListDiffer<>(this, DIFF);
     private final ActionListener listener;
+    // Danh sách đúng nhất hiện tại; differ.getCurrentList() còn cũ trong lúc diff trước chưa xong,
+    // nên mọi thay đổi sửa danh sách này rồi gửi một bản sao cho differ
+    private final List<PollSummary> polls = new ArrayList<>();
 
-    public SavedPollsAdapter(List<Poll> polls, ActionListener listener) {
-        this.polls = polls != null ? polls : new ArrayList<>();
+    public SavedPollsAdapter(List<PollSummary> polls, ActionListener listener) {
         this.listener = listener;
+        updateData(polls);
     }
 
-    public void updateData(List<Poll> newPolls) {
+    public void updateData(List<PollSummary> newPolls) {
         polls.clear();
         if (newPolls != null) {
             polls.addAll(newPolls);
         }
-        notifyDataSetChanged();
+        differ.submitList(new ArrayList<>(polls));
+    }
+
+    public void appendData(List<PollSummary> morePolls) {
+        if (morePolls == null || morePolls.isEmpty()) {
+            return;
+        }
+        polls.addAll(morePolls);
+        differ.submitList(new ArrayList<>(polls));
+    }
+
+    // Bỏ một poll khỏi danh sách; chỉ hàng đó bị xóa, các hàng khác không bind lại.
+    // onDone chạy sau khi danh sách mới đã được áp dụng.
+    public void removePoll(String id, Runnable onDone) {
+        polls.removeIf(p -> p.getId().equals(id));
+        differ.submitList(new ArrayList<>(polls), onDone);
     }
 
     @NonNull
@@ -46,7 +79,7 @@ public class SavedPollsAdapter extends RecyclerView.Adapter<SavedPollsAdapter.Vi
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Poll poll = polls.get(position);
+        PollSummary poll = differ.getCurrentList().get(position);
 
         holder.textTitle.setText(poll.getQuestion());
 
@@ -65,7 +98,11 @@ public class SavedPollsAdapter extends RecyclerView.Adapter<SavedPollsAdapter.Vi
         }
 
         String statusText = poll.isActive() ? "Đang mở" : "Đã kết thúc";
-        String subtitle = modeText + " • " + statusText + (poll.getInviteCode() != null ? " • Mã: " + poll.getInviteCode() : "");
+        if (poll.getWinner() != null) {
+            statusText += " (" + poll.getWinner() + ")";
+        }
+        String subtitle = modeText + " • " + statusText + " • " + poll.getVoteCount() + " phiếu"
+                + (poll.getInviteCode() != null ? " • Mã: " + poll.getInviteCode() : "");
         holder.textSubtitle.setText(subtitle);
 
         holder.buttonResults.setOnClickListener(v -> {
@@ -83,7 +120,7 @@ public class SavedPollsAdapter extends RecyclerView.Adapter<SavedPollsAdapter.Vi
 
     @Override
     public int getItemCount() {
-        return polls.size();
+        return differ.getCurrentList().size();
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,32 @@
+package com.example.decider;
+
+import android.content.SharedPreferences;
+
+// KeyValueStore trên SharedPreferences; ghi bằng apply() nên không chặn luồng gọi
+public class SharedPreferencesStore implements KeyValueStore {
+    private final SharedPreferences prefs;
+
+    public SharedPreferencesStore(SharedPreferences prefs) {
+        this.prefs = prefs;
+    }
+
+    @Override
+    public String getString(String key) {
+        return prefs.getString(key, null);
+    }
+
+    @Override
+    public void putString(String key, String value) {
+        prefs.edit().putString(key, value).apply();
+    }
+
+    @Override
+    public void remove(String key) {
+        prefs.edit().remove(key).apply();
+    }
+
+    @Override
+    public void clear() {
+        prefs.edit().clear().apply();
+    }
+}
@@ -9,6 +9,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TemplateAdapter extends RecyclerView.Adapter<TemplateAdapter.ViewHolder> {
@@ -22,10 +23,27 @@ public class TemplateAdapter extends RecyclerView.Adapter<TemplateAdapter.ViewHo
     }
     
     public TemplateAdapter(List<PollTemplate> templates, TemplateActionListener listener) {
-        this.templates = templates;
+        this.templates = templates != null ? templates : new ArrayList<>();
         this.listener = listener;
     }
     
+    public void updateData(List<PollTemplate> newTemplates) {
+        templates.clear();
+        if (newTemplates != null) {
+            templates.addAll(newTemplates);
+        }
+        notifyDataSetChanged();
+    }
+    
+    public void appendData(List<PollTemplate> moreTemplates) {
+        if (moreTemplates == null || moreTemplates.isEmpty()) {
+            return;
+        }
+        int start = templates.size();
+        templates.addAll(moreTemplates);
+        notifyItemRangeInserted(start, moreTemplates.size());
+    }
+    
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
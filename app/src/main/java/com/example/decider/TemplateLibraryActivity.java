@@ -11,6 +11,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TemplateLibraryActivity extends AppCompatActivity {
@@ -19,16 +20,24 @@ public class TemplateLibraryActivity extends AppCompatActivity {
     private View textViewEmpty;
     private Button buttonBack;
     private TemplateAdapter templateAdapter;
-    private PollStorage storage;
+    private AsyncPollStorage storage;
     private boolean isSelectMode = false;
     
+    private static final int PAGE_SIZE = 30;
+    
+    // Trạng thái phân trang; generation tăng mỗi lần tải lại để bỏ qua trang cũ trả về muộn
+    private Page.Cursor nextCursor;
+    private boolean hasMorePages = true;
+    private boolean loadingPage = false;
+    private int generation = 0;
+    
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         try {
             super.onCreate(savedInstanceState);
             setContentView(R.layout.activity_template_library);
             
-            storage = new PollStorage(this);
+            storage = new AsyncPollStorage(this);
             isSelectMode = getIntent().getBooleanExtra("select_mode", false);
             
             initializeViews();
@@ -60,7 +69,55 @@ public class TemplateLibraryActivity extends AppCompatActivity {
     private void setupUI() {
         setTitle(isSelectMode ? getString(R.string.template_library_select_title) : getString(R.string.template_library_title));
         
-        recyclerViewTemplates.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerViewTemplates.setLayoutManager(layoutManager);
+        recyclerViewTemplates.addOnScrollListener(new PagingScrollListener(layoutManager, PAGE_SIZE / 2, this::loadNextPage));
+        
+        templateAdapter = new TemplateAdapter(new ArrayList<>(), new TemplateAdapter.TemplateActionListener() {
+            @Override
+            public void onTemplateClick(PollTemplate template) {
+                try {
+                    if (template == null) {
+                        Toast.makeText(TemplateLibraryActivity.this, "Lỗi: Mẫu không hợp lệ", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    
+                    if (isSelectMode) {
+                        // Return selected template
+                        Intent result = new Intent();
+                        result.putExtra("selected_template_id", template.getId());
+                        setResult(RESULT_OK, result);
+                        finish();
+                    } else {
+                        // Navigate to create poll with template
+                        Intent intent = new Intent(TemplateLibraryActivity.this, CreatePollActivity.class);
+                        intent.putExtra("template_id", template.getId());
+                        startActivity(intent);
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    Toast.makeText(TemplateLibraryActivity.this, "Lỗi khi mở mẫu: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                }
+            }
+            
+            @Override
+            public void onTemplateDelete(PollTemplate template) {
+                try {
+                    if (template == null || template.getId() == null) {
+                        Toast.makeText(TemplateLibraryActivity.this, "Lỗi: Không thể xóa mẫu", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    
+                    storage.deleteTemplate(template.getId());
+                    loadTemplates(); // Refresh list
+                    Toast.makeText(TemplateLibraryActivity.this, "Đã xóa mẫu", Toast.LENGTH_SHORT).show();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    Toast.makeText(TemplateLibraryActivity.this, "Lỗi khi xóa mẫu: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+        recyclerViewTemplates.setAdapter(templateAdapter);
         
         buttonBack.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -70,14 +127,57 @@ public class TemplateLibraryActivity extends AppCompatActivity {
         });
     }
     
+    // Tải lại từ trang đầu
     private void loadTemplates() {
+        generation++;
+        nextCursor = null;
+        hasMorePages = true;
+        loadingPage = false;
+        loadNextPage();
+    }
+    
+    private void loadNextPage() {
         try {
             if (storage == null) {
                 Toast.makeText(this, "Lỗi: Không thể truy cập dữ liệu", Toast.LENGTH_SHORT).show();
                 return;
             }
+            if (loadingPage || !hasMorePages) {
+                return;
+            }
             
-            List<PollTemplate> templates = storage.getAllTemplates();
+            loadingPage = true;
+            int requested = generation;
+            boolean firstPage = nextCursor == null;
+            storage.getTemplatePage(nextCursor, PAGE_SIZE, page -> showPage(requested, firstPage, page));
+        } catch (Exception e) {
+            e.printStackTrace();
+            Toast.makeText(this, "Lỗi khi tải danh sách mẫu: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+    
+    private void showPage(int requested, boolean firstPage, Page<PollTemplate> page) {
+        if (requested != generation) {
+            return;
+        }
+        loadingPage = false;
+        if (page == null) {
+            page = Page.empty();
+        }
+        nextCursor = page.getNext();
+        hasMorePages = page.hasMore();
+        if (firstPage) {
+            showTemplates(page.getItems());
+        } else if (!isFinishing()) {
+            templateAdapter.appendData(page.getItems());
+        }
+    }
+    
+    private void showTemplates(List<PollTemplate> templates) {
+        try {
+            if (isFinishing()) {
+                return;
+            }
             
             if (templates == null || templates.isEmpty()) {
                 if (recyclerViewTemplates != null) {
@@ -93,56 +193,8 @@ public class TemplateLibraryActivity extends AppCompatActivity {
                 if (textViewEmpty != null) {
                     textViewEmpty.setVisibility(View.GONE);
                 }
-                
-                templateAdapter = new TemplateAdapter(templates, new TemplateAdapter.TemplateActionListener() {
-                    @Override
-                    public void onTemplateClick(PollTemplate template) {
-                        try {
-                            if (template == null) {
-                                Toast.makeText(TemplateLibraryActivity.this, "Lỗi: Mẫu không hợp lệ", Toast.LENGTH_SHORT).show();
-                                return;
-                            }
-                            
-                            if (isSelectMode) {
-                                // Return selected template
-                                Intent result = new Intent();
-                                result.putExtra("selected_template_id", template.getId());
-                                setResult(RESULT_OK, result);
-                                finish();
-                            } else {
-                                // Navigate to create poll with template
-                                Intent intent = new Intent(TemplateLibraryActivity.this, CreatePollActivity.class);
-                                intent.putExtra("template_id", template.getId());
-                                startActivity(intent);
-                            }
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            Toast.makeText(TemplateLibraryActivity.this, "Lỗi khi mở mẫu: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                        }
-                    }
-                    
-                    @Override
-                    public void onTemplateDelete(PollTemplate template) {
-                        try {
-                            if (template == null || template.getId() == null) {
-                                Toast.makeText(TemplateLibraryActivity.this, "Lỗi: Không thể xóa mẫu", Toast.LENGTH_SHORT).show();
-                                return;
-                            }
-                            
-                            storage.deleteTemplate(template.getId());
-                            loadTemplates(); // Refresh list
-                            Toast.makeText(TemplateLibraryActivity.this, "Đã xóa mẫu", Toast.LENGTH_SHORT).show();
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            Toast.makeText(TemplateLibraryActivity.this, "Lỗi khi xóa mẫu: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                        }
-                    }
-                });
-                
-                if (recyclerViewTemplates != null) {
-                    recyclerViewTemplates.setAdapter(templateAdapter);
-                }
             }
+            templateAdapter.updateData(templates);
         } catch (Exception e) {
             e.printStackTrace();
             Toast.makeText(this, "Lỗi khi tải danh sách mẫu: " + e.getMessage(), Toast.LENGTH_LONG).show();
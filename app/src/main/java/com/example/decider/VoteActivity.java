@@ -17,6 +17,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -31,23 +32,29 @@ public class VoteActivity extends AppCompatActivity {
     private Button buttonBack;
     
     private Poll poll;
-    private PollStorage storage;
+    private AsyncPollStorage storage;
     private CountDownTimer countDownTimer;
     private RankingAdapter rankingAdapter;
     private ItemTouchHelper itemTouchHelper;
     private String userId;
+    private String hostAddress; // khác null khi poll nằm trên máy của người tạo; khi đó poll không được lưu ở đây
+    private String voterToken; // token máy chủ cấp cùng userId, gửi kèm mỗi lô phiếu
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_vote);
         
-        storage = new PollStorage(this);
+        storage = new AsyncPollStorage(this);
         userId = "user_" + System.currentTimeMillis(); // Simple user ID generation
+        hostAddress = getIntent().getStringExtra("host_address");
+        if (hostAddress != null && getIntent().getStringExtra("voter_id") != null) {
+            userId = getIntent().getStringExtra("voter_id");
+            voterToken = getIntent().getStringExtra("voter_token");
+        }
         
         initializeViews();
         loadPoll();
-        setupUI();
     }
     
     private void initializeViews() {
@@ -62,17 +69,29 @@ public class VoteActivity extends AppCompatActivity {
     
     private void loadPoll() {
         String pollId = getIntent().getStringExtra("poll_id");
-        if (pollId != null) {
-            poll = storage.getPollById(pollId);
+        String remotePoll = getIntent().getStringExtra("remote_poll");
+        if (hostAddress != null && remotePoll != null) {
+            onPollLoaded(PollGson.create().fromJson(remotePoll, Poll.class));
+        } else if (pollId != null) {
+            storage.getPollById(pollId, this::onPollLoaded);
         } else {
-            poll = storage.getCurrentPoll();
+            storage.getCurrentPoll(this::onPollLoaded);
+        }
+    }
+    
+    private void onPollLoaded(Poll loadedPoll) {
+        if (isFinishing()) {
+            return;
         }
         
+        poll = loadedPoll;
         if (poll == null || !poll.isActive()) {
             Toast.makeText(this, "Cuộc bình chọn không tồn tại hoặc đã kết thúc", Toast.LENGTH_SHORT).show();
             finish();
             return;
         }
+        
+        setupUI();
     }
     
     private void setupUI() {
@@ -107,9 +126,7 @@ public class VoteActivity extends AppCompatActivity {
         
         if (remainingTime <= 0) {
             // Poll has expired
-            poll.closePoll();
-            storage.savePoll(poll);
-            goToResults();
+            closeExpiredPoll();
             return;
         }
         
@@ -124,13 +141,23 @@ public class VoteActivity extends AppCompatActivity {
             @Override
             public void onFinish() {
                 textViewTimer.setText("Hết thời gian!");
-                poll.closePoll();
-                storage.savePoll(poll);
-                goToResults();
+                closeExpiredPoll();
             }
         }.start();
     }
     
+    private void closeExpiredPoll() {
+        if (hostAddress != null) {
+            // Máy chủ tự kết thúc poll của nó
+            Toast.makeText(this, "Cuộc bình chọn đã kết thúc", Toast.LENGTH_SHORT).show();
+            goToMainActivity();
+            return;
+        }
+        poll.closePoll();
+        storage.savePoll(poll);
+        goToResults();
+    }
+    
     private void setupSingleChoiceVoting() {
         radioGroupVoteOptions.setVisibility(View.VISIBLE);
         recyclerViewRankingOptions.setVisibility(View.GONE);
@@ -181,13 +208,15 @@ public class VoteActivity extends AppCompatActivity {
         // For random spinner, we don't need voting interface
         // Just show a message and allow going to results
         TextView messageView = new TextView(this);
-        messageView.setText("Cuộc bình chọn này sử dụng chế độ quay ngẫu nhiên.\nKết quả sẽ được quyết định bằng vòng quay may mắn!");
+        messageView.setText(hostAddress != null
+                ? "Cuộc bình chọn này sử dụng chế độ quay ngẫu nhiên.\nVòng quay diễn ra trên máy của người tạo."
+                : "Cuộc bình chọn này sử dụng chế độ quay ngẫu nhiên.\nKết quả sẽ được quyết định bằng vòng quay may mắn!");
         messageView.setTextSize(16);
         messageView.setPadding(16, 32, 16, 32);
         messageView.setTextAlignment(View.TEXT_ALIGNMENT_CENTER);
         layoutRandomSpinner.addView(messageView);
         
-        buttonSubmitVote.setText("Xem kết quả");
+        buttonSubmitVote.setText(hostAddress != null ? "Quay lại" : "Xem kết quả");
     }
     
     private void submitVote() {
@@ -200,7 +229,11 @@ public class VoteActivity extends AppCompatActivity {
                 break;
             case RANDOM_SPINNER:
                 // For random spinner, just go to results
-                goToResults();
+                if (hostAddress != null) {
+                    goToMainActivity();
+                } else {
+                    goToResults();
+                }
                 break;
         }
     }
@@ -216,6 +249,10 @@ public class VoteActivity extends AppCompatActivity {
         String selectedOption = selectedRadioButton.getText().toString();
         
         Vote vote = new Vote(userId, selectedOption);
+        if (hostAddress != null) {
+            submitRemoteVote(vote, "Đã ghi nhận bình chọn của bạn!");
+            return;
+        }
         poll.addVote(userId, vote);
         storage.savePoll(poll);
         
@@ -231,6 +268,10 @@ public class VoteActivity extends AppCompatActivity {
         }
         
         Vote vote = new Vote(userId, rankings);
+        if (hostAddress != null) {
+            submitRemoteVote(vote, "Đã ghi nhận xếp hạng của bạn!");
+            return;
+        }
         poll.addVote(userId, vote);
         storage.savePoll(poll);
         
@@ -238,6 +279,43 @@ public class VoteActivity extends AppCompatActivity {
         goToResults();
     }
     
+    // Gửi phiếu tới máy chủ của người tạo. Kết quả chỉ có trên máy đó: poll ở đây không có phiếu
+    // của ai khác, nên không dựng màn hình kết quả từ nó.
+    private void submitRemoteVote(Vote vote, String successMessage) {
+        buttonSubmitVote.setEnabled(false);
+        new AsyncPollTransport(new HttpPollTransport(hostAddress, userId, voterToken))
+                .submitVotes(poll.getId(), Collections.singletonList(vote), acks -> {
+                    if (isFinishing()) {
+                        return;
+                    }
+                    buttonSubmitVote.setEnabled(true);
+                    if (acks == null || acks.isEmpty()) {
+                        Toast.makeText(this, "Không kết nối được tới máy chủ bình chọn", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    VoteAck ack = acks.get(0);
+                    if (!ack.isAccepted()) {
+                        String message;
+                        if (VoteAck.REASON_CLOSED.equals(ack.getReason())) {
+                            message = "Cuộc bình chọn đã kết thúc";
+                        } else if (VoteAck.REASON_BUSY.equals(ack.getReason())) {
+                            message = "Máy chủ đang bận, vui lòng gửi lại";
+                        } else if (VoteAck.REASON_UNKNOWN.equals(ack.getReason())) {
+                            message = "Máy chủ chưa xác nhận phiếu, có thể phiếu vẫn được ghi. Gửi lại để chắc chắn";
+                        } else if (VoteAck.REASON_UNAUTHORIZED.equals(ack.getReason())) {
+                            message = "Phiên bình chọn đã hết hạn, vui lòng tham gia lại";
+                        } else {
+                            message = "Máy chủ không nhận phiếu này";
+                        }
+                        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    Toast.makeText(this, successMessage + " Kết quả hiển thị trên máy của người tạo.",
+                            Toast.LENGTH_LONG).show();
+                    goToMainActivity();
+                });
+    }
+    
     private void goToResults() {
         Intent intent = new Intent(this, ResultsActivity.class);
         intent.putExtra("poll_id", poll.getId());
@@ -251,6 +329,12 @@ public class VoteActivity extends AppCompatActivity {
         finish();
     }
     
+    @Override
+    protected void onStop() {
+        super.onStop();
+        storage.flush();
+    }
+    
     @Override
     protected void onDestroy() {
         super.onDestroy();
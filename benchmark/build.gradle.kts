@@ -0,0 +1,29 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":core"))
+}
+
+// ./gradlew :benchmark:jmh
+// Results go to build/results/jmh/results.json. The gc profiler adds gc.alloc.rate (MB/sec)
+// and gc.alloc.rate.norm (bytes/op) next to the throughput score.
+// Narrow a run with -Pjmh.includes=ClosePoll (regex on benchmark names).
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // 1M ranked votes x 100 options are kept in memory per trial
+    jvmArgs.addAll("-Xms2g", "-Xmx4g")
+    (findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+}
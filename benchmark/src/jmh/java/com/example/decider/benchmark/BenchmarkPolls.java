@@ -0,0 +1,71 @@
+package com.example.decider.benchmark;
+
+import com.example.decider.Poll;
+import com.example.decider.Vote;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Dữ liệu dùng chung cho các benchmark: poll với số phiếu và số option cho trước, phiếu ngẫu nhiên
+// nhưng cố định theo seed để các lần chạy so được với nhau
+final class BenchmarkPolls {
+    // Phiếu xếp hạng chỉ xếp tối đa chừng này option đầu, để 1M phiếu x 100 option vẫn vừa heap
+    static final int MAX_RANKED = 10;
+
+    private BenchmarkPolls() {}
+
+    static List<String> options(int count) {
+        List<String> options = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            options.add("Lựa chọn " + (i + 1));
+        }
+        return options;
+    }
+
+    // mode có dạng "SINGLE_CHOICE", "RANDOM_SPINNER" hoặc "RANKED_CHOICE/<CountingMethod>"
+    static Poll create(String mode, int voteCount, int optionCount) {
+        String[] parts = mode.split("/");
+        Poll.VotingMode votingMode = Poll.VotingMode.valueOf(parts[0]);
+        List<String> options = options(optionCount);
+        Poll poll = new Poll("poll_bench", "Benchmark", options, votingMode);
+        if (parts.length > 1) {
+            poll.setCountingMethod(Poll.CountingMethod.valueOf(parts[1]));
+        }
+
+        Random random = new Random(42);
+        int depth = Math.min(optionCount, MAX_RANKED);
+        for (int i = 0; i < voteCount; i++) {
+            String userId = "user_" + i;
+            Vote vote;
+            if (votingMode == Poll.VotingMode.RANKED_CHOICE) {
+                List<String> ranking = new ArrayList<>(depth);
+                for (int pick : distinctPicks(random, optionCount, 1 + random.nextInt(depth))) {
+                    ranking.add(options.get(pick));
+                }
+                vote = new Vote(userId, ranking);
+            } else {
+                vote = new Vote(userId, options.get(random.nextInt(optionCount)));
+            }
+            poll.addVote(userId, vote);
+        }
+        return poll;
+    }
+
+    private static int[] distinctPicks(Random random, int bound, int count) {
+        int[] picks = new int[count];
+        for (int i = 0; i < count; i++) {
+            int pick;
+            boolean seen;
+            do {
+                pick = random.nextInt(bound);
+                seen = false;
+                for (int j = 0; j < i; j++) {
+                    seen |= picks[j] == pick;
+                }
+            } while (seen);
+            picks[i] = pick;
+        }
+        return picks;
+    }
+}
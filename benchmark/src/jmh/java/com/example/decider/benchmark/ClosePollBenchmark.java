@@ -0,0 +1,46 @@
+package com.example.decider.benchmark;
+
+import com.example.decider.Poll;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Poll.closePoll cho từng VotingMode (và từng cách đếm của RANKED_CHOICE). Tally đã được dựng
+// trong setup như khi poll đang chạy, nên mỗi lần gọi đo đúng phần tính kết quả lúc kết thúc.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClosePollBenchmark {
+    @Param({"SINGLE_CHOICE", "RANKED_CHOICE/BORDA", "RANKED_CHOICE/INSTANT_RUNOFF", "RANKED_CHOICE/SCHULZE", "RANDOM_SPINNER"})
+    public String mode;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int votes;
+
+    @Param({"2", "10", "100"})
+    public int options;
+
+    private Poll poll;
+
+    @Setup
+    public void setUp() {
+        poll = BenchmarkPolls.create(mode, votes, options);
+        poll.getChoiceCount(poll.getOptions().get(0)); // dựng tally trước khi đo
+    }
+
+    @Benchmark
+    public List<String> closePoll() {
+        // closePoll tính lại kết quả mỗi lần gọi, kể cả khi poll đã kết thúc
+        poll.closePoll();
+        return poll.getResults();
+    }
+}
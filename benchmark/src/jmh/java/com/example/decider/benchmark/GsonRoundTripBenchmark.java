@@ -0,0 +1,174 @@
+package com.example.decider.benchmark;
+
+import com.example.decider.Poll;
+import com.example.decider.PollEvent;
+import com.example.decider.PollGson;
+import com.example.decider.PollStreamReader;
+import com.example.decider.PollSummary;
+import com.example.decider.PollTemplate;
+import com.example.decider.Vote;
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mã hoá/giải mã mọi thứ RecordPollRepository ghi xuống qua PollGson, như khi lưu thật:
+// record poll (PollRecordStore), danh sách mẫu trong prefs, dòng sự kiện của PollEventLog
+// và file chỉ mục tóm tắt (PollSummaryIndex). Mỗi loại dữ liệu có State và @Param riêng.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GsonRoundTripBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PollRecord {
+        @Param({"SINGLE_CHOICE", "RANKED_CHOICE/BORDA"})
+        public String mode;
+
+        @Param({"10", "1000", "100000", "1000000"})
+        public int votes;
+
+        @Param({"2", "10", "100"})
+        public int options;
+
+        Gson gson;
+        Poll poll;
+        String pollJson;
+
+        @Setup
+        public void setUp() {
+            gson = PollGson.create();
+            poll = BenchmarkPolls.create(mode, votes, options);
+            pollJson = gson.toJson(poll);
+        }
+    }
+
+    // Danh sách mẫu, ghi cả mảng và đọc bằng stream như RecordPollRepository.forEachTemplate
+    @State(Scope.Benchmark)
+    public static class Templates {
+        @Param({"10", "1000"})
+        public int templates;
+
+        Gson gson;
+        List<PollTemplate> list;
+        String json;
+
+        @Setup
+        public void setUp() {
+            gson = PollGson.create();
+            list = new ArrayList<>(templates);
+            for (int i = 0; i < templates; i++) {
+                PollTemplate template = new PollTemplate("Mẫu " + i, "Câu hỏi " + i, BenchmarkPolls.options(5));
+                template.setId("template_" + i);
+                list.add(template);
+            }
+            json = gson.toJson(list);
+        }
+    }
+
+    // Một dòng VOTE_CAST, loại sự kiện nhiều nhất trong nhật ký
+    @State(Scope.Benchmark)
+    public static class EventLine {
+        @Param({"SINGLE_CHOICE", "RANKED_CHOICE"})
+        public String mode;
+
+        Gson gson;
+        PollEvent event;
+        String line;
+
+        @Setup
+        public void setUp() {
+            gson = PollGson.create();
+            List<String> options = BenchmarkPolls.options(BenchmarkPolls.MAX_RANKED);
+            Vote vote = "RANKED_CHOICE".equals(mode) ? new Vote("user_1", options) : new Vote("user_1", options.get(0));
+            event = PollEvent.voteCast("user_1", vote, false);
+            line = gson.toJson(event);
+        }
+    }
+
+    // File chỉ mục tóm tắt: một mảng PollSummary, đọc bằng stream
+    @State(Scope.Benchmark)
+    public static class SummaryIndex {
+        @Param({"100", "10000"})
+        public int polls;
+
+        Gson gson;
+        List<PollSummary> summaries;
+        String json;
+
+        @Setup
+        public void setUp() {
+            gson = PollGson.create();
+            summaries = new ArrayList<>(polls);
+            for (int i = 0; i < polls; i++) {
+                Poll poll = new Poll("poll_" + i, "Câu hỏi " + i, BenchmarkPolls.options(5), Poll.VotingMode.SINGLE_CHOICE);
+                poll.setStartTime(1_000L * i);
+                summaries.add(PollSummary.of(poll));
+            }
+            json = gson.toJson(summaries);
+        }
+    }
+
+    @Benchmark
+    public String encodePoll(PollRecord state) {
+        return state.gson.toJson(state.poll);
+    }
+
+    @Benchmark
+    public Poll decodePoll(PollRecord state) {
+        return state.gson.fromJson(state.pollJson, Poll.class);
+    }
+
+    @Benchmark
+    public Poll roundTripPoll(PollRecord state) {
+        return state.gson.fromJson(state.gson.toJson(state.poll), Poll.class);
+    }
+
+    @Benchmark
+    public String encodeTemplates(Templates state) {
+        return state.gson.toJson(state.list);
+    }
+
+    @Benchmark
+    public List<PollTemplate> decodeTemplates(Templates state) throws IOException {
+        List<PollTemplate> templates = new ArrayList<>(state.templates);
+        PollStreamReader.forEachInArray(state.gson, new StringReader(state.json), PollTemplate.class, templates::add);
+        return templates;
+    }
+
+    @Benchmark
+    public String encodeEventLine(EventLine state) {
+        return state.gson.toJson(state.event);
+    }
+
+    @Benchmark
+    public PollEvent decodeEventLine(EventLine state) {
+        return state.gson.fromJson(state.line, PollEvent.class);
+    }
+
+    @Benchmark
+    public String encodeSummaryIndex(SummaryIndex state) {
+        StringWriter writer = new StringWriter();
+        state.gson.toJson(state.summaries, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public List<PollSummary> decodeSummaryIndex(SummaryIndex state) throws IOException {
+        List<PollSummary> summaries = new ArrayList<>(state.polls);
+        PollStreamReader.forEachInArray(state.gson, new StringReader(state.json), PollSummary.class, summaries::add);
+        return summaries;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.decider.benchmark;
+
+import com.example.decider.InMemoryPollRepository;
+import com.example.decider.LocalPollTransport;
+import com.example.decider.Poll;
+import com.example.decider.Vote;
+import com.example.decider.VoteAck;
+import com.example.decider.VoteIngestionPipeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Thông lượng phiếu/giây qua VoteIngestionPipeline như PollHostServer dùng: nhiều kết nối cùng gửi
+// lô phiếu, một luồng áp dụng gom lô và LocalPollTransport lưu một lần cho mỗi lô.
+// Lưu trữ ở đây không ghi đĩa, nên số đo là phần hàng đợi, gom lô và tally.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IngestionBenchmark {
+    private static final int VOTES_PER_REQUEST = 16;
+    private static final int USERS = 100_000; // người bầu xoay vòng, để số phiếu trong poll không tăng mãi
+
+    @Param({"2", "10"})
+    public int options;
+
+    private Poll poll;
+    private List<String> optionNames;
+    private ExecutorService storeExecutor;
+    private VoteIngestionPipeline pipeline;
+    private final AtomicInteger nextUser = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        optionNames = BenchmarkPolls.options(options);
+        poll = new Poll("poll_bench", "Benchmark", optionNames, Poll.VotingMode.SINGLE_CHOICE);
+        storeExecutor = Executors.newSingleThreadExecutor();
+        InMemoryPollRepository repository = new InMemoryPollRepository();
+        repository.savePoll(poll);
+        LocalPollTransport local = new LocalPollTransport(repository, storeExecutor);
+        pipeline = new VoteIngestionPipeline(local);
+        pipeline.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+        storeExecutor.shutdownNow();
+    }
+
+    // Mỗi lần gọi là một request POST của một kết nối; điểm số tính theo phiếu
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(VOTES_PER_REQUEST)
+    public List<VoteAck> submitVotes() throws IOException {
+        List<Vote> votes = new ArrayList<>(VOTES_PER_REQUEST);
+        for (int i = 0; i < VOTES_PER_REQUEST; i++) {
+            int user = Math.floorMod(nextUser.getAndIncrement(), USERS);
+            votes.add(new Vote("user_" + user, optionNames.get(user % options)));
+        }
+        return pipeline.submitVotes(poll.getId(), votes);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.decider.benchmark;
+
+import com.example.decider.Poll;
+import com.example.decider.Vote;
+import com.example.decider.VoteCounts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// VoteCounts.of, phép đếm ResultsAdapter.calculateVoteCounts chạy mỗi lần màn hình kết quả làm mới.
+// Loại dần và Schulze được Poll giữ lại kết quả khi tally chưa đổi, nên có hai trường hợp:
+// đọc lại khi không có phiếu mới, và đếm lại ngay sau một phiếu (một người bầu lại).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VoteCountsBenchmark {
+    private static final int REVOTES = 1024;
+
+    @Param({"SINGLE_CHOICE", "RANKED_CHOICE/BORDA", "RANKED_CHOICE/INSTANT_RUNOFF", "RANKED_CHOICE/SCHULZE"})
+    public String mode;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int votes;
+
+    @Param({"2", "10", "100"})
+    public int options;
+
+    private Poll poll;
+    private final List<String> results = Collections.emptyList();
+    private final List<Vote> revotes = new ArrayList<>(REVOTES);
+    private int nextRevote;
+
+    @Setup
+    public void setUp() {
+        poll = BenchmarkPolls.create(mode, votes, options);
+        // Phiếu bầu lại của những người đã bầu, để số phiếu trong poll không đổi
+        Poll source = BenchmarkPolls.create(mode, Math.min(votes, REVOTES), options);
+        revotes.addAll(source.getVotes().values());
+    }
+
+    @Benchmark
+    public VoteCounts calculateVoteCounts() {
+        return VoteCounts.of(poll, results);
+    }
+
+    @Benchmark
+    public VoteCounts calculateVoteCountsAfterVote() {
+        // Bản sao mới mỗi lần: Poll bỏ qua phiếu là chính instance đang có
+        Vote previous = revotes.get(nextRevote++ % revotes.size());
+        Vote vote = previous.getSingleChoice() != null
+                ? new Vote(previous.getUserId(), previous.getSingleChoice())
+                : new Vote(previous.getUserId(), previous.getRankings());
+        poll.addVote(vote.getUserId(), vote);
+        return VoteCounts.of(poll, results);
+    }
+}
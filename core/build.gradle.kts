@@ -0,0 +1,18 @@
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    // Gson for JSON serialization, exposed because PollGson hands out Gson instances
+    api("com.google.code.gson:gson:2.10.1")
+
+    testImplementation(libs.junit)
+    
+    // SQLite JDBC driver so SqlPollStore tests run on the JVM with an in-memory database
+    testImplementation("org.xerial:sqlite-jdbc:3.46.1.3")
+}
@@ -0,0 +1,152 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// PollTransport gọi tới PollHostServer của máy tạo poll qua HTTP. Các hàm chặn luồng gọi,
+// nên phải chạy ngoài UI thread (xem AsyncPollTransport).
+// findPollByInviteCode gửi deviceId cố định của thiết bị và nhận từ máy chủ voterId và token;
+// tìm lại với cùng deviceId nhận lại đúng danh tính đó. submitVotes gửi kèm token, và phiếu phải
+// mang đúng voterId đó. Truyền token sang transport khác qua hàm dựng ba tham số.
+public class HttpPollTransport implements PollTransport {
+    private static final int TIMEOUT_MS = 5_000;
+
+    private final String baseUrl;
+    private final String deviceId;
+    private final Gson gson = PollGson.create();
+    private volatile String voterId;
+    private volatile String voterToken;
+
+    // hostAddress dạng "192.168.1.5:8737" hoặc "http://192.168.1.5:8737"; thiếu cổng thì dùng cổng mặc định
+    public HttpPollTransport(String hostAddress) {
+        this(hostAddress, null);
+    }
+
+    // deviceId giữ nguyên giữa các lần chạy app, để máy chủ không cấp danh tính mới mỗi lần tìm poll
+    public HttpPollTransport(String hostAddress, String deviceId) {
+        this.baseUrl = normalize(hostAddress);
+        this.deviceId = deviceId;
+    }
+
+    // Dùng voterId/token đã nhận từ lần tìm poll trước (ví dụ ở màn hình khác)
+    public HttpPollTransport(String hostAddress, String voterId, String voterToken) {
+        this.baseUrl = normalize(hostAddress);
+        this.deviceId = null;
+        this.voterId = voterId;
+        this.voterToken = voterToken;
+    }
+
+    static String normalize(String hostAddress) {
+        String address = hostAddress.trim();
+        if (!address.startsWith("http://") && !address.startsWith("https://")) {
+            address = "http://" + address;
+        }
+        while (address.endsWith("/")) {
+            address = address.substring(0, address.length() - 1);
+        }
+        String authority = address.substring(address.indexOf("//") + 2);
+        if (!authority.contains(":")) {
+            address = address + ":" + PollHostServer.DEFAULT_PORT;
+        }
+        return address;
+    }
+
+    @Override
+    public Poll findPollByInviteCode(String inviteCode) throws IOException {
+        String path = "/polls?inviteCode=" + URLEncoder.encode(inviteCode, "UTF-8");
+        if (deviceId != null) {
+            path += "&deviceId=" + URLEncoder.encode(deviceId, "UTF-8");
+        }
+        HttpURLConnection connection = open(path, "GET");
+        try {
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            }
+            checkStatus(status);
+            PollInvite invite = gson.fromJson(readBody(connection.getInputStream()), PollInvite.class);
+            if (invite == null) {
+                return null;
+            }
+            voterId = invite.getVoterId();
+            voterToken = invite.getVoterToken();
+            return invite.toPoll();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public List<VoteAck> submitVotes(String pollId, List<Vote> votes) throws IOException {
+        if (votes == null || votes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        HttpURLConnection connection = open("/polls/" + URLEncoder.encode(pollId, "UTF-8") + "/votes", "POST");
+        try {
+            byte[] body = gson.toJson(votes).getBytes(StandardCharsets.UTF_8);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            String token = voterToken;
+            if (token != null) {
+                connection.setRequestProperty(PollHostServer.HEADER_VOTER_TOKEN, token);
+            }
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            checkStatus(connection.getResponseCode());
+            List<VoteAck> acks = gson.fromJson(readBody(connection.getInputStream()),
+                    new TypeToken<List<VoteAck>>(){}.getType());
+            return acks != null ? acks : new ArrayList<>();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // userId máy chủ đã cấp cho thiết bị này; null khi chưa tìm poll
+    public String getVoterId() {
+        return voterId;
+    }
+
+    public String getVoterToken() {
+        return voterToken;
+    }
+
+    private HttpURLConnection open(String path, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        connection.setUseCaches(false);
+        return connection;
+    }
+
+    private static void checkStatus(int status) throws IOException {
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Poll host returned HTTP " + status);
+        }
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+}
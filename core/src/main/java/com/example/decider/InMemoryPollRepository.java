@@ -0,0 +1,131 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// PollRepository chỉ nằm trong bộ nhớ, không cần Context: dùng trong test JVM và làm mốc
+// khi so các backend lưu trữ với nhau. Giống RecordPollRepository, poll trả về là chính instance đã lưu,
+// còn current poll là một bản chụp.
+public class InMemoryPollRepository implements PollRepository {
+    private final Map<String, Poll> polls = new LinkedHashMap<>();
+    private final Map<String, PollTemplate> templates = new LinkedHashMap<>();
+    private final Gson gson = PollGson.create();
+    private final PollChangeBus changes = new PollChangeBus();
+    private String currentPoll; // JSON, giống KEY_CURRENT_POLL của RecordPollRepository
+
+    @Override
+    public void savePoll(Poll poll) {
+        if (poll == null || poll.getId() == null) {
+            return;
+        }
+        PollChange change = poll.takeChanges();
+        synchronized (this) {
+            polls.put(poll.getId(), poll);
+        }
+        changes.publish(change);
+    }
+
+    @Override
+    public synchronized Poll getPollById(String id) {
+        return id != null ? polls.get(id) : null;
+    }
+
+    @Override
+    public synchronized Poll getPollByInviteCode(String inviteCode) {
+        String code = PollCache.normalizeCode(inviteCode);
+        if (code == null) {
+            return null;
+        }
+        for (Poll poll : polls.values()) {
+            if (poll.isActive() && code.equals(PollCache.normalizeCode(poll.getInviteCode()))) {
+                return poll;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized List<Poll> getAllPolls() {
+        List<Poll> all = new ArrayList<>(polls.values());
+        all.sort((a, b) -> Long.compare(a.getStartTime(), b.getStartTime()));
+        return all;
+    }
+
+    @Override
+    public void deletePoll(String id) {
+        if (id == null) {
+            return;
+        }
+        synchronized (this) {
+            polls.remove(id);
+        }
+        changes.publish(PollChange.deleted(id));
+    }
+
+    @Override
+    public PollChangeBus changes() {
+        return changes;
+    }
+
+    @Override
+    public void flush() {
+        // Không có gì để ghi
+    }
+
+    @Override
+    public synchronized void setCurrentPoll(Poll poll) {
+        currentPoll = poll != null ? gson.toJson(poll) : null;
+    }
+
+    @Override
+    public synchronized Poll getCurrentPoll() {
+        return currentPoll != null ? gson.fromJson(currentPoll, Poll.class) : null;
+    }
+
+    @Override
+    public synchronized void clearCurrentPoll() {
+        currentPoll = null;
+    }
+
+    @Override
+    public synchronized void saveTemplate(PollTemplate template) {
+        if (template == null || template.getId() == null) {
+            return;
+        }
+        templates.remove(template.getId()); // mẫu lưu lại được đưa xuống cuối, như RecordPollRepository
+        templates.put(template.getId(), template);
+    }
+
+    @Override
+    public synchronized List<PollTemplate> getAllTemplates() {
+        return new ArrayList<>(templates.values());
+    }
+
+    @Override
+    public synchronized PollTemplate getTemplateById(String id) {
+        return id != null ? templates.get(id) : null;
+    }
+
+    @Override
+    public synchronized void deleteTemplate(String id) {
+        if (id != null) {
+            templates.remove(id);
+        }
+    }
+
+    @Override
+    public synchronized boolean hasTemplates() {
+        return !templates.isEmpty();
+    }
+
+    @Override
+    public synchronized void clearAllData() {
+        polls.clear();
+        templates.clear();
+        currentPoll = null;
+    }
+}
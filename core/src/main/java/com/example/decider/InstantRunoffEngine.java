@@ -0,0 +1,284 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Đếm phiếu loại dần (instant runoff) trên các phiếu xếp hạng đã chuyển sang chỉ số ứng viên.
+// Phiếu được chia vào từng "thùng" theo ứng viên đang được ưu tiên cao nhất; mỗi vòng chỉ các phiếu
+// trong thùng của ứng viên bị loại được chuyển sang lựa chọn kế tiếp, nên tổng chi phí là
+// O(tổng độ dài các phiếu + số vòng × số ứng viên) thay vì đếm lại toàn bộ phiếu mỗi vòng.
+public class InstantRunoffEngine {
+    private static final int NO_CANDIDATE = -1;
+
+    private final List<String> candidates;
+    private final Map<String, Integer> indexByCandidate = new HashMap<>();
+    private int[][] ballots = new int[16][];
+    private int ballotCount;
+
+    // Số phiếu của từng ứng viên trong một vòng
+    public static final class Round {
+        private final Map<String, Integer> indexByCandidate;
+        private final int[] counts; // -1 nếu ứng viên đã bị loại trước vòng này
+        private final String eliminated;
+        private final int exhausted;
+        private final int continuing;
+
+        Round(Map<String, Integer> indexByCandidate, int[] counts, String eliminated, int exhausted, int continuing) {
+            this.indexByCandidate = indexByCandidate;
+            this.counts = counts;
+            this.eliminated = eliminated;
+            this.exhausted = exhausted;
+            this.continuing = continuing;
+        }
+
+        // Số phiếu của ứng viên trong vòng này; -1 nếu đã bị loại ở vòng trước
+        public int getCount(String candidate) {
+            Integer index = candidate != null ? indexByCandidate.get(candidate) : null;
+            return index != null ? counts[index] : 0;
+        }
+
+        public boolean isActive(String candidate) {
+            return getCount(candidate) >= 0;
+        }
+
+        // Ứng viên bị loại cuối vòng này; null ở vòng cuối cùng
+        public String getEliminated() {
+            return eliminated;
+        }
+
+        // Số phiếu đã hết lựa chọn còn lại tính tới vòng này
+        public int getExhausted() {
+            return exhausted;
+        }
+
+        // Số phiếu còn được tính cho một ứng viên trong vòng này
+        public int getContinuing() {
+            return continuing;
+        }
+    }
+
+    public static final class Result {
+        private final List<String> candidates;
+        private final List<Round> rounds;
+        private final String winner;
+        private final Map<String, Integer> eliminatedRound;
+        private final long[] standings;
+
+        Result(List<String> candidates, List<Round> rounds, String winner, Map<String, Integer> eliminatedRound,
+               long[] standings) {
+            this.candidates = candidates;
+            this.rounds = Collections.unmodifiableList(rounds);
+            this.winner = winner;
+            this.eliminatedRound = eliminatedRound;
+            this.standings = standings;
+        }
+
+        public List<Round> getRounds() {
+            return rounds;
+        }
+
+        public Round getFinalRound() {
+            return rounds.isEmpty() ? null : rounds.get(rounds.size() - 1);
+        }
+
+        public String getWinner() {
+            return winner;
+        }
+
+        // Vòng quyết định là vòng cuối còn từ hai ứng viên; nếu ở vòng đó không ai quá bán thì
+        // mọi ứng viên cùng có số phiếu cao nhất là hòa (người thắng chỉ được chọn nhờ luật phân xử)
+        public TieAnalysis analyzeTies() {
+            for (int r = rounds.size() - 1; r >= 0; r--) {
+                Round round = rounds.get(r);
+                List<String> active = new ArrayList<>();
+                for (String candidate : candidates) {
+                    if (round.isActive(candidate)) {
+                        active.add(candidate);
+                    }
+                }
+                if (active.size() < 2) {
+                    continue;
+                }
+                TieAnalysis top = TieAnalysis.atTop(active, round::getCount);
+                if (top.getTopScore() * 2 > round.getContinuing()) {
+                    return new TieAnalysis(Collections.singletonList(winner), top.getTopScore());
+                }
+                return top;
+            }
+            return winner != null ? new TieAnalysis(Collections.singletonList(winner), 0L) : TieAnalysis.NONE;
+        }
+
+        // Vòng (đếm từ 1) mà ứng viên bị loại; 0 nếu còn lại tới vòng cuối
+        public int getEliminatedRound(String candidate) {
+            Integer round = candidate != null ? eliminatedRound.get(candidate) : null;
+            return round != null ? round : 0;
+        }
+
+        // Số phiếu của ứng viên ở vòng cuối cùng nó còn được tính
+        public int getLastCount(String candidate) {
+            int round = getEliminatedRound(candidate);
+            Round last = round > 0 ? rounds.get(round - 1) : getFinalRound();
+            return last != null ? Math.max(0, last.getCount(candidate)) : 0;
+        }
+
+        // Giá trị để xếp hạng theo chỉ số ứng viên: bị loại càng muộn càng cao,
+        // các ứng viên còn lại ở vòng cuối xếp theo số phiếu vòng cuối
+        long[] standings() {
+            return standings;
+        }
+    }
+
+    // candidates là các ứng viên khác nhau, chỉ số trong danh sách là chỉ số dùng trong phiếu
+    public InstantRunoffEngine(List<String> candidates) {
+        this.candidates = candidates != null ? new ArrayList<>(candidates) : new ArrayList<>();
+        for (int i = 0; i < this.candidates.size(); i++) {
+            indexByCandidate.put(this.candidates.get(i), i);
+        }
+    }
+
+    // ranking là chỉ số ứng viên theo thứ tự ưu tiên; giá trị ngoài khoảng được bỏ qua
+    public void addBallot(int[] ranking) {
+        if (ranking == null) {
+            return;
+        }
+        if (ballotCount == ballots.length) {
+            ballots = Arrays.copyOf(ballots, ballotCount * 2);
+        }
+        ballots[ballotCount++] = ranking;
+    }
+
+    public int getBallotCount() {
+        return ballotCount;
+    }
+
+    public Result run() {
+        int n = candidates.size();
+        boolean[] eliminated = new boolean[n];
+        int[] position = new int[ballotCount];
+        int[][] buckets = new int[n][];
+        int[] bucketSizes = new int[n];
+        int exhausted = 0;
+
+        for (int b = 0; b < ballotCount; b++) {
+            int candidate = nextPreference(ballots[b], position, b, eliminated);
+            if (candidate == NO_CANDIDATE) {
+                exhausted++;
+            } else {
+                addToBucket(buckets, bucketSizes, candidate, b);
+            }
+        }
+
+        List<Round> rounds = new ArrayList<>();
+        List<int[]> history = new ArrayList<>();
+        Map<String, Integer> eliminatedRound = new HashMap<>();
+        long[] standings = new long[n];
+        int remaining = n;
+        String winner = null;
+
+        while (remaining > 0) {
+            int continuing = ballotCount - exhausted;
+            int[] counts = new int[n];
+            int leader = NO_CANDIDATE;
+            for (int c = 0; c < n; c++) {
+                counts[c] = eliminated[c] ? -1 : bucketSizes[c];
+                if (!eliminated[c] && (leader == NO_CANDIDATE || counts[c] > counts[leader])) {
+                    leader = c;
+                }
+            }
+            history.add(counts);
+
+            // Dừng khi có ứng viên quá bán số phiếu còn được tính, hoặc chỉ còn một ứng viên
+            if (remaining == 1 || (long) counts[leader] * 2 > continuing) {
+                rounds.add(new Round(indexByCandidate, counts, null, exhausted, continuing));
+                winner = candidates.get(leader);
+                for (int c = 0; c < n; c++) {
+                    if (!eliminated[c]) {
+                        standings[c] = rounds.size() + (long) counts[c];
+                    }
+                }
+                break;
+            }
+
+            int loser = pickLoser(history, eliminated);
+            rounds.add(new Round(indexByCandidate, counts, candidates.get(loser), exhausted, continuing));
+            eliminatedRound.put(candidates.get(loser), rounds.size());
+            standings[loser] = rounds.size() - 1;
+            eliminated[loser] = true;
+            remaining--;
+
+            // Chỉ chuyển các phiếu đang nằm trong thùng của ứng viên bị loại
+            int[] moved = buckets[loser];
+            int movedCount = bucketSizes[loser];
+            buckets[loser] = null;
+            bucketSizes[loser] = 0;
+            for (int i = 0; i < movedCount; i++) {
+                int b = moved[i];
+                position[b]++;
+                int candidate = nextPreference(ballots[b], position, b, eliminated);
+                if (candidate == NO_CANDIDATE) {
+                    exhausted++;
+                } else {
+                    addToBucket(buckets, bucketSizes, candidate, b);
+                }
+            }
+        }
+
+        return new Result(candidates, rounds, winner, eliminatedRound, standings);
+    }
+
+    // Ứng viên ít phiếu nhất vòng này bị loại; nếu bằng nhau thì so ngược lại các vòng trước,
+    // vẫn bằng thì loại ứng viên đứng sau trong danh sách
+    private static int pickLoser(List<int[]> history, boolean[] eliminated) {
+        int loser = NO_CANDIDATE;
+        for (int c = eliminated.length - 1; c >= 0; c--) {
+            if (eliminated[c]) {
+                continue;
+            }
+            if (loser == NO_CANDIDATE || fewerVotes(history, c, loser)) {
+                loser = c;
+            }
+        }
+        return loser;
+    }
+
+    private static boolean fewerVotes(List<int[]> history, int candidate, int other) {
+        for (int r = history.size() - 1; r >= 0; r--) {
+            int[] counts = history.get(r);
+            if (counts[candidate] != counts[other]) {
+                return counts[candidate] < counts[other];
+            }
+        }
+        return false;
+    }
+
+    private int nextPreference(int[] ranking, int[] position, int ballot, boolean[] eliminated) {
+        int p = position[ballot];
+        while (p < ranking.length) {
+            int candidate = ranking[p];
+            if (candidate >= 0 && candidate < eliminated.length && !eliminated[candidate]) {
+                position[ballot] = p;
+                return candidate;
+            }
+            p++;
+        }
+        position[ballot] = p;
+        return NO_CANDIDATE;
+    }
+
+    private static void addToBucket(int[][] buckets, int[] bucketSizes, int candidate, int ballot) {
+        int[] bucket = buckets[candidate];
+        int size = bucketSizes[candidate];
+        if (bucket == null) {
+            bucket = new int[16];
+        } else if (size == bucket.length) {
+            bucket = Arrays.copyOf(bucket, size * 2);
+        }
+        bucket[size] = ballot;
+        buckets[candidate] = bucket;
+        bucketSizes[candidate] = size + 1;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.decider;
+
+// Vài khoá chuỗi nhỏ (mẫu, current poll, chuỗi polls cũ) mà RecordPollRepository giữ ngoài thư mục record.
+// Trên máy là SharedPreferences, test JVM dùng một map.
+public interface KeyValueStore {
+    // null nếu chưa có khoá
+    String getString(String key);
+
+    void putString(String key, String value);
+
+    void remove(String key);
+
+    void clear();
+}
@@ -0,0 +1,94 @@
+package com.example.decider;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histogram kiểu HDR cho giá trị dương (thường là nano giây): mỗi khoảng [2^k, 2^(k+1)) chia thành
+// SUB_BUCKETS ô đều nhau, nên sai số tương đối của percentile không quá 1/SUB_BUCKETS (~3%)
+// trên toàn dải giá trị mà chỉ cần một mảng cố định. Ghi một giá trị là vài phép dịch bit và
+// một lần tăng nguyên tử, không khoá và không cấp phát.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS; // 32 ô mỗi khoảng lũy thừa 2
+    private static final int LINEAR = SUB_BUCKETS * 2; // giá trị < 64 có ô riêng
+    private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n > 0 ? (double) sum.sum() / n : 0.0;
+    }
+
+    // Giá trị mà percent % số mẫu không vượt quá (cận trên của ô chứa mẫu đó, không quá max)
+    public long getValueAtPercentile(double percent) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(Math.min(percent, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BITS + 1
+        int shift = magnitude - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS; // 0 .. SUB_BUCKETS - 1
+        return LINEAR + (shift - 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
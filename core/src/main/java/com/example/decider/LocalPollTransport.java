@@ -0,0 +1,113 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+// PollTransport trên PollRepository của chính tiến trình này. Mọi truy cập repository chạy trên một
+// executor (StorageExecutor trong app), nên các lô phiếu từ nhiều kết nối không chen nhau.
+public class LocalPollTransport implements PollTransport {
+    private final Supplier<? extends PollRepository> repository;
+    private final ExecutorService executor;
+    private final Gson gson = PollGson.create();
+
+    public LocalPollTransport(PollRepository repository, ExecutorService executor) {
+        this(() -> repository, executor);
+    }
+
+    // repository được lấy trên executor, để lần mở backend đầu tiên không chạy trên luồng gọi
+    public LocalPollTransport(Supplier<? extends PollRepository> repository, ExecutorService executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    @Override
+    public Poll findPollByInviteCode(String inviteCode) throws IOException {
+        // Trả về bản sao để luồng gọi (luồng của server) không đọc Poll đang được dùng chung
+        return call(() -> {
+            Poll poll = repository.get().getPollByInviteCode(inviteCode);
+            return poll != null ? gson.fromJson(gson.toJson(poll), Poll.class) : null;
+        });
+    }
+
+    @Override
+    public List<VoteAck> submitVotes(String pollId, List<Vote> votes) throws IOException {
+        return call(() -> {
+            List<VoteAck> acks = new ArrayList<>();
+            PollRepository store = repository.get();
+            Poll poll = pollId != null ? store.getPollById(pollId) : null;
+            boolean changed = false;
+            for (Vote vote : votes) {
+                String userId = vote != null ? vote.getUserId() : null;
+                if (poll == null) {
+                    acks.add(VoteAck.rejected(userId, VoteAck.REASON_NOT_FOUND));
+                } else if (!poll.isActive()) {
+                    acks.add(VoteAck.rejected(userId, VoteAck.REASON_CLOSED));
+                } else if (!isValid(poll, vote)) {
+                    acks.add(VoteAck.rejected(userId, VoteAck.REASON_INVALID));
+                } else if (poll.addVote(userId, vote)) {
+                    acks.add(VoteAck.accepted(userId));
+                    changed = true;
+                } else {
+                    // Poll vừa kết thúc giữa lúc kiểm tra và lúc ghi
+                    acks.add(VoteAck.rejected(userId, VoteAck.REASON_CLOSED));
+                }
+            }
+            // Lưu một lần cho cả lô
+            if (changed) {
+                store.savePoll(poll);
+            }
+            return acks;
+        });
+    }
+
+    static boolean isValid(Poll poll, Vote vote) {
+        if (vote == null || vote.getUserId() == null || vote.getUserId().isEmpty()) {
+            return false;
+        }
+        List<String> options = poll.getOptions();
+        switch (poll.getVotingMode()) {
+            case SINGLE_CHOICE:
+                return vote.getSingleChoice() != null && options.contains(vote.getSingleChoice());
+            case RANKED_CHOICE:
+                return isValidRanking(options, vote.getRankings());
+            case RANDOM_SPINNER:
+            default:
+                return false;
+        }
+    }
+
+    // Mỗi option xuất hiện nhiều nhất một lần: Borda cộng điểm theo từng vị trí trong danh sách,
+    // nên ["A","A","A"] sẽ nhân điểm của A lên
+    private static boolean isValidRanking(List<String> options, List<String> rankings) {
+        if (rankings == null || rankings.isEmpty() || rankings.size() > options.size()) {
+            return false;
+        }
+        Set<String> seen = new HashSet<>();
+        for (String option : rankings) {
+            if (option == null || !options.contains(option) || !seen.add(option)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> T call(Callable<T> task) throws IOException {
+        try {
+            return executor.submit(task).get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
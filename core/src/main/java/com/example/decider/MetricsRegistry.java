@@ -0,0 +1,154 @@
+package com.example.decider;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Số đo của các đường nóng (lưu trữ, Gson, đếm phiếu, bind danh sách) trong tiến trình: timer,
+// counter và histogram theo tên. Timer được lấy một lần vào hằng static, nên mỗi lần đo chỉ tốn
+// hai lần System.nanoTime() và một lần ghi histogram. Mỗi timer cũng mở một trace section
+// cùng tên qua Tracer (app cài Tracer dùng android.os.Trace), để thấy được trong system trace.
+//
+// Dùng: long started = TIMER.start(); try { ... } finally { TIMER.stop(started); }
+public class MetricsRegistry {
+
+    public interface Tracer {
+        void beginSection(String name);
+        void endSection();
+    }
+
+    private static final Tracer NO_TRACE = new Tracer() {
+        @Override
+        public void beginSection(String name) {}
+
+        @Override
+        public void endSection() {}
+    };
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile Tracer tracer = NO_TRACE;
+
+    // Registry dùng chung cả tiến trình
+    public static MetricsRegistry get() {
+        return DEFAULT;
+    }
+
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer != null ? tracer : NO_TRACE;
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer(key, this));
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    // Histogram giá trị tuỳ ý (ví dụ số byte); timer đã có histogram thời gian của riêng nó
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    // Xoá số liệu nhưng giữ các timer/counter đã được lấy ra, vì chúng nằm trong hằng static
+    public void reset() {
+        for (Timer timer : timers.values()) {
+            timer.histogram.reset();
+        }
+        for (Counter counter : counters.values()) {
+            counter.adder.reset();
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    // Mỗi số đo một dòng, sắp theo tên. Timer tính bằng mili giây.
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.US, "%-36s %9s %10s %10s %10s", "timer (ms)", "count", "p50", "p99", "max"));
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            LatencyHistogram histogram = entry.getValue().histogram;
+            lines.add(String.format(Locale.US, "%-36s %9d %10.3f %10.3f %10.3f", entry.getKey(), histogram.getCount(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMax())));
+        }
+        lines.add("");
+        lines.add(String.format(Locale.US, "%-36s %9s %10s %10s %10s", "histogram", "count", "p50", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            lines.add(String.format(Locale.US, "%-36s %9d %10d %10d %10d", entry.getKey(), histogram.getCount(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getMax()));
+        }
+        lines.add("");
+        lines.add(String.format(Locale.US, "%-36s %9s", "counter", "value"));
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            lines.add(String.format(Locale.US, "%-36s %9d", entry.getKey(), entry.getValue().get()));
+        }
+        return lines;
+    }
+
+    public void dump(Writer out) throws IOException {
+        for (String line : report()) {
+            out.write(line);
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public static final class Timer {
+        private final String name;
+        private final MetricsRegistry owner;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Timer(String name, MetricsRegistry owner) {
+            this.name = name;
+            this.owner = owner;
+        }
+
+        // Mở trace section và trả về thời điểm bắt đầu để truyền cho stop
+        public long start() {
+            owner.tracer.beginSection(name);
+            return System.nanoTime();
+        }
+
+        public void stop(long started) {
+            histogram.record(System.nanoTime() - started);
+            owner.tracer.endSection();
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long amount) {
+            adder.add(amount);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Một trang kết quả, sắp mới nhất trước. next là con trỏ keyset để lấy trang kế tiếp,
+// null khi đã hết dữ liệu.
+public class Page<T> {
+
+    // Vị trí trong thứ tự (thời gian giảm dần, id giảm dần để phân định khi trùng thời gian)
+    public static final class Cursor implements Comparable<Cursor> {
+        private final long time;
+        private final String id;
+
+        public Cursor(long time, String id) {
+            this.time = time;
+            this.id = id != null ? id : "";
+        }
+
+        public long getTime() { return time; }
+        public String getId() { return id; }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int byTime = Long.compare(other.time, time);
+            return byTime != 0 ? byTime : other.id.compareTo(id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cursor)) {
+                return false;
+            }
+            Cursor other = (Cursor) o;
+            return time == other.time && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(time) + id.hashCode();
+        }
+    }
+
+    private final List<T> items;
+    private final Cursor next;
+
+    public Page(List<T> items, Cursor next) {
+        this.items = items != null ? items : new ArrayList<>();
+        this.next = next;
+    }
+
+    public static <T> Page<T> empty() {
+        return new Page<>(new ArrayList<>(), null);
+    }
+
+    // Trang sau con trỏ after trên một danh sách đã có sẵn trong bộ nhớ, cho backend không có chỉ mục riêng
+    public static <T> Page<T> slice(List<T> all, Function<T, Cursor> cursorOf, Cursor after, int limit) {
+        if (limit <= 0) {
+            return empty();
+        }
+        List<T> sorted = new ArrayList<>(all);
+        sorted.sort((a, b) -> cursorOf.apply(a).compareTo(cursorOf.apply(b)));
+        List<T> items = new ArrayList<>(limit);
+        Cursor next = null;
+        for (T item : sorted) {
+            if (after != null && cursorOf.apply(item).compareTo(after) <= 0) {
+                continue;
+            }
+            if (items.size() == limit) {
+                next = cursorOf.apply(items.get(limit - 1));
+                break;
+            }
+            items.add(item);
+        }
+        return new Page<>(items, next);
+    }
+
+    public List<T> getItems() { return items; }
+    public Cursor getNext() { return next; }
+    public boolean hasMore() { return next != null; }
+}
@@ -0,0 +1,649 @@
+package com.example.decider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class Poll {
+    public enum VotingMode {
+        SINGLE_CHOICE,
+        RANKED_CHOICE,
+        RANDOM_SPINNER
+    }
+    
+    // Cách đếm phiếu cho RANKED_CHOICE
+    public enum CountingMethod {
+        BORDA,
+        INSTANT_RUNOFF,
+        SCHULZE
+    }
+    
+    private String id;
+    private String question;
+    private List<String> options;
+    private VotingMode votingMode;
+    private CountingMethod countingMethod; // null ở dữ liệu cũ, hiểu là BORDA
+    private boolean hasTimer;
+    private int timerMinutes;
+    private long startTime;
+    private volatile boolean isActive;
+    private Map<String, Vote> votes; // userId -> Vote, luôn là ConcurrentHashMap
+    private volatile List<String> results; // calculated results, chỉ thay cả danh sách, không sửa tại chỗ
+    private String inviteCode; // Mã mời để tham gia
+    private long endTime; // thời điểm kết thúc
+    private long eventSeq; // số thứ tự sự kiện cuối cùng đã có trong trạng thái này, xem PollEventLog
+    
+    // Bộ đếm cộng dồn theo từng phiếu, không lưu xuống JSON; dựng lại một lần khi cần sau khi đọc từ storage.
+    // null nghĩa là cần dựng lại (sau setVotes/setOptions).
+    private transient volatile TallyEngine tally;
+    
+    // Kết quả loại dần/Schulze gần nhất cùng phiên bản tally đã dùng để tính; null nếu chưa tính
+    private transient volatile Computed<InstantRunoffEngine.Result> runoff;
+    private transient volatile Computed<SchulzeEngine.Result> schulze;
+    
+    // addVote/applyChange giữ read lock nên chạy song song với nhau; closePoll, takeChanges,
+    // setVotes và setOptions giữ write lock để thấy trạng thái không có phiếu nào đang ghi dở.
+    private final transient ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Chỉ dùng khi dựng lại tally; tallies() có thể chạy khi đang giữ read lock nên không lấy write lock được
+    private final transient Object tallyLock = new Object();
+    
+    // Thay đổi chưa được phát đi kể từ lần lưu trước, xem takeChanges(). Chỉ ghi lại khi một repository
+    // đã nhận poll này (trackChanges), để poll không bao giờ được lưu không giữ thêm một bản mọi phiếu.
+    private transient volatile boolean trackingChanges;
+    private transient Map<String, Vote> pendingAdded = new ConcurrentHashMap<>();
+    private transient Map<String, Vote> pendingReplaced = new ConcurrentHashMap<>();
+    private transient boolean pendingClosed;
+    private transient List<String> pendingResults; // kết quả do vòng quay/nón kỳ diệu chốt
+    
+    public Poll() {
+        this.options = new ArrayList<>();
+        this.votes = new ConcurrentHashMap<>();
+        this.results = new ArrayList<>();
+        this.votingMode = VotingMode.SINGLE_CHOICE;
+        this.isActive = true;
+        this.startTime = System.currentTimeMillis();
+        this.inviteCode = generateInviteCode();
+        this.endTime = 0L;
+        // Không gọi calculateResults() ở đây vì options còn rỗng
+    }
+    
+    public Poll(String id, String question, List<String> options, VotingMode votingMode) {
+        this();
+        this.id = id != null ? id : "poll_" + System.currentTimeMillis();
+        this.question = question != null ? question : "";
+        if (options != null && !options.isEmpty()) {
+            this.options = new ArrayList<>(options);
+        } else {
+            this.options = new ArrayList<>();
+        }
+        this.votingMode = votingMode != null ? votingMode : VotingMode.SINGLE_CHOICE;
+        this.endTime = 0L;
+        // Không gọi calculateResults() ở đây vì chưa có votes
+    }
+    
+    // Tạo mã mời ngẫu nhiên 6 ký tự
+    private String generateInviteCode() {
+        try {
+            String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+            StringBuilder code = new StringBuilder();
+            Random random = new Random();
+            for (int i = 0; i < 6; i++) {
+                code.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            return code.toString();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "ABC123"; // Fallback code
+        }
+    }
+    
+    // Getters and setters
+    public String getId() { 
+        try {
+            return id != null ? id : "";
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "";
+        }
+    }
+    
+    public void setId(String id) { 
+        try {
+            this.id = id != null ? id : "";
+        } catch (Exception e) {
+            e.printStackTrace();
+            this.id = "";
+        }
+    }
+    
+    public String getQuestion() { 
+        try {
+            return question != null ? question : "";
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "";
+        }
+    }
+    
+    public void setQuestion(String question) { 
+        try {
+            this.question = question != null ? question : "";
+        } catch (Exception e) {
+            e.printStackTrace();
+            this.question = "";
+        }
+    }
+    
+    public List<String> getOptions() { 
+        try {
+            return options != null ? options : new ArrayList<>();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    public void setOptions(List<String> options) {
+        lock.writeLock().lock();
+        try {
+            tally = null;
+            runoff = null;
+            schulze = null;
+            if (options != null) {
+                this.options = new ArrayList<>(options);
+            } else {
+                this.options = new ArrayList<>();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            this.options = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public VotingMode getVotingMode() { 
+        try {
+            return votingMode != null ? votingMode : VotingMode.SINGLE_CHOICE;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return VotingMode.SINGLE_CHOICE;
+        }
+    }
+    
+    public void setVotingMode(VotingMode votingMode) { 
+        try {
+            this.votingMode = votingMode != null ? votingMode : VotingMode.SINGLE_CHOICE;
+        } catch (Exception e) {
+            e.printStackTrace();
+            this.votingMode = VotingMode.SINGLE_CHOICE;
+        }
+    }
+    
+    public CountingMethod getCountingMethod() {
+        return countingMethod != null ? countingMethod : CountingMethod.BORDA;
+    }
+    
+    public void setCountingMethod(CountingMethod countingMethod) {
+        this.countingMethod = countingMethod != null ? countingMethod : CountingMethod.BORDA;
+        runoff = null;
+        schulze = null;
+    }
+    
+    public boolean isHasTimer() { return hasTimer; }
+    public void setHasTimer(boolean hasTimer) { this.hasTimer = hasTimer; }
+    
+    public int getTimerMinutes() { return timerMinutes; }
+    public void setTimerMinutes(int timerMinutes) { this.timerMinutes = timerMinutes; }
+    
+    public long getStartTime() { return startTime; }
+    public void setStartTime(long startTime) { this.startTime = startTime; }
+    
+    public long getEndTime() { return endTime; }
+    public void setEndTime(long endTime) { this.endTime = endTime; }
+    
+    public boolean isActive() { return isActive; }
+    public void setActive(boolean active) { isActive = active; }
+    
+    public Map<String, Vote> getVotes() { 
+        try {
+            return votes != null ? votes : new ConcurrentHashMap<>();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ConcurrentHashMap<>();
+        }
+    }
+    public void setVotes(Map<String, Vote> votes) {
+        lock.writeLock().lock();
+        try {
+            tally = null;
+            runoff = null;
+            schulze = null;
+            Map<String, Vote> copy = new ConcurrentHashMap<>();
+            if (votes != null) {
+                // ConcurrentHashMap không nhận null
+                for (Map.Entry<String, Vote> entry : votes.entrySet()) {
+                    if (entry.getKey() != null && entry.getValue() != null) {
+                        copy.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            this.votes = copy;
+        } catch (Exception e) {
+            e.printStackTrace();
+            this.votes = new ConcurrentHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<String> getResults() { 
+        try {
+            return results != null ? new ArrayList<>(results) : new ArrayList<>();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    public void setResults(List<String> results) {
+        try {
+            if (results != null) {
+                this.results = new ArrayList<>(results);
+            } else {
+                this.results = new ArrayList<>();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            this.results = new ArrayList<>();
+        }
+    }
+    
+    // Chốt kết quả từ bên ngoài (vòng quay, nón kỳ diệu) và ghi lại thành thay đổi để lưu vào nhật ký
+    public void overrideResults(List<String> results) {
+        lock.writeLock().lock();
+        try {
+            setResults(results);
+            if (trackingChanges) {
+                pendingResults = this.results;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    long getEventSeq() { return eventSeq; }
+    void setEventSeq(long eventSeq) { this.eventSeq = eventSeq; }
+    
+    public String getInviteCode() { 
+        try {
+            return inviteCode != null ? inviteCode : generateInviteCode();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return generateInviteCode();
+        }
+    }
+    public void setInviteCode(String inviteCode) {
+        try {
+            this.inviteCode = inviteCode != null ? inviteCode : generateInviteCode();
+        } catch (Exception e) {
+            e.printStackTrace();
+            this.inviteCode = generateInviteCode();
+        }
+    }
+    
+    // Helper methods
+    // Ghi nhận phiếu; an toàn khi gọi từ nhiều luồng. Trả về false nếu poll đã kết thúc
+    // (phiếu đến sau closePoll không được tính, để kết quả luôn khớp với tally).
+    public boolean addVote(String userId, Vote vote) {
+        if (userId == null || vote == null || votes == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            if (!isActive) {
+                return false;
+            }
+            putVote(userId, vote, true);
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Ghi phiếu vào map và tally trong cùng một thao tác trên key, để hai phiếu của cùng một user
+    // ghi song song không làm map và tally lệch nhau. Gọi khi đang giữ read lock.
+    private boolean putVote(String userId, Vote vote, boolean record) {
+        TallyEngine engine = tallies();
+        boolean[] changed = new boolean[1];
+        votes.compute(userId, (key, previous) -> {
+            if (previous == vote) {
+                return previous;
+            }
+            engine.recordVote(key, vote);
+            if (record && trackingChanges) {
+                recordChange(key, vote, previous != null);
+            }
+            changed[0] = true;
+            return vote;
+        });
+        return changed[0];
+    }
+    
+    public boolean isExpired() {
+        try {
+            if (!hasTimer) return false;
+            long elapsed = System.currentTimeMillis() - startTime;
+            return elapsed > (timerMinutes * 60 * 1000);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    public long getRemainingTime() {
+        try {
+            if (!hasTimer) return Long.MAX_VALUE;
+            long elapsed = System.currentTimeMillis() - startTime;
+            long remaining = (timerMinutes * 60 * 1000) - elapsed;
+            return Math.max(0, remaining);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Long.MAX_VALUE;
+        }
+    }
+    
+    // Kết thúc poll và tính kết quả từ một ảnh chụp nhất quán: write lock chờ mọi addVote đang chạy
+    // xong, và sau khi isActive = false thì không phiếu mới nào được nhận.
+    public void closePoll() {
+        lock.writeLock().lock();
+        try {
+            if (isActive && trackingChanges) {
+                pendingClosed = true;
+            }
+            isActive = false;
+            if (endTime <= 0L) {
+                endTime = System.currentTimeMillis();
+            }
+            // Chỉ tính toán kết quả khi có options và votes
+            if (options != null && !options.isEmpty()) {
+                calculateResults();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void calculateResults() {
+        try {
+            List<String> calculated = new ArrayList<>();
+            
+            if (options == null || options.isEmpty()) {
+                results = calculated;
+                return; // Không thể tính toán kết quả nếu không có options
+            }
+            
+            switch (votingMode) {
+                case SINGLE_CHOICE:
+                    calculateSingleChoiceResults(calculated);
+                    break;
+                case RANKED_CHOICE:
+                    calculateRankedChoiceResults(calculated);
+                    break;
+                case RANDOM_SPINNER:
+                    // For random spinner, results are determined by spinning
+                    calculated.addAll(options);
+                    break;
+            }
+            results = calculated;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void calculateSingleChoiceResults(List<String> calculated) {
+        try {
+            if (options == null || options.isEmpty()) return;
+            
+            calculated.addAll(tallies().rankByChoiceCount());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void calculateRankedChoiceResults(List<String> calculated) {
+        try {
+            if (options == null || options.isEmpty()) return;
+            
+            switch (getCountingMethod()) {
+                case INSTANT_RUNOFF:
+                    // Đang giữ write lock nên tally không đổi trong lúc đếm
+                    InstantRunoffEngine.Result result = getRunoffResult();
+                    calculated.addAll(tallies().rankByRunoff(result));
+                    break;
+                case SCHULZE:
+                    SchulzeEngine.Result pairwiseResult = getSchulzeResult();
+                    calculated.addAll(tallies().rankBySchulze(pairwiseResult));
+                    break;
+                default:
+                    calculated.addAll(tallies().rankByScore());
+                    break;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    public boolean hasTiedResults() {
+        try {
+            return analyzeTies().isTied();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    // Tập option cùng đứng đầu theo cách tính của poll, đọc từ tally đã cộng dồn (O(số option)).
+    // Poll quay ngẫu nhiên không có hòa vì kết quả do vòng quay quyết định.
+    public TieAnalysis analyzeTies() {
+        List<String> current = results;
+        if (current == null || current.isEmpty()) {
+            return TieAnalysis.NONE;
+        }
+        TallyEngine engine = tallies();
+        switch (getVotingMode()) {
+            case SINGLE_CHOICE:
+                return TieAnalysis.atTop(current, option -> engine.getChoiceCount(engine.indexOf(option)));
+            case RANKED_CHOICE:
+                switch (getCountingMethod()) {
+                    case INSTANT_RUNOFF:
+                        return getRunoffResult().analyzeTies();
+                    case SCHULZE:
+                        // Mọi ứng viên không bị ai thắng đều cùng đứng đầu, kể cả khi số cặp thắng khác nhau
+                        SchulzeEngine.Result schulzeResult = getSchulzeResult();
+                        List<String> winners = schulzeResult.getWinners();
+                        long mostWins = 0;
+                        for (String winner : winners) {
+                            mostWins = Math.max(mostWins, schulzeResult.getWins(winner));
+                        }
+                        return winners.isEmpty() ? TieAnalysis.NONE : new TieAnalysis(winners, mostWins);
+                    default:
+                        return TieAnalysis.atTop(current, option -> engine.getRankedScore(engine.indexOf(option)));
+                }
+            default:
+                return TieAnalysis.NONE;
+        }
+    }
+    
+    // Số phiếu một lựa chọn dành cho option
+    public int getChoiceCount(String option) {
+        TallyEngine engine = tallies();
+        return engine.getChoiceCount(engine.indexOf(option));
+    }
+    
+    // Điểm xếp hạng (Borda) của option
+    public int getRankedScore(String option) {
+        TallyEngine engine = tallies();
+        return (int) engine.getRankedScore(engine.indexOf(option));
+    }
+    
+    // Số phiếu từng vòng khi đếm loại dần. Chỉ đếm lại khi tally đã đổi kể từ lần tính trước,
+    // nên màn hình kết quả và analyzeTies gọi lại nhiều lần không lặp lại phép đếm O(phiếu × vòng).
+    public InstantRunoffEngine.Result getRunoffResult() {
+        TallyEngine engine = tallies();
+        long version = engine.getVersion();
+        Computed<InstantRunoffEngine.Result> current = runoff;
+        if (current != null && current.matches(engine, version)) {
+            return current.value;
+        }
+        // Phiên bản đọc trước khi đếm: phiếu ghi trong lúc đếm làm lần gọi sau đếm lại
+        InstantRunoffEngine.Result result = engine.runInstantRunoff();
+        runoff = new Computed<>(engine, version, result);
+        return result;
+    }
+    
+    // Kết quả Schulze trên ma trận cặp hiện tại (O(n³) theo số option); dùng lại khi tally chưa đổi
+    public SchulzeEngine.Result getSchulzeResult() {
+        TallyEngine engine = tallies();
+        long version = engine.getVersion();
+        Computed<SchulzeEngine.Result> current = schulze;
+        if (current != null && current.matches(engine, version)) {
+            return current.value;
+        }
+        SchulzeEngine.Result result = engine.runSchulze();
+        schulze = new Computed<>(engine, version, result);
+        return result;
+    }
+    
+    public int getSingleChoiceVoterCount() {
+        return tallies().getSingleChoiceVoters();
+    }
+    
+    public int getRankedVoterCount() {
+        return tallies().getRankedVoters();
+    }
+    
+    // Repository gọi khi nhận hoặc trả ra poll: từ đây addVote, closePoll và overrideResults mới được
+    // ghi lại cho takeChanges. Thay đổi trước đó không có trong delta, nên repository phải ghi cả poll.
+    void trackChanges() {
+        trackingChanges = true;
+    }
+    
+    boolean isTrackingChanges() {
+        return trackingChanges;
+    }
+    
+    // Lấy và xóa các thay đổi đang chờ, và bắt đầu ghi lại thay đổi nếu chưa; null nếu không có gì mới
+    PollChange takeChanges() {
+        lock.writeLock().lock();
+        try {
+            trackingChanges = true;
+            if (pendingAdded.isEmpty() && pendingReplaced.isEmpty() && !pendingClosed && pendingResults == null) {
+                return null;
+            }
+            PollChange change = new PollChange(getId(), pendingAdded, pendingReplaced, pendingClosed, false, pendingResults);
+            pendingAdded = new ConcurrentHashMap<>();
+            pendingReplaced = new ConcurrentHashMap<>();
+            pendingClosed = false;
+            pendingResults = null;
+            return change;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Áp dụng phiếu từ một PollChange của bản Poll khác mà không ghi lại thành thay đổi mới.
+    // Trả về true nếu có phiếu làm thay đổi tally.
+    public boolean applyChange(PollChange change) {
+        if (change == null || votes == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            boolean changed = false;
+            for (Map<String, Vote> delta : Arrays.asList(change.getAddedVotes(), change.getReplacedVotes())) {
+                for (Map.Entry<String, Vote> entry : delta.entrySet()) {
+                    if (entry.getValue() != null && putVote(entry.getKey(), entry.getValue(), false)) {
+                        changed = true;
+                    }
+                }
+            }
+            return changed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Ghi lại một phiếu khi phát lại nhật ký: không kiểm tra isActive (thứ tự sự kiện đã đúng)
+    // và không tạo thay đổi mới
+    void restoreVote(String userId, Vote vote) {
+        if (userId == null || vote == null || votes == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            putVote(userId, vote, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Gọi bên trong votes.compute nên các lần gọi cho cùng một user không chạy song song
+    private void recordChange(String userId, Vote vote, boolean replaced) {
+        if (pendingAdded.containsKey(userId)) {
+            // Người nghe chưa thấy phiếu đầu tiên, nên vẫn là phiếu mới
+            pendingAdded.put(userId, vote);
+        } else if (replaced) {
+            pendingReplaced.put(userId, vote);
+        } else {
+            pendingAdded.put(userId, vote);
+        }
+    }
+    
+    // Trả về tally hiện tại, dựng lại từ votes nếu cần. tally chỉ bị đặt về null khi giữ write lock,
+    // nên lúc dựng lại không có addVote nào đã ghi vào votes mà chưa ghi vào tally.
+    private TallyEngine tallies() {
+        TallyEngine current = tally;
+        if (current != null) {
+            return current;
+        }
+        synchronized (tallyLock) {
+            current = tally;
+            if (current == null) {
+                current = new TallyEngine(options);
+                if (votes != null) {
+                    for (Map.Entry<String, Vote> entry : votes.entrySet()) {
+                        current.recordVote(entry.getKey(), entry.getValue());
+                    }
+                }
+                tally = current;
+            }
+            return current;
+        }
+    }
+    
+    // Kết quả tính từ toàn bộ phiếu, gắn với tally và phiên bản tally lúc tính
+    private static final class Computed<T> {
+        final TallyEngine engine;
+        final long version;
+        final T value;
+        
+        Computed(TallyEngine engine, long version, T value) {
+            this.engine = engine;
+            this.version = version;
+            this.value = value;
+        }
+        
+        boolean matches(TallyEngine engine, long version) {
+            return this.engine == engine && this.version == version;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Cache dùng chung cho cả tiến trình, giữ các Poll đã decode và index theo id và mã mời (chữ hoa).
+// Các Poll trả về là cùng một instance, mọi thay đổi phải được lưu lại qua PollRepository.savePoll.
+public class PollCache {
+    private final Map<String, Poll> pollsById = new HashMap<>();
+    private final Map<String, Poll> pollsByInviteCode = new HashMap<>();
+    private final Map<String, String> inviteCodeById = new HashMap<>();
+    private boolean loaded = false;
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void load(Collection<Poll> polls) {
+        pollsById.clear();
+        pollsByInviteCode.clear();
+        inviteCodeById.clear();
+        if (polls != null) {
+            for (Poll poll : polls) {
+                put(poll);
+            }
+        }
+        loaded = true;
+    }
+
+    public synchronized void put(Poll poll) {
+        if (poll == null || poll.getId().isEmpty()) {
+            return;
+        }
+
+        String id = poll.getId();
+        unindexInviteCode(id);
+
+        pollsById.put(id, poll);
+        String code = normalizeCode(poll.getInviteCode());
+        if (code != null) {
+            pollsByInviteCode.put(code, poll);
+            inviteCodeById.put(id, code);
+        }
+    }
+
+    public synchronized void remove(String id) {
+        if (id == null) {
+            return;
+        }
+        unindexInviteCode(id);
+        pollsById.remove(id);
+    }
+
+    public synchronized Poll get(String id) {
+        return id != null ? pollsById.get(id) : null;
+    }
+
+    public synchronized Poll getByInviteCode(String inviteCode) {
+        String code = normalizeCode(inviteCode);
+        return code != null ? pollsByInviteCode.get(code) : null;
+    }
+
+    public synchronized List<Poll> values() {
+        return new ArrayList<>(pollsById.values());
+    }
+
+    public synchronized void clear() {
+        pollsById.clear();
+        pollsByInviteCode.clear();
+        inviteCodeById.clear();
+        loaded = false;
+    }
+
+    private void unindexInviteCode(String id) {
+        String oldCode = inviteCodeById.remove(id);
+        if (oldCode != null) {
+            Poll indexed = pollsByInviteCode.get(oldCode);
+            if (indexed != null && id.equals(indexed.getId())) {
+                pollsByInviteCode.remove(oldCode);
+            }
+        }
+    }
+
+    // Quy tắc so mã mời chung cho mọi PollRepository: bỏ khoảng trắng hai đầu, không phân biệt hoa thường
+    static String normalizeCode(String inviteCode) {
+        if (inviteCode == null) {
+            return null;
+        }
+        String code = inviteCode.trim().toUpperCase(Locale.ROOT);
+        return code.isEmpty() ? null : code;
+    }
+}
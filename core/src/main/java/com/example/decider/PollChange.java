@@ -0,0 +1,51 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Thay đổi của một poll kể từ lần lưu trước: phiếu mới, phiếu được người dùng thay thế,
+// poll vừa kết thúc hoặc bị xóa, kết quả được chốt lại từ bên ngoài. Các map có key là userId giống Poll.votes.
+public class PollChange {
+    private final String pollId;
+    private final Map<String, Vote> addedVotes;
+    private final Map<String, Vote> replacedVotes;
+    private final boolean closed;
+    private final boolean deleted;
+    private final List<String> overriddenResults; // null nếu kết quả không bị chốt lại
+
+    public PollChange(String pollId, Map<String, Vote> addedVotes, Map<String, Vote> replacedVotes,
+                      boolean closed, boolean deleted) {
+        this(pollId, addedVotes, replacedVotes, closed, deleted, null);
+    }
+
+    public PollChange(String pollId, Map<String, Vote> addedVotes, Map<String, Vote> replacedVotes,
+                      boolean closed, boolean deleted, List<String> overriddenResults) {
+        this.pollId = pollId;
+        this.addedVotes = addedVotes != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(addedVotes)) : Collections.emptyMap();
+        this.replacedVotes = replacedVotes != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(replacedVotes)) : Collections.emptyMap();
+        this.closed = closed;
+        this.deleted = deleted;
+        this.overriddenResults = overriddenResults != null
+                ? Collections.unmodifiableList(new ArrayList<>(overriddenResults)) : null;
+    }
+
+    public static PollChange deleted(String pollId) {
+        return new PollChange(pollId, null, null, false, true);
+    }
+
+    public String getPollId() { return pollId; }
+    public Map<String, Vote> getAddedVotes() { return addedVotes; }
+    public Map<String, Vote> getReplacedVotes() { return replacedVotes; }
+    public boolean isClosed() { return closed; }
+    public boolean isDeleted() { return deleted; }
+    public List<String> getOverriddenResults() { return overriddenResults; }
+
+    public boolean hasVoteChanges() {
+        return !addedVotes.isEmpty() || !replacedVotes.isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.decider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Phát PollChange tới các listener đăng ký theo poll id. Listener được gọi trên luồng phát
+// (luồng của StorageExecutor); AsyncPollStorage chuyển sang main looper cho màn hình.
+public class PollChangeBus {
+
+    public interface Listener {
+        void onPollChanged(PollChange change);
+    }
+
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    public void subscribe(String pollId, Listener listener) {
+        if (pollId == null || listener == null) {
+            return;
+        }
+        listeners.computeIfAbsent(pollId, id -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void unsubscribe(String pollId, Listener listener) {
+        if (pollId == null || listener == null) {
+            return;
+        }
+        listeners.computeIfPresent(pollId, (id, list) -> {
+            list.remove(listener);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    public void publish(PollChange change) {
+        if (change == null) {
+            return;
+        }
+        List<Listener> subscribed = listeners.get(change.getPollId());
+        if (subscribed == null) {
+            return;
+        }
+        for (Listener listener : subscribed) {
+            try {
+                listener.onPollChanged(change);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
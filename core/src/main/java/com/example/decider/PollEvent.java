@@ -0,0 +1,118 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Một thay đổi của poll trong nhật ký PollEventLog. Mỗi sự kiện mang trạng thái cuối cùng của phần nó
+// thay đổi (phiếu của một user, kết quả đã chốt), nên phát lại một sự kiện hai lần cho cùng kết quả.
+public class PollEvent {
+    public enum Type {
+        CREATED,
+        VOTE_CAST,
+        VOTE_REPLACED,
+        CLOSED,
+        RESULTS_OVERRIDDEN
+    }
+
+    private long seq;
+    private Type type;
+    private long time;
+    private Poll poll; // CREATED: toàn bộ poll lúc được tạo
+    private String userId; // VOTE_*
+    private Vote vote; // VOTE_*
+    private List<String> results; // CLOSED, RESULTS_OVERRIDDEN
+    private long endTime; // CLOSED
+
+    PollEvent() {}
+
+    private PollEvent(Type type) {
+        this.type = type;
+        this.time = System.currentTimeMillis();
+    }
+
+    public static PollEvent created(Poll poll) {
+        PollEvent event = new PollEvent(Type.CREATED);
+        event.poll = poll;
+        return event;
+    }
+
+    public static PollEvent voteCast(String userId, Vote vote, boolean replaced) {
+        PollEvent event = new PollEvent(replaced ? Type.VOTE_REPLACED : Type.VOTE_CAST);
+        event.userId = userId;
+        event.vote = vote;
+        return event;
+    }
+
+    public static PollEvent closed(List<String> results, long endTime) {
+        PollEvent event = new PollEvent(Type.CLOSED);
+        event.results = new ArrayList<>(results);
+        event.endTime = endTime;
+        return event;
+    }
+
+    public static PollEvent resultsOverridden(List<String> results) {
+        PollEvent event = new PollEvent(Type.RESULTS_OVERRIDDEN);
+        event.results = new ArrayList<>(results);
+        return event;
+    }
+
+    // Các sự kiện tương ứng với một PollChange: phiếu trước, rồi kết thúc, rồi kết quả chốt lại
+    public static List<PollEvent> fromChange(PollChange change, Poll poll) {
+        List<PollEvent> events = new ArrayList<>();
+        if (change == null) {
+            return events;
+        }
+        for (Map.Entry<String, Vote> entry : change.getAddedVotes().entrySet()) {
+            events.add(voteCast(entry.getKey(), entry.getValue(), false));
+        }
+        for (Map.Entry<String, Vote> entry : change.getReplacedVotes().entrySet()) {
+            events.add(voteCast(entry.getKey(), entry.getValue(), true));
+        }
+        if (change.isClosed()) {
+            events.add(closed(poll.getResults(), poll.getEndTime()));
+        }
+        if (change.getOverriddenResults() != null) {
+            events.add(resultsOverridden(change.getOverriddenResults()));
+        }
+        return events;
+    }
+
+    // Áp dụng sự kiện lên poll và trả về poll sau khi áp dụng (CREATED thay cả poll)
+    Poll applyTo(Poll target) {
+        switch (type) {
+            case CREATED:
+                return poll != null ? poll : target;
+            case VOTE_CAST:
+            case VOTE_REPLACED:
+                if (target != null) {
+                    target.restoreVote(userId, vote);
+                }
+                return target;
+            case CLOSED:
+                if (target != null) {
+                    target.setActive(false);
+                    target.setEndTime(endTime);
+                    target.setResults(results);
+                }
+                return target;
+            case RESULTS_OVERRIDDEN:
+                if (target != null) {
+                    target.setResults(results);
+                }
+                return target;
+            default:
+                return target;
+        }
+    }
+
+    public long getSeq() { return seq; }
+    void setSeq(long seq) { this.seq = seq; }
+    public Type getType() { return type; }
+    public long getTime() { return time; }
+    public Poll getPoll() { return poll; }
+    public String getUserId() { return userId; }
+    public Vote getVote() { return vote; }
+    public List<String> getResults() { return results; }
+    public long getEndTime() { return endTime; }
+}
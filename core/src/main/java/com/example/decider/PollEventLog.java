@@ -0,0 +1,256 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Nhật ký sự kiện append-only của từng poll: file <id>.log nằm cạnh record <id>.json, mỗi dòng một
+// PollEvent dạng JSON. Record của PollRecordStore là bản chụp đã gộp, Poll.eventSeq cho biết sự kiện
+// cuối cùng nó chứa, nên khôi phục = bản chụp + các sự kiện có seq lớn hơn. Ghi một phiếu chỉ tốn
+// một lần nối vài trăm byte vào cuối file thay vì ghi lại cả poll.
+public class PollEventLog {
+    private static final String LOG_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final Gson gson;
+    private final Map<String, Long> lastSeq = new HashMap<>();
+    private final Map<String, Integer> tailSize = new HashMap<>(); // số sự kiện chưa được gộp vào bản chụp
+
+    public PollEventLog(File directory, Gson gson) {
+        this.directory = directory;
+        this.gson = gson;
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+    }
+
+    // Nối các sự kiện vào nhật ký của poll trong một lần ghi và cập nhật poll.eventSeq.
+    // Trả về false nếu không ghi được (khi đó cần ghi cả bản chụp).
+    public synchronized boolean append(Poll poll, List<PollEvent> events) {
+        if (poll == null || poll.getId().isEmpty() || events == null || events.isEmpty()) {
+            return false;
+        }
+        try {
+            String id = poll.getId();
+            long seq = Math.max(lastSeq(id), poll.getEventSeq());
+            int tail = tailSize(id);
+            StringBuilder lines = new StringBuilder();
+            for (PollEvent event : events) {
+                event.setSeq(++seq);
+                lines.append(gson.toJson(event)).append('\n');
+            }
+            try (OutputStream out = new FileOutputStream(logFile(id), true)) {
+                out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            lastSeq.put(id, seq);
+            tailSize.put(id, tail + events.size());
+            poll.setEventSeq(seq);
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Dựng lại poll từ bản chụp (có thể null) và phần đuôi nhật ký. Sự kiện đã có trong bản chụp
+    // bị bỏ qua theo seq; dòng ghi dở ở cuối file (crash giữa lúc ghi) được cắt bỏ.
+    public synchronized Poll replay(String id, Poll snapshot) {
+        Poll poll = snapshot;
+        long base = snapshot != null ? snapshot.getEventSeq() : 0L;
+        long last = base;
+        int tail = 0;
+        try {
+            for (PollEvent event : readEvents(id)) {
+                if (event.getSeq() <= base) {
+                    continue;
+                }
+                poll = event.applyTo(poll);
+                last = Math.max(last, event.getSeq());
+                tail++;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        lastSeq.put(id, last);
+        tailSize.put(id, tail);
+        if (poll != null) {
+            poll.setEventSeq(last);
+        }
+        return poll;
+    }
+
+    // Số sự kiện chưa nằm trong bản chụp, dùng để quyết định khi nào gộp
+    public synchronized int tailSize(String id) {
+        Integer size = tailSize.get(id);
+        if (size == null) {
+            size = readEvents(id).size();
+            tailSize.put(id, size);
+        }
+        return size;
+    }
+
+    // Gọi sau khi bản chụp chứa tới snapshotSeq đã được ghi: chỉ giữ lại các sự kiện mới hơn
+    public synchronized void compact(String id, long snapshotSeq) {
+        try {
+            File file = logFile(id);
+            if (!file.exists()) {
+                tailSize.put(id, 0);
+                return;
+            }
+            List<PollEvent> kept = new ArrayList<>();
+            for (PollEvent event : readEvents(id)) {
+                if (event.getSeq() > snapshotSeq) {
+                    kept.add(event);
+                }
+            }
+            if (kept.isEmpty()) {
+                file.delete();
+            } else {
+                File temp = new File(directory, file.getName() + TEMP_SUFFIX);
+                try (OutputStream out = new FileOutputStream(temp)) {
+                    for (PollEvent event : kept) {
+                        out.write((gson.toJson(event) + "\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                if (!temp.renameTo(file)) {
+                    file.delete();
+                    if (!temp.renameTo(file)) {
+                        throw new IOException("Cannot replace log " + file.getName());
+                    }
+                }
+            }
+            tailSize.put(id, kept.size());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Id các poll đang có nhật ký
+    public synchronized List<String> ids() {
+        List<String> ids = new ArrayList<>();
+        try {
+            String[] names = directory.list((dir, name) -> name.endsWith(LOG_SUFFIX));
+            if (names == null) {
+                return ids;
+            }
+            for (String name : names) {
+                ids.add(PollRecordStore.decodeId(name.substring(0, name.length() - LOG_SUFFIX.length())));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return ids;
+    }
+
+    public synchronized void delete(String id) {
+        try {
+            logFile(id).delete();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        lastSeq.remove(id);
+        tailSize.remove(id);
+    }
+
+    public synchronized void clear() {
+        for (String id : ids()) {
+            delete(id);
+        }
+        lastSeq.clear();
+        tailSize.clear();
+    }
+
+    // Seq của sự kiện cuối cùng trong nhật ký của poll (0 nếu chưa có)
+    public synchronized long getLastSeq(String id) {
+        return lastSeq(id);
+    }
+
+    private long lastSeq(String id) {
+        Long seq = lastSeq.get(id);
+        if (seq == null) {
+            seq = 0L;
+            for (PollEvent event : readEvents(id)) {
+                seq = Math.max(seq, event.getSeq());
+            }
+            lastSeq.put(id, seq);
+        }
+        return seq;
+    }
+
+    // Đọc các dòng hoàn chỉnh; nếu gặp dòng hỏng hoặc thiếu '\n' thì cắt file tại dòng tốt cuối cùng,
+    // để lần nối sau không dính vào phần ghi dở
+    private List<PollEvent> readEvents(String id) {
+        List<PollEvent> events = new ArrayList<>();
+        try {
+            File file = logFile(id);
+            if (!file.isFile()) {
+                return events;
+            }
+            byte[] bytes = readFully(file);
+            int start = 0;
+            int good = 0;
+            while (start < bytes.length) {
+                int end = start;
+                while (end < bytes.length && bytes[end] != '\n') {
+                    end++;
+                }
+                if (end == bytes.length) {
+                    break; // dòng cuối chưa ghi xong
+                }
+                PollEvent event = parse(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+                if (event == null) {
+                    break;
+                }
+                events.add(event);
+                start = end + 1;
+                good = start;
+            }
+            if (good < bytes.length) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(good);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return events;
+    }
+
+    private PollEvent parse(String line) {
+        try {
+            PollEvent event = gson.fromJson(line, PollEvent.class);
+            return event != null && event.getType() != null ? event : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private File logFile(String id) throws IOException {
+        return new File(directory, PollRecordStore.encodeId(id) + LOG_SUFFIX);
+    }
+}
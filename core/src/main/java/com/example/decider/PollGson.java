@@ -0,0 +1,95 @@
+package com.example.decider;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+// Gson dùng cho mọi dữ liệu lưu trữ: Poll.votes được ghi ở dạng cột gọn (VoteCodec),
+// khi đọc vẫn nhận cả dạng cũ "votes" để tương thích với dữ liệu đã lưu.
+public final class PollGson {
+    private static final String FIELD_VOTES = "votes";
+
+    private PollGson() {}
+
+    public static Gson create() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new CompactPollAdapterFactory())
+                .create();
+    }
+
+    private static final class CompactPollAdapterFactory implements TypeAdapterFactory {
+        private final Gson withoutVotes = new GsonBuilder()
+                .addSerializationExclusionStrategy(new ExclusionStrategy() {
+                    @Override
+                    public boolean shouldSkipField(FieldAttributes f) {
+                        return f.getDeclaringClass() == Poll.class && FIELD_VOTES.equals(f.getName());
+                    }
+
+                    @Override
+                    public boolean shouldSkipClass(Class<?> clazz) {
+                        return false;
+                    }
+                })
+                .create();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != Poll.class) {
+                return null;
+            }
+            return (TypeAdapter<T>) new CompactPollAdapter(withoutVotes, gson.getAdapter(JsonElement.class));
+        }
+    }
+
+    private static final class CompactPollAdapter extends TypeAdapter<Poll> {
+        private final Gson plain;
+        private final TypeAdapter<JsonElement> elementAdapter;
+
+        CompactPollAdapter(Gson plain, TypeAdapter<JsonElement> elementAdapter) {
+            this.plain = plain;
+            this.elementAdapter = elementAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, Poll poll) throws IOException {
+            if (poll == null) {
+                out.nullValue();
+                return;
+            }
+            JsonObject json = plain.toJsonTree(poll).getAsJsonObject();
+            json.add(VoteCodec.FIELD, VoteCodec.encode(poll.getOptions(), poll.getVotes()));
+            elementAdapter.write(out, json);
+        }
+
+        @Override
+        public Poll read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            JsonObject json = JsonParser.parseReader(in).getAsJsonObject();
+            JsonElement compactVotes = json.remove(VoteCodec.FIELD);
+            Poll poll = plain.fromJson(json, Poll.class);
+            if (poll != null && compactVotes != null && compactVotes.isJsonObject()) {
+                poll.setVotes(VoteCodec.decode(poll.getOptions(), compactVotes.getAsJsonObject()));
+            } else if (poll != null) {
+                // Gson gán thẳng map của nó vào field votes; chép sang map đồng thời của Poll
+                poll.setVotes(poll.getVotes());
+            }
+            return poll;
+        }
+    }
+}
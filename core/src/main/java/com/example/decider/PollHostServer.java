@@ -0,0 +1,378 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Máy chủ HTTP nhỏ chạy trong tiến trình của người tạo poll, để thiết bị khác trong mạng LAN
+// (hoặc test qua loopback) tìm poll theo mã mời và gửi phiếu:
+//   GET  /polls?inviteCode=ABC123  -> PollInvite (JSON, không có phiếu của ai) hoặc 404
+//   POST /polls/{id}/votes         -> nhận mảng Vote, trả mảng VoteAck cùng thứ tự
+// GET cấp cho thiết bị một voterId và token, theo (poll, địa chỉ IP, deviceId thiết bị tự gửi):
+// GET lại từ cùng thiết bị nhận lại đúng danh tính cũ, mỗi địa chỉ chỉ có vài danh tính cho một poll
+// và mỗi poll có tối đa MAX_VOTERS_PER_POLL, nên không thể tự cấp thêm phiếu bằng cách gọi GET lặp lại.
+// POST phải gửi token trong header X-Voter-Token và chỉ được bầu dưới voterId đó.
+// Mỗi kết nối xử lý một request rồi đóng (Connection: close).
+public class PollHostServer implements Closeable {
+    static final int DEFAULT_PORT = 8737;
+    static final String HEADER_VOTER_TOKEN = "X-Voter-Token";
+
+    static final int DEFAULT_VOTERS_PER_ADDRESS = 4; // vài thiết bị sau cùng một NAT/hotspot
+
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+    private static final int MAX_HEADER_LINES = 64;
+    private static final int MAX_VOTERS_PER_POLL = 1_000;
+    private static final int SOCKET_TIMEOUT_MS = 10_000;
+    private static final int WORKER_THREADS = 4;
+
+    private final PollTransport backend;
+    private final Gson gson;
+    private final InetAddress bindAddress;
+    private final int requestedPort;
+    private final int maxVotersPerAddress;
+    // Danh tính đã cấp, không bao giờ bị đẩy ra: token -> người bầu, và pollId -> người bầu của poll đó.
+    // Cả hai chỉ đọc/ghi khi giữ khoá voters.
+    private final Map<String, Voter> voters = new HashMap<>();
+    private final Map<String, PollVoters> votersByPoll = new HashMap<>();
+
+    private ServerSocket serverSocket;
+    private ExecutorService workers;
+    private Thread acceptThread;
+
+    // port = 0 để hệ điều hành chọn cổng trống; bindAddress = null để nghe trên mọi interface
+    public PollHostServer(PollTransport backend, InetAddress bindAddress, int port) {
+        this(backend, bindAddress, port, DEFAULT_VOTERS_PER_ADDRESS);
+    }
+
+    // Test qua loopback có mọi thiết bị chung một địa chỉ, nên cần nới giới hạn mỗi địa chỉ
+    PollHostServer(PollTransport backend, InetAddress bindAddress, int port, int maxVotersPerAddress) {
+        this.backend = backend;
+        this.maxVotersPerAddress = maxVotersPerAddress;
+        this.gson = PollGson.create();
+        this.bindAddress = bindAddress;
+        this.requestedPort = port;
+    }
+
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            return;
+        }
+        serverSocket = new ServerSocket(requestedPort, 50, bindAddress);
+        workers = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "poll-host-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ServerSocket socket = serverSocket;
+        ExecutorService pool = workers;
+        acceptThread = new Thread(() -> acceptLoop(socket, pool), "poll-host-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public synchronized boolean isRunning() {
+        return serverSocket != null && !serverSocket.isClosed();
+    }
+
+    public synchronized int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : -1;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        serverSocket = null;
+        workers = null;
+        acceptThread = null;
+    }
+
+    private void acceptLoop(ServerSocket socket, ExecutorService pool) {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                pool.execute(() -> handle(client));
+            } catch (SocketException e) {
+                return; // server đã đóng
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void handle(Socket client) {
+        try (Socket socket = client) {
+            socket.setSoTimeout(SOCKET_TIMEOUT_MS);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+
+            String requestLine = readLine(in);
+            if (requestLine == null) {
+                return;
+            }
+            String[] parts = requestLine.split(" ");
+            if (parts.length < 2) {
+                respond(out, 400, "{\"error\":\"bad_request\"}");
+                return;
+            }
+
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            int headerLines = 0;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                if (++headerLines > MAX_HEADER_LINES) {
+                    respond(out, 431, "{\"error\":\"headers_too_large\"}");
+                    return;
+                }
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+            }
+
+            long contentLength = 0;
+            if (headers.containsKey("content-length")) {
+                try {
+                    contentLength = Long.parseLong(headers.get("content-length"));
+                } catch (NumberFormatException e) {
+                    contentLength = -1;
+                }
+            }
+            if (contentLength < 0) {
+                respond(out, 400, "{\"error\":\"bad_request\"}");
+                return;
+            }
+            if (contentLength > MAX_BODY_BYTES) {
+                respond(out, 413, "{\"error\":\"too_large\"}");
+                return;
+            }
+            byte[] body = readBody(in, (int) contentLength);
+
+            route(out, parts[0], parts[1], socket.getInetAddress().getHostAddress(),
+                    headers.get(HEADER_VOTER_TOKEN.toLowerCase(Locale.ROOT)),
+                    new String(body, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void route(OutputStream out, String method, String target, String clientAddress, String voterToken,
+                       String body) throws IOException {
+        String path = target;
+        String query = "";
+        int questionMark = target.indexOf('?');
+        if (questionMark >= 0) {
+            path = target.substring(0, questionMark);
+            query = target.substring(questionMark + 1);
+        }
+
+        try {
+            if ("GET".equals(method) && "/polls".equals(path)) {
+                String inviteCode = queryParameter(query, "inviteCode");
+                Poll poll = inviteCode != null ? backend.findPollByInviteCode(inviteCode) : null;
+                if (poll == null) {
+                    respond(out, 404, "{\"error\":\"not_found\"}");
+                } else {
+                    Voter voter = voterFor(poll.getId(), clientAddress, queryParameter(query, "deviceId"));
+                    if (voter == null) {
+                        respond(out, 429, "{\"error\":\"too_many_voters\"}");
+                    } else {
+                        respond(out, 200, gson.toJson(PollInvite.from(poll, voter.userId, voter.token)));
+                    }
+                }
+                return;
+            }
+
+            if ("POST".equals(method) && path.startsWith("/polls/") && path.endsWith("/votes")) {
+                String pollId = URLDecoder.decode(path.substring("/polls/".length(), path.length() - "/votes".length()), "UTF-8");
+                List<Vote> votes = gson.fromJson(body, new TypeToken<List<Vote>>(){}.getType());
+                if (votes == null) {
+                    respond(out, 400, "{\"error\":\"bad_request\"}");
+                    return;
+                }
+                respond(out, 200, gson.toJson(submitAsVoter(pollId, votes, voterToken)));
+                return;
+            }
+
+            respond(out, 404, "{\"error\":\"not_found\"}");
+        } catch (JsonParseException | IllegalArgumentException e) {
+            respond(out, 400, "{\"error\":\"bad_request\"}");
+        } catch (IOException e) {
+            e.printStackTrace();
+            respond(out, 500, "{\"error\":\"server_error\"}");
+        }
+    }
+
+    // Chỉ chuyển cho backend những phiếu mang đúng voterId đã cấp cho token này, cho đúng poll;
+    // các phiếu còn lại bị từ chối tại chỗ, vẫn giữ thứ tự ack theo lô gửi lên
+    private List<VoteAck> submitAsVoter(String pollId, List<Vote> votes, String voterToken) throws IOException {
+        Voter voter = null;
+        if (voterToken != null) {
+            synchronized (voters) {
+                voter = voters.get(voterToken);
+            }
+        }
+        VoteAck[] acks = new VoteAck[votes.size()];
+        List<Vote> allowed = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < acks.length; i++) {
+            Vote vote = votes.get(i);
+            String userId = vote != null ? vote.getUserId() : null;
+            if (voter != null && voter.pollId.equals(pollId) && voter.userId.equals(userId)) {
+                allowed.add(vote);
+                positions.add(i);
+            } else {
+                acks[i] = VoteAck.rejected(userId, VoteAck.REASON_UNAUTHORIZED);
+            }
+        }
+        if (!allowed.isEmpty()) {
+            List<VoteAck> accepted = backend.submitVotes(pollId, allowed);
+            for (int i = 0; i < positions.size(); i++) {
+                acks[positions.get(i)] = i < accepted.size() ? accepted.get(i)
+                        : VoteAck.rejected(allowed.get(i).getUserId(), VoteAck.REASON_BUSY);
+            }
+        }
+        return Arrays.asList(acks);
+    }
+
+    // Danh tính của thiết bị này trong poll: tạo ở lần GET đầu, các lần sau trả lại đúng nó.
+    // null khi địa chỉ này hoặc cả poll đã hết suất.
+    private Voter voterFor(String pollId, String clientAddress, String deviceId) {
+        String device = clientAddress + "|" + (deviceId != null ? deviceId : "");
+        synchronized (voters) {
+            PollVoters pollVoters = votersByPoll.get(pollId);
+            if (pollVoters == null) {
+                pollVoters = new PollVoters();
+                votersByPoll.put(pollId, pollVoters);
+            }
+            Voter voter = pollVoters.byDevice.get(device);
+            if (voter != null) {
+                return voter;
+            }
+            Integer perAddress = pollVoters.perAddress.get(clientAddress);
+            int used = perAddress != null ? perAddress : 0;
+            if (used >= maxVotersPerAddress || pollVoters.byDevice.size() >= MAX_VOTERS_PER_POLL) {
+                return null;
+            }
+            voter = new Voter(pollId, "guest_" + UUID.randomUUID(), UUID.randomUUID().toString());
+            pollVoters.byDevice.put(device, voter);
+            pollVoters.perAddress.put(clientAddress, used + 1);
+            voters.put(voter.token, voter);
+            return voter;
+        }
+    }
+
+    private static String queryParameter(String query, String name) throws IOException {
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+            }
+        }
+        return null;
+    }
+
+    private static void respond(OutputStream out, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(body);
+        out.flush();
+    }
+
+    private static final class Voter {
+        final String pollId;
+        final String userId;
+        final String token;
+
+        Voter(String pollId, String userId, String token) {
+            this.pollId = pollId;
+            this.userId = userId;
+            this.token = token;
+        }
+    }
+
+    private static final class PollVoters {
+        final Map<String, Voter> byDevice = new HashMap<>(); // "địa chỉ|deviceId" -> người bầu
+        final Map<String, Integer> perAddress = new HashMap<>();
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 413: return "Payload Too Large";
+            case 429: return "Too Many Requests";
+            case 431: return "Request Header Fields Too Large";
+            default: return "Internal Server Error";
+        }
+    }
+
+    // Dòng header kết thúc bằng CRLF, mã hóa ISO-8859-1
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+            if (line.size() > 8192) {
+                throw new IOException("Header line too long");
+            }
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString("ISO-8859-1");
+    }
+
+    private static byte[] readBody(InputStream in, int length) throws IOException {
+        byte[] body = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int read = in.read(body, offset, length - offset);
+            if (read == -1) {
+                throw new IOException("Unexpected end of request body");
+            }
+            offset += read;
+        }
+        return body;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Những gì PollHostServer cho thiết bị khác xem qua GET /polls: câu hỏi, lựa chọn, chế độ và số
+// đếm tổng hợp, không có phiếu của từng người. Kèm danh tính người bầu do máy chủ cấp cho thiết bị
+// này; phiếu gửi sau đó phải mang voterId này và header token tương ứng.
+public class PollInvite {
+    private String id;
+    private String inviteCode;
+    private String question;
+    private List<String> options;
+    private Poll.VotingMode votingMode;
+    private Poll.CountingMethod countingMethod;
+    private boolean isActive;
+    private boolean hasTimer;
+    private int timerMinutes;
+    private long startTime;
+    private long endTime;
+    private int voterCount;
+    private Map<String, Integer> counts; // option -> số phiếu (một lựa chọn) hoặc điểm xếp hạng
+    private String voterId;
+    private String voterToken;
+
+    public PollInvite() {}
+
+    static PollInvite from(Poll poll, String voterId, String voterToken) {
+        PollInvite invite = new PollInvite();
+        invite.id = poll.getId();
+        invite.inviteCode = poll.getInviteCode();
+        invite.question = poll.getQuestion();
+        invite.options = new ArrayList<>(poll.getOptions());
+        invite.votingMode = poll.getVotingMode();
+        invite.countingMethod = poll.getCountingMethod();
+        invite.isActive = poll.isActive();
+        invite.hasTimer = poll.isHasTimer();
+        invite.timerMinutes = poll.getTimerMinutes();
+        invite.startTime = poll.getStartTime();
+        invite.endTime = poll.getEndTime();
+        invite.counts = new LinkedHashMap<>();
+        boolean ranked = poll.getVotingMode() == Poll.VotingMode.RANKED_CHOICE;
+        for (String option : poll.getOptions()) {
+            if (option != null) {
+                invite.counts.put(option, ranked ? poll.getRankedScore(option) : poll.getChoiceCount(option));
+            }
+        }
+        invite.voterCount = ranked ? poll.getRankedVoterCount() : poll.getSingleChoiceVoterCount();
+        invite.voterId = voterId;
+        invite.voterToken = voterToken;
+        return invite;
+    }
+
+    // Poll cục bộ để hiển thị và bầu; không có phiếu của người khác
+    public Poll toPoll() {
+        Poll poll = new Poll(id, question, options, votingMode);
+        poll.setInviteCode(inviteCode);
+        poll.setCountingMethod(countingMethod);
+        poll.setActive(isActive);
+        poll.setHasTimer(hasTimer);
+        poll.setTimerMinutes(timerMinutes);
+        poll.setStartTime(startTime);
+        poll.setEndTime(endTime);
+        return poll;
+    }
+
+    public String getId() { return id; }
+    public String getQuestion() { return question; }
+    public List<String> getOptions() { return options; }
+    public Poll.VotingMode getVotingMode() { return votingMode; }
+    public boolean isActive() { return isActive; }
+    public int getVoterCount() { return voterCount; }
+    public Map<String, Integer> getCounts() { return counts; }
+    public String getVoterId() { return voterId; }
+    public String getVoterToken() { return voterToken; }
+}
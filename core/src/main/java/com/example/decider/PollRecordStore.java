@@ -0,0 +1,277 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lưu mỗi poll thành một file riêng (một record cho mỗi poll id),
+// nên ghi/xóa/đọc một poll chỉ tốn chi phí theo kích thước của poll đó.
+public class PollRecordStore {
+    private static final String RECORD_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Gson mã hóa/giải mã trên bộ đệm trong bộ nhớ, tách khỏi thời gian ghi/đọc file của record
+    private static final MetricsRegistry.Timer ENCODE_TIMER = MetricsRegistry.get().timer("gson.encodePoll");
+    private static final MetricsRegistry.Timer DECODE_TIMER = MetricsRegistry.get().timer("gson.decodePoll");
+    private static final MetricsRegistry.Timer WRITE_TIMER = MetricsRegistry.get().timer("record.write");
+    private static final MetricsRegistry.Timer READ_TIMER = MetricsRegistry.get().timer("record.read");
+    private static final LatencyHistogram RECORD_BYTES = MetricsRegistry.get().histogram("record.bytes");
+
+    private final File directory;
+    private final Gson gson;
+
+    public PollRecordStore(File directory, Gson gson) {
+        this.directory = directory;
+        this.gson = gson;
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+    }
+
+    // Trả về true nếu record đã được thay thế trọn vẹn
+    public boolean write(Poll poll) {
+        try {
+            if (poll == null || poll.getId().isEmpty()) {
+                return false;
+            }
+
+            File target = recordFile(poll.getId());
+            File temp = new File(directory, target.getName() + TEMP_SUFFIX);
+
+            // Ghi ra file tạm rồi đổi tên để không bao giờ để lại record ghi dở
+            byte[] bytes;
+            long started = ENCODE_TIMER.start();
+            try {
+                bytes = gson.toJson(poll).getBytes(StandardCharsets.UTF_8);
+            } finally {
+                ENCODE_TIMER.stop(started);
+            }
+            started = WRITE_TIMER.start();
+            try (OutputStream out = new FileOutputStream(temp)) {
+                out.write(bytes);
+            } finally {
+                WRITE_TIMER.stop(started);
+            }
+            RECORD_BYTES.record(bytes.length);
+            if (!temp.renameTo(target)) {
+                target.delete();
+                if (!temp.renameTo(target)) {
+                    throw new IOException("Cannot replace record " + target.getName());
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public Poll read(String id) {
+        try {
+            if (id == null || id.isEmpty()) {
+                return null;
+            }
+            return readFile(recordFile(id));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public boolean delete(String id) {
+        try {
+            if (id == null || id.isEmpty()) {
+                return false;
+            }
+            return recordFile(id).delete();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public List<Poll> readAll() {
+        List<Poll> polls = new ArrayList<>();
+        forEach(polls::add);
+        return polls;
+    }
+
+    // Đọc lần lượt từng poll, chỉ giữ một poll trong bộ nhớ tại một thời điểm
+    public void forEach(PollStreamReader.Visitor<Poll> visitor) {
+        try {
+            File[] files = listRecords();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                Poll poll = readFile(file);
+                if (poll != null && !visitor.visit(poll)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Đọc bản tóm tắt từng poll mà không decode votes
+    public void forEachSummary(PollStreamReader.Visitor<PollSummary> visitor) {
+        try {
+            File[] files = listRecords();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                PollSummary summary;
+                try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                    summary = PollStreamReader.readSummary(reader);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    continue;
+                }
+                if (summary != null && !visitor.visit(summary)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Đọc tóm tắt của một poll mà không decode votes; null nếu không có hoặc không đọc được
+    public PollSummary readSummary(String id) {
+        try {
+            File file = id != null && !id.isEmpty() ? recordFile(id) : null;
+            if (file == null || !file.isFile()) {
+                return null;
+            }
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                return PollStreamReader.readSummary(reader);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Id -> thời điểm sửa cuối của record, chỉ đọc thông tin thư mục
+    public Map<String, Long> lastModified() {
+        Map<String, Long> modified = new HashMap<>();
+        try {
+            File[] files = listRecords();
+            if (files == null) {
+                return modified;
+            }
+            for (File file : files) {
+                String name = file.getName();
+                modified.put(decodeId(name.substring(0, name.length() - RECORD_SUFFIX.length())), file.lastModified());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return modified;
+    }
+
+    public List<String> ids() {
+        List<String> ids = new ArrayList<>();
+        try {
+            String[] names = directory.list((dir, name) -> name.endsWith(RECORD_SUFFIX));
+            if (names == null) {
+                return ids;
+            }
+            for (String name : names) {
+                ids.add(decodeId(name.substring(0, name.length() - RECORD_SUFFIX.length())));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return ids;
+    }
+
+    public void clear() {
+        try {
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                file.delete();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private File[] listRecords() {
+        return directory.listFiles((dir, name) -> name.endsWith(RECORD_SUFFIX));
+    }
+
+    private Poll readFile(File file) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        byte[] bytes;
+        long started = READ_TIMER.start();
+        try {
+            bytes = readBytes(file);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            READ_TIMER.stop(started);
+        }
+        started = DECODE_TIMER.start();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Poll.class);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            DECODE_TIMER.stop(started);
+        }
+    }
+
+    // java.nio.file cần API 26, minSdk của app là 24
+    private static byte[] readBytes(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        try (InputStream in = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int read = in.read(bytes, offset, bytes.length - offset);
+                if (read < 0) {
+                    throw new IOException("Record shrank while reading " + file.getName());
+                }
+                offset += read;
+            }
+        }
+        return bytes;
+    }
+
+    private File recordFile(String id) throws UnsupportedEncodingException {
+        return new File(directory, encodeId(id) + RECORD_SUFFIX);
+    }
+
+    static String encodeId(String id) throws UnsupportedEncodingException {
+        return URLEncoder.encode(id, "UTF-8");
+    }
+
+    static String decodeId(String name) throws UnsupportedEncodingException {
+        return URLDecoder.decode(name, "UTF-8");
+    }
+}
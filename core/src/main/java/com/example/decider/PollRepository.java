@@ -0,0 +1,69 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Các thao tác lưu trữ mà màn hình dùng, tách khỏi cách lưu cụ thể. RecordPollRepository (record JSON + nhật ký),
+// SqlPollStore (SQLite) và InMemoryPollRepository cùng thoả PollRepositoryContract trong test,
+// nên có thể thay nhau và đo trên cùng một khối lượng công việc. App chọn backend ở PollRepositories.
+//
+// Quy ước chung: tham số null bị bỏ qua (đọc trả về null/danh sách rỗng), lỗi được ghi log chứ không ném ra.
+public interface PollRepository {
+    // Poll management
+    void savePoll(Poll poll);
+
+    Poll getPollById(String id);
+
+    // Chỉ trả poll còn mở
+    Poll getPollByInviteCode(String inviteCode);
+
+    // Mọi poll, sắp theo startTime tăng dần
+    List<Poll> getAllPolls();
+
+    void deletePoll(String id);
+
+    // Ghi xuống bộ nhớ bền các thay đổi còn đang được gộp (nếu có)
+    void flush();
+
+    // Bus phát PollChange của mỗi lần savePoll/deletePoll
+    PollChangeBus changes();
+
+    // Tóm tắt mọi poll, sắp theo startTime tăng dần
+    default List<PollSummary> getPollSummaries() {
+        List<PollSummary> summaries = new ArrayList<>();
+        for (Poll poll : getAllPolls()) {
+            summaries.add(PollSummary.of(poll));
+        }
+        return summaries;
+    }
+
+    // Một trang tóm tắt, mới nhất trước theo startTime, sau con trỏ after (null = trang đầu)
+    default Page<PollSummary> getPollSummaryPage(Page.Cursor after, int limit) {
+        return Page.slice(getPollSummaries(), PollSummaryIndex::cursorOf, after, limit);
+    }
+
+    // Current poll management: lưu một bản chụp, set null tương đương clear
+    void setCurrentPoll(Poll poll);
+
+    Poll getCurrentPoll();
+
+    void clearCurrentPoll();
+
+    // Template management: lưu lại mẫu cùng id thì thay mẫu cũ
+    void saveTemplate(PollTemplate template);
+
+    List<PollTemplate> getAllTemplates();
+
+    // Một trang mẫu, mới nhất trước theo createdTime
+    default Page<PollTemplate> getTemplatePage(Page.Cursor after, int limit) {
+        return Page.slice(getAllTemplates(), PollTemplate::cursorOf, after, limit);
+    }
+
+    PollTemplate getTemplateById(String id);
+
+    void deleteTemplate(String id);
+
+    boolean hasTemplates();
+
+    void clearAllData();
+}
@@ -0,0 +1,152 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Đọc JSON theo dạng stream (JsonReader): trả từng phần tử cho visitor ngay khi đọc xong
+// thay vì dựng cả danh sách, và đọc được bản tóm tắt poll mà bỏ qua toàn bộ votes/results.
+public final class PollStreamReader {
+
+    public interface Visitor<T> {
+        // Trả về false để dừng đọc
+        boolean visit(T item);
+    }
+
+    private PollStreamReader() {}
+
+    // Đọc lần lượt từng phần tử của một mảng JSON
+    public static <T> void forEachInArray(Gson gson, Reader source, Class<T> type, Visitor<T> visitor) throws IOException {
+        JsonReader reader = new JsonReader(source);
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            T item = gson.fromJson(reader, type);
+            if (item != null && !visitor.visit(item)) {
+                return;
+            }
+        }
+        reader.endArray();
+    }
+
+    // Đọc bản tóm tắt của một poll; votes chỉ được đếm, không decode
+    public static PollSummary readSummary(Reader source) throws IOException {
+        JsonReader reader = new JsonReader(source);
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        PollSummary summary = new PollSummary();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    summary.setId(reader.nextString());
+                    break;
+                case "question":
+                    summary.setQuestion(reader.nextString());
+                    break;
+                case "votingMode":
+                    summary.setVotingMode(parseVotingMode(reader.nextString()));
+                    break;
+                case "isActive":
+                    summary.setActive(reader.nextBoolean());
+                    break;
+                case "inviteCode":
+                    summary.setInviteCode(reader.nextString());
+                    break;
+                case "startTime":
+                    summary.setStartTime(reader.nextLong());
+                    break;
+                case "endTime":
+                    summary.setEndTime(reader.nextLong());
+                    break;
+                case "results":
+                    summary.setWinner(readFirstString(reader));
+                    break;
+                case "votes":
+                    summary.setVoteCount(countObjectEntries(reader));
+                    break;
+                case VoteCodec.FIELD:
+                    summary.setVoteCount(countCompactVotes(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (summary.isActive()) {
+            summary.setWinner(null);
+        }
+        return summary;
+    }
+
+    private static String readFirstString(JsonReader reader) throws IOException {
+        String first = null;
+        reader.beginArray();
+        if (reader.hasNext()) {
+            if (reader.peek() == JsonToken.STRING) {
+                first = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return first;
+    }
+
+    private static int countObjectEntries(JsonReader reader) throws IOException {
+        int count = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            reader.skipValue();
+            count++;
+        }
+        reader.endObject();
+        return count;
+    }
+
+    private static int countCompactVotes(JsonReader reader) throws IOException {
+        int count = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("users".equals(reader.nextName())) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.skipValue();
+                    count++;
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return count;
+    }
+
+    private static Poll.VotingMode parseVotingMode(String value) {
+        try {
+            return Poll.VotingMode.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return Poll.VotingMode.SINGLE_CHOICE;
+        }
+    }
+}
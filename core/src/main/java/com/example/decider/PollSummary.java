@@ -0,0 +1,79 @@
+package com.example.decider;
+
+import java.util.List;
+import java.util.Objects;
+
+// Các trường cần để hiển thị một poll trong danh sách, không kèm votes/results
+public class PollSummary {
+    private String id;
+    private String question;
+    private Poll.VotingMode votingMode;
+    private boolean isActive;
+    private int voteCount;
+    private String inviteCode;
+    private long startTime;
+    private long endTime;
+    private String winner; // null khi poll còn mở hoặc chưa có kết quả
+
+    public PollSummary() {
+        this.votingMode = Poll.VotingMode.SINGLE_CHOICE;
+        this.isActive = true;
+    }
+
+    public static PollSummary of(Poll poll) {
+        PollSummary summary = new PollSummary();
+        summary.id = poll.getId();
+        summary.question = poll.getQuestion();
+        summary.votingMode = poll.getVotingMode();
+        summary.isActive = poll.isActive();
+        summary.voteCount = poll.getVotes().size();
+        summary.inviteCode = poll.getInviteCode();
+        summary.startTime = poll.getStartTime();
+        summary.endTime = poll.getEndTime();
+        List<String> results = poll.getResults();
+        summary.winner = !poll.isActive() && !results.isEmpty() ? results.get(0) : null;
+        return summary;
+    }
+
+    // So sánh các trường được hiển thị, dùng để diff danh sách
+    public boolean sameContentAs(PollSummary other) {
+        return other != null
+                && getId().equals(other.getId())
+                && getQuestion().equals(other.getQuestion())
+                && getVotingMode() == other.getVotingMode()
+                && isActive == other.isActive
+                && voteCount == other.voteCount
+                && startTime == other.startTime
+                && endTime == other.endTime
+                && Objects.equals(inviteCode, other.inviteCode)
+                && Objects.equals(winner, other.winner);
+    }
+
+    // Getters and setters
+    public String getId() { return id != null ? id : ""; }
+    public void setId(String id) { this.id = id; }
+
+    public String getQuestion() { return question != null ? question : ""; }
+    public void setQuestion(String question) { this.question = question; }
+
+    public Poll.VotingMode getVotingMode() { return votingMode != null ? votingMode : Poll.VotingMode.SINGLE_CHOICE; }
+    public void setVotingMode(Poll.VotingMode votingMode) { this.votingMode = votingMode; }
+
+    public boolean isActive() { return isActive; }
+    public void setActive(boolean active) { isActive = active; }
+
+    public int getVoteCount() { return voteCount; }
+    public void setVoteCount(int voteCount) { this.voteCount = voteCount; }
+
+    public String getInviteCode() { return inviteCode; }
+    public void setInviteCode(String inviteCode) { this.inviteCode = inviteCode; }
+
+    public long getStartTime() { return startTime; }
+    public void setStartTime(long startTime) { this.startTime = startTime; }
+
+    public long getEndTime() { return endTime; }
+    public void setEndTime(long endTime) { this.endTime = endTime; }
+
+    public String getWinner() { return winner; }
+    public void setWinner(String winner) { this.winner = winner; }
+}
@@ -0,0 +1,363 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// Chỉ mục PollSummary của mọi poll, lưu trong một file nhỏ riêng để màn hình danh sách
+// chỉ cần đọc một file thay vì mở từng record poll. File được ghi theo thứ tự mới nhất trước,
+// nên trang đầu tiên có thể đọc stream mà không cần nạp toàn bộ chỉ mục.
+//
+// Thay đổi sau lần ghi file được nối vào file <tên>.log cạnh đó, mỗi dòng một mục, nên mỗi lần
+// lưu chỉ tốn chi phí theo số poll vừa đổi. File chính chỉ được ghi lại khi nhật ký đã dài hơn
+// chính chỉ mục (hoặc khi phải dựng lại), tức O(1) khấu hao cho mỗi thay đổi.
+public class PollSummaryIndex {
+    private static final String LOG_SUFFIX = ".log";
+    private static final int MIN_COMPACT_ENTRIES = 64;
+
+    private final File file;
+    private final File logFile;
+    private final Gson gson;
+    private final Map<String, PollSummary> summaries = new HashMap<>();
+    private final TreeMap<Page.Cursor, PollSummary> ordered = new TreeMap<>();
+    // Mục chưa ghi ra đĩa theo thứ tự thay đổi; giá trị null nghĩa là poll đã bị xóa
+    private final Map<String, PollSummary> pending = new LinkedHashMap<>();
+    private boolean loaded = false;
+    private boolean rewrite = false; // cần ghi lại cả file chính thay vì nối nhật ký
+    private int logEntries = 0;
+
+    // Một dòng của nhật ký: hoặc tóm tắt mới của poll, hoặc id của poll đã bị xóa
+    private static final class LogEntry {
+        PollSummary put;
+        String removed;
+    }
+
+    public PollSummaryIndex(File file, Gson gson) {
+        this.file = file;
+        this.logFile = new File(file.getPath() + LOG_SUFFIX);
+        this.gson = gson;
+    }
+
+    public synchronized boolean exists() {
+        return file.isFile();
+    }
+
+    public void load(PollRecordStore records) {
+        load(records, Collections::emptyList);
+    }
+
+    // Nạp từ file và nhật ký; nếu chưa có file thì dựng lại từ các record poll. Sau đó đối chiếu với
+    // record: poll có record mới hơn chỉ mục (crash giữa lúc ghi record và lúc ghi chỉ mục) được
+    // đọc lại tóm tắt, poll không còn record cũng không nằm trong otherIds thì bị bỏ khỏi chỉ mục.
+    // otherIds là các poll còn tồn tại ở nơi khác dù chưa có record (ví dụ mới chỉ có nhật ký sự kiện).
+    public synchronized void load(PollRecordStore records, Supplier<? extends Collection<String>> otherIds) {
+        if (loaded) {
+            return;
+        }
+        summaries.clear();
+        ordered.clear();
+        if (file.isFile()) {
+            long indexTime = Math.max(file.lastModified(), logFile.lastModified());
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                PollStreamReader.forEachInArray(gson, reader, PollSummary.class, summary -> {
+                    add(summary);
+                    return true;
+                });
+                replayLog();
+                reconcile(records, otherIds.get(), indexTime);
+            } catch (Exception e) {
+                e.printStackTrace();
+                summaries.clear();
+                ordered.clear();
+                rebuild(records);
+            }
+        } else {
+            rebuild(records);
+        }
+        loaded = true;
+    }
+
+    public synchronized void put(Poll poll) {
+        if (poll == null || poll.getId().isEmpty()) {
+            return;
+        }
+        PollSummary summary = PollSummary.of(poll);
+        add(summary);
+        pending.put(summary.getId(), summary);
+    }
+
+    public synchronized void remove(String id) {
+        PollSummary removed = id != null ? summaries.remove(id) : null;
+        if (removed != null) {
+            ordered.remove(cursorOf(removed));
+            pending.put(id, null);
+        }
+    }
+
+    public synchronized List<PollSummary> values() {
+        return new ArrayList<>(ordered.values());
+    }
+
+    // Trang tóm tắt sau con trỏ after (null = từ đầu), mới nhất trước
+    public synchronized Page<PollSummary> page(PollRecordStore records, Page.Cursor after, int limit) {
+        return page(records, Collections::emptyList, after, limit);
+    }
+
+    public synchronized Page<PollSummary> page(PollRecordStore records, Supplier<? extends Collection<String>> otherIds,
+                                               Page.Cursor after, int limit) {
+        if (limit <= 0) {
+            return Page.empty();
+        }
+        // Đọc stream trang đầu chỉ khi file chính đã đủ (chưa có gì nối thêm vào nhật ký) và khớp với
+        // record: không record nào mới hơn file, và mọi poll trong trang vẫn còn tồn tại
+        if (!loaded && after == null && file.isFile() && !logFile.exists()) {
+            Page<PollSummary> first = readFirstPage(limit);
+            if (first != null && matchesRecords(first, records, otherIds)) {
+                return first;
+            }
+        }
+        load(records, otherIds);
+
+        List<PollSummary> items = new ArrayList<>(limit);
+        Map<Page.Cursor, PollSummary> tail = after != null ? ordered.tailMap(after, false) : ordered;
+        Page.Cursor next = null;
+        for (Map.Entry<Page.Cursor, PollSummary> entry : tail.entrySet()) {
+            if (items.size() == limit) {
+                next = cursorOf(items.get(limit - 1));
+                break;
+            }
+            items.add(entry.getValue());
+        }
+        return new Page<>(items, next);
+    }
+
+    public synchronized void clear() {
+        summaries.clear();
+        ordered.clear();
+        pending.clear();
+        file.delete();
+        logFile.delete();
+        rewrite = false;
+        logEntries = 0;
+        loaded = false;
+    }
+
+    // Ghi các thay đổi kể từ lần ghi trước: nối vào nhật ký, hoặc ghi lại cả file khi nhật ký đã dài
+    public synchronized void saveIfDirty() {
+        if (!rewrite && pending.isEmpty()) {
+            return;
+        }
+        try {
+            if (rewrite || !file.isFile() || logEntries + pending.size() > Math.max(MIN_COMPACT_ENTRIES, summaries.size())) {
+                writeSnapshot();
+            } else {
+                appendLog();
+            }
+            pending.clear();
+            rewrite = false;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            gson.toJson(new ArrayList<>(ordered.values()), writer);
+        }
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) {
+                throw new IOException("Cannot replace " + file.getName());
+            }
+        }
+        // File chính đã chứa mọi mục trong nhật ký
+        logFile.delete();
+        logEntries = 0;
+    }
+
+    private void appendLog() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, PollSummary> entry : pending.entrySet()) {
+            LogEntry line = new LogEntry();
+            if (entry.getValue() != null) {
+                line.put = entry.getValue();
+            } else {
+                line.removed = entry.getKey();
+            }
+            lines.append(gson.toJson(line)).append('\n');
+        }
+        try (OutputStream out = new FileOutputStream(logFile, true)) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        logEntries += pending.size();
+    }
+
+    // Áp các dòng nhật ký lên chỉ mục vừa đọc; dòng hỏng hoặc ghi dở ở cuối (crash giữa lúc nối)
+    // làm lần lưu sau ghi lại cả file để bỏ nhật ký đó đi
+    private void replayLog() {
+        logEntries = 0;
+        if (!logFile.isFile()) {
+            return;
+        }
+        if (!endsWithNewline(logFile)) {
+            rewrite = true; // dòng cuối ghi dở, lần nối sau sẽ dính vào nó
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(logFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                LogEntry entry;
+                try {
+                    entry = gson.fromJson(line, LogEntry.class);
+                } catch (Exception e) {
+                    entry = null;
+                }
+                if (entry == null || (entry.put == null && entry.removed == null)) {
+                    rewrite = true;
+                    break;
+                }
+                if (entry.put != null) {
+                    add(entry.put);
+                } else {
+                    PollSummary removed = summaries.remove(entry.removed);
+                    if (removed != null) {
+                        ordered.remove(cursorOf(removed));
+                    }
+                }
+                logEntries++;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            rewrite = true;
+        }
+    }
+
+    private boolean matchesRecords(Page<PollSummary> page, PollRecordStore records,
+                                   Supplier<? extends Collection<String>> otherIds) {
+        if (records == null) {
+            return true;
+        }
+        long indexTime = file.lastModified();
+        Map<String, Long> modified = records.lastModified();
+        for (long time : modified.values()) {
+            if (time > indexTime) {
+                return false;
+            }
+        }
+        Collection<String> others = null;
+        for (PollSummary summary : page.getItems()) {
+            if (!modified.containsKey(summary.getId())) {
+                if (others == null) {
+                    others = new HashSet<>(otherIds.get());
+                }
+                if (!others.contains(summary.getId())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean endsWithNewline(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() == 0) {
+                return true;
+            }
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void reconcile(PollRecordStore records, Collection<String> otherIds, long indexTime) {
+        if (records == null) {
+            return;
+        }
+        Map<String, Long> modified = records.lastModified();
+        for (Map.Entry<String, Long> entry : modified.entrySet()) {
+            // Record cũ hơn chỉ mục thì chỉ mục đúng hơn (có cả các sự kiện chưa gộp vào record)
+            if (!summaries.containsKey(entry.getKey()) || entry.getValue() > indexTime) {
+                PollSummary summary = records.readSummary(entry.getKey());
+                if (summary != null) {
+                    add(summary);
+                    pending.put(summary.getId(), summary);
+                }
+            }
+        }
+        Set<String> known = new HashSet<>(otherIds);
+        for (String id : new ArrayList<>(summaries.keySet())) {
+            if (!modified.containsKey(id) && !known.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    private void rebuild(PollRecordStore records) {
+        if (records != null) {
+            records.forEachSummary(summary -> {
+                add(summary);
+                return true;
+            });
+        }
+        rewrite = true;
+    }
+
+    // Đọc stream limit + 1 mục đầu của file; dừng sớm nên thời gian không phụ thuộc số poll
+    private Page<PollSummary> readFirstPage(int limit) {
+        List<PollSummary> items = new ArrayList<>(limit);
+        boolean[] more = new boolean[1];
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            PollStreamReader.forEachInArray(gson, reader, PollSummary.class, summary -> {
+                if (items.size() == limit) {
+                    more[0] = true;
+                    return false;
+                }
+                items.add(summary);
+                return true;
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+        return new Page<>(items, more[0] ? cursorOf(items.get(limit - 1)) : null);
+    }
+
+    private void add(PollSummary summary) {
+        if (summary == null || summary.getId() == null) {
+            return;
+        }
+        PollSummary previous = summaries.put(summary.getId(), summary);
+        if (previous != null) {
+            ordered.remove(cursorOf(previous));
+        }
+        ordered.put(cursorOf(summary), summary);
+    }
+
+    static Page.Cursor cursorOf(PollSummary summary) {
+        return new Page.Cursor(summary.getStartTime(), summary.getId());
+    }
+}
@@ -67,6 +67,11 @@ public class PollTemplate {
     public long getCreatedTime() { return createdTime; }
     public void setCreatedTime(long createdTime) { this.createdTime = createdTime; }
     
+    // Vị trí của mẫu khi phân trang, mới nhất trước
+    static Page.Cursor cursorOf(PollTemplate template) {
+        return new Page.Cursor(template.getCreatedTime(), template.getId());
+    }
+    
     // Helper method to create a new poll from this template
     public Poll createPoll() {
         Poll poll = new Poll();
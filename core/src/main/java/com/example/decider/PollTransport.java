@@ -0,0 +1,15 @@
+package com.example.decider;
+
+import java.io.IOException;
+import java.util.List;
+
+// Cách một thiết bị tìm poll theo mã mời và gửi phiếu tới nơi giữ poll.
+// LocalPollTransport dùng dữ liệu trong tiến trình, HttpPollTransport gọi tới PollHostServer của máy tạo poll.
+public interface PollTransport {
+
+    // null nếu không có poll đang mở với mã này
+    Poll findPollByInviteCode(String inviteCode) throws IOException;
+
+    // Gửi một lô phiếu; trả về một VoteAck cho mỗi phiếu, cùng thứ tự
+    List<VoteAck> submitVotes(String pollId, List<Vote> votes) throws IOException;
+}
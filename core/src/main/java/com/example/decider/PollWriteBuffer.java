@@ -0,0 +1,77 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Bộ đệm ghi trễ: nhiều lần savePoll cho cùng một poll id trong một khoảng ngắn
+// được gộp lại thành một lần serialize và một lần ghi.
+public class PollWriteBuffer {
+
+    public interface Writer {
+        // Ghi một lượt gồm các poll đã gộp
+        void write(List<Poll> polls);
+    }
+
+    private final Map<String, Poll> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final Writer writer;
+    private boolean flushScheduled = false;
+
+    public PollWriteBuffer(ScheduledExecutorService scheduler, long windowMillis, Writer writer) {
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.writer = writer;
+    }
+
+    public void enqueue(Poll poll) {
+        if (poll == null || poll.getId().isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            pending.put(poll.getId(), poll);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Bỏ bản ghi đang chờ, dùng khi poll bị xóa trước khi kịp ghi
+    public synchronized void discard(String id) {
+        if (id != null) {
+            pending.remove(id);
+        }
+    }
+
+    public synchronized void clear() {
+        pending.clear();
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    // Ghi ngay mọi poll đang chờ; trả về số poll đã ghi
+    public int flush() {
+        List<Poll> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            writer.write(batch);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return batch.size();
+    }
+}
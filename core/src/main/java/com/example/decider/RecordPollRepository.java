@@ -0,0 +1,528 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+// Backend mặc định: mỗi poll một record JSON (PollRecordStore) cộng nhật ký sự kiện (PollEventLog),
+// chỉ mục tóm tắt cho màn hình danh sách, và cache trong bộ nhớ được nạp một lần.
+// Mẫu, current poll và chuỗi polls cũ nằm trong KeyValueStore (SharedPreferences trên máy).
+// Mỗi thư mục chỉ nên có một instance trong tiến trình (xem PollRepositories ở app); các hàm được
+// đồng bộ trên instance, kể cả lượt ghi trễ chạy trên writeExecutor.
+public class RecordPollRepository implements PollRepository {
+    private static final String KEY_POLLS = "polls";
+    private static final String KEY_TEMPLATES = "templates";
+    private static final String KEY_CURRENT_POLL = "current_poll";
+    private static final String POLLS_DIR = "polls";
+    private static final String SUMMARIES_FILE = "poll_summaries.json";
+    private static final long WRITE_WINDOW_MS = 300;
+    private static final int COMPACT_AFTER_EVENTS = 256; // số sự kiện trong nhật ký trước khi ghi bản chụp mới
+    
+    private static final MetricsRegistry.Timer SAVE_TIMER = MetricsRegistry.get().timer("storage.savePoll");
+    private static final MetricsRegistry.Timer GET_ALL_TIMER = MetricsRegistry.get().timer("storage.getAllPolls");
+    private static final MetricsRegistry.Timer LOAD_TIMER = MetricsRegistry.get().timer("storage.loadCache");
+    private static final MetricsRegistry.Counter EVENTS_LOGGED = MetricsRegistry.get().counter("storage.eventsLogged");
+    private static final MetricsRegistry.Counter SNAPSHOTS_QUEUED = MetricsRegistry.get().counter("storage.snapshotsQueued");
+    
+    private final PollCache cache = new PollCache();
+    private final PollChangeBus changes;
+    private KeyValueStore prefs;
+    private Gson gson;
+    private PollRecordStore records;
+    private PollSummaryIndex summaryIndex;
+    private PollEventLog eventLog;
+    private PollWriteBuffer writeBuffer;
+    
+    public RecordPollRepository(File directory, KeyValueStore prefs, ScheduledExecutorService writeExecutor) {
+        this(directory, prefs, writeExecutor, new PollChangeBus());
+    }
+    
+    // directory chứa thư mục record, chỉ mục tóm tắt và file cũ; writeExecutor chạy các lượt ghi trễ
+    public RecordPollRepository(File directory, KeyValueStore prefs, ScheduledExecutorService writeExecutor,
+                                PollChangeBus changes) {
+        this.changes = changes;
+        try {
+            this.prefs = prefs;
+            gson = PollGson.create();
+            records = new PollRecordStore(new File(directory, POLLS_DIR), gson);
+            migrateLegacyPolls();
+            summaryIndex = new PollSummaryIndex(new File(directory, SUMMARIES_FILE), gson);
+            eventLog = new PollEventLog(new File(directory, POLLS_DIR), gson);
+            writeBuffer = new PollWriteBuffer(writeExecutor, WRITE_WINDOW_MS, this::writeSnapshots);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private synchronized void writeSnapshots(List<Poll> polls) {
+        for (Poll poll : polls) {
+            // Bản chụp chứa mọi sự kiện tới seq này, phần nhật ký đó không cần nữa
+            long seq = poll.getEventSeq();
+            if (records.write(poll)) {
+                eventLog.compact(poll.getId(), seq);
+            }
+        }
+        summaryIndex.saveIfDirty();
+    }
+    
+    // Poll management
+    @Override
+    public synchronized void savePoll(Poll poll) {
+        long started = SAVE_TIMER.start();
+        try {
+            if (poll == null || records == null) {
+                return;
+            }
+            ensureCacheLoaded();
+            boolean created = cache.get(poll.getId()) == null;
+            cache.put(poll);
+            loadSummaryIndex();
+            summaryIndex.put(poll);
+            
+            // Thay đổi được nối vào nhật ký thành sự kiện nhỏ; bản chụp đầy đủ chỉ được ghi khi poll mới tạo,
+            // khi nhật ký đã dài, hoặc khi thay đổi không diễn tả được bằng sự kiện (ví dụ thay cả bản poll)
+            PollChange change = poll.takeChanges();
+            List<PollEvent> events = created
+                    ? Collections.singletonList(PollEvent.created(poll))
+                    : PollEvent.fromChange(change, poll);
+            boolean logged = !events.isEmpty() && eventLog.append(poll, events);
+            if (logged) {
+                EVENTS_LOGGED.add(events.size());
+            }
+            if (!logged) {
+                // Bản chụp sắp ghi thay cho mọi sự kiện đã có trong nhật ký
+                poll.setEventSeq(Math.max(poll.getEventSeq(), eventLog.getLastSeq(poll.getId())));
+            }
+            if (created || !logged || eventLog.tailSize(poll.getId()) >= COMPACT_AFTER_EVENTS) {
+                writeBuffer.enqueue(poll);
+                SNAPSHOTS_QUEUED.increment();
+            }
+            changes.publish(change);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            SAVE_TIMER.stop(started);
+        }
+    }
+    
+    // Bus phát thay đổi theo từng poll, mỗi lần savePoll phát phần delta kể từ lần lưu trước
+    @Override
+    public PollChangeBus changes() {
+        return changes;
+    }
+    
+    @Override
+    public synchronized List<Poll> getAllPolls() {
+        long started = GET_ALL_TIMER.start();
+        try {
+            if (records == null) {
+                return new ArrayList<>();
+            }
+            
+            ensureCacheLoaded();
+            List<Poll> polls = cache.values();
+            polls.sort((a, b) -> Long.compare(a.getStartTime(), b.getStartTime()));
+            return polls;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        } finally {
+            GET_ALL_TIMER.stop(started);
+        }
+    }
+    
+    // Tóm tắt các poll cho màn hình danh sách, đọc từ chỉ mục tóm tắt nên không cần
+    // nạp votes/results của bất kỳ poll nào. Chỉ mục được dựng lại từ record nếu chưa có.
+    @Override
+    public synchronized List<PollSummary> getPollSummaries() {
+        try {
+            if (records == null || summaryIndex == null) {
+                return new ArrayList<>();
+            }
+            
+            loadSummaryIndex();
+            summaryIndex.saveIfDirty();
+            List<PollSummary> summaries = summaryIndex.values();
+            summaries.sort((a, b) -> Long.compare(a.getStartTime(), b.getStartTime()));
+            return summaries;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    // Một trang tóm tắt poll, mới nhất trước theo startTime, bắt đầu sau con trỏ after (null = trang đầu)
+    @Override
+    public synchronized Page<PollSummary> getPollSummaryPage(Page.Cursor after, int limit) {
+        try {
+            if (records == null || summaryIndex == null) {
+                return Page.empty();
+            }
+            
+            Page<PollSummary> page = summaryIndex.page(records, eventLog::ids, after, limit);
+            summaryIndex.saveIfDirty();
+            return page;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Page.empty();
+        }
+    }
+    
+    @Override
+    public synchronized Poll getPollById(String id) {
+        try {
+            if (id == null || records == null) {
+                return null;
+            }
+            ensureCacheLoaded();
+            return cache.get(id);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    @Override
+    public synchronized Poll getPollByInviteCode(String inviteCode) {
+        try {
+            if (inviteCode == null || records == null) {
+                return null;
+            }
+            
+            ensureCacheLoaded();
+            Poll poll = cache.getByInviteCode(inviteCode);
+            return poll != null && poll.isActive() ? poll : null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    @Override
+    public synchronized void deletePoll(String id) {
+        try {
+            if (id == null || records == null) {
+                return;
+            }
+            ensureCacheLoaded();
+            cache.remove(id);
+            writeBuffer.discard(id);
+            records.delete(id);
+            eventLog.delete(id);
+            loadSummaryIndex();
+            summaryIndex.remove(id);
+            summaryIndex.saveIfDirty();
+            changes.publish(PollChange.deleted(id));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Ghi ngay các poll đang chờ trong bộ đệm, gọi khi màn hình dừng (onStop)
+    @Override
+    public synchronized void flush() {
+        try {
+            if (writeBuffer != null) {
+                writeBuffer.flush();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Đọc tất cả record một lần duy nhất, sau đó mọi truy vấn đi qua cache
+    private void ensureCacheLoaded() {
+        if (!cache.isLoaded()) {
+            long started = LOAD_TIMER.start();
+            try {
+                cache.load(recoverPolls());
+            } finally {
+                LOAD_TIMER.stop(started);
+            }
+        }
+    }
+    
+    // Bản chụp trong record cộng phần đuôi nhật ký của từng poll; poll chỉ có nhật ký
+    // (chưa kịp ghi bản chụp) được dựng từ sự kiện CREATED
+    private List<Poll> recoverPolls() {
+        List<Poll> polls = new ArrayList<>();
+        Set<String> recovered = new HashSet<>();
+        for (Poll snapshot : records.readAll()) {
+            addRecovered(polls, recovered, eventLog.replay(snapshot.getId(), snapshot));
+        }
+        for (String id : eventLog.ids()) {
+            if (!recovered.contains(id)) {
+                addRecovered(polls, recovered, eventLog.replay(id, null));
+            }
+        }
+        return polls;
+    }
+    
+    private void addRecovered(List<Poll> polls, Set<String> recovered, Poll poll) {
+        if (poll == null || !recovered.add(poll.getId())) {
+            return;
+        }
+        poll.trackChanges();
+        polls.add(poll);
+        // Chỉ mục tóm tắt chỉ được lưu cùng bản chụp, nên cập nhật lại từ trạng thái đã phát lại
+        if (eventLog.tailSize(poll.getId()) > 0) {
+            loadSummaryIndex();
+            summaryIndex.put(poll);
+        }
+    }
+    
+    // Poll mới tạo có thể mới chỉ có nhật ký sự kiện, chưa kịp ghi record, nên vẫn giữ trong chỉ mục
+    private void loadSummaryIndex() {
+        summaryIndex.load(records, eventLog::ids);
+    }
+    
+    // Chuyển dữ liệu cũ (toàn bộ polls trong một chuỗi JSON) sang các record riêng. Chuỗi cũ chỉ bị
+    // xóa khi mọi record đã ghi xong; nếu không, lần khởi động sau thử lại các poll chưa có record.
+    private void migrateLegacyPolls() {
+        try {
+            String json = prefs.getString(KEY_POLLS);
+            if (json == null) {
+                return;
+            }
+            
+            Type listType = new TypeToken<List<Poll>>(){}.getType();
+            List<Poll> polls = gson.fromJson(json, listType);
+            boolean allWritten = true;
+            if (polls != null) {
+                // Record đã chuyển ở lần trước có thể đã được sửa sau đó, không ghi đè lại từ chuỗi cũ
+                Set<String> migrated = new HashSet<>(records.ids());
+                for (Poll poll : polls) {
+                    if (poll != null && !migrated.contains(poll.getId()) && !records.write(poll)) {
+                        allWritten = false;
+                    }
+                }
+            }
+            if (allWritten) {
+                prefs.remove(KEY_POLLS);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Current poll management
+    @Override
+    public synchronized void setCurrentPoll(Poll poll) {
+        try {
+            if (poll == null || prefs == null || gson == null) {
+                clearCurrentPoll();
+                return;
+            }
+            String json = gson.toJson(poll);
+            prefs.putString(KEY_CURRENT_POLL, json);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    @Override
+    public synchronized Poll getCurrentPoll() {
+        try {
+            if (prefs == null || gson == null) {
+                return null;
+            }
+            
+            String json = prefs.getString(KEY_CURRENT_POLL);
+            if (json != null) {
+                return gson.fromJson(json, Poll.class);
+            }
+            return null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    @Override
+    public synchronized void clearCurrentPoll() {
+        try {
+            if (prefs != null) {
+                prefs.remove(KEY_CURRENT_POLL);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Template management
+    @Override
+    public synchronized void saveTemplate(PollTemplate template) {
+        try {
+            if (template == null || prefs == null || gson == null) {
+                return;
+            }
+            
+            List<PollTemplate> templates = getAllTemplates();
+            
+            // Remove existing template with same ID
+            if (template.getId() != null) {
+                templates.removeIf(t -> t != null && t.getId() != null && t.getId().equals(template.getId()));
+            }
+            
+            // Add updated template
+            templates.add(template);
+            
+            String json = gson.toJson(templates);
+            prefs.putString(KEY_TEMPLATES, json);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Trang mẫu mới nhất trước theo createdTime. Danh sách mẫu nằm trong prefs nên vẫn phải đọc
+    // stream cả mảng, nhưng chỉ giữ tối đa limit + 1 mẫu trong bộ nhớ.
+    @Override
+    public synchronized Page<PollTemplate> getTemplatePage(Page.Cursor after, int limit) {
+        try {
+            if (limit <= 0) {
+                return Page.empty();
+            }
+            
+            // Heap ngược thứ tự: phần tử đầu là mẫu cũ nhất trong số đang giữ
+            PriorityQueue<PollTemplate> newest = new PriorityQueue<>(limit + 1,
+                    (a, b) -> PollTemplate.cursorOf(b).compareTo(PollTemplate.cursorOf(a)));
+            forEachTemplate(template -> {
+                if (after == null || PollTemplate.cursorOf(template).compareTo(after) > 0) {
+                    newest.add(template);
+                    if (newest.size() > limit + 1) {
+                        newest.poll();
+                    }
+                }
+                return true;
+            });
+            
+            List<PollTemplate> items = new ArrayList<>(newest);
+            items.sort((a, b) -> PollTemplate.cursorOf(a).compareTo(PollTemplate.cursorOf(b)));
+            Page.Cursor next = null;
+            if (items.size() > limit) {
+                items.remove(limit);
+                next = PollTemplate.cursorOf(items.get(limit - 1));
+            }
+            return new Page<>(items, next);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Page.empty();
+        }
+    }
+    
+    @Override
+    public synchronized List<PollTemplate> getAllTemplates() {
+        try {
+            if (prefs == null || gson == null) {
+                return new ArrayList<>();
+            }
+            
+            List<PollTemplate> templates = new ArrayList<>();
+            forEachTemplate(templates::add);
+            return templates;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    // Đọc stream danh sách mẫu, trả từng mẫu cho visitor
+    public synchronized void forEachTemplate(PollStreamReader.Visitor<PollTemplate> visitor) {
+        try {
+            if (prefs == null || gson == null || visitor == null) {
+                return;
+            }
+            
+            String json = prefs.getString(KEY_TEMPLATES);
+            if (json == null) {
+                return;
+            }
+            PollStreamReader.forEachInArray(gson, new StringReader(json), PollTemplate.class, visitor);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    @Override
+    public synchronized PollTemplate getTemplateById(String id) {
+        try {
+            if (id == null) {
+                return null;
+            }
+            
+            PollTemplate[] found = new PollTemplate[1];
+            forEachTemplate(template -> {
+                if (template.getId() != null && template.getId().equals(id)) {
+                    found[0] = template;
+                    return false;
+                }
+                return true;
+            });
+            return found[0];
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    @Override
+    public synchronized void deleteTemplate(String id) {
+        try {
+            if (id == null || prefs == null || gson == null) {
+                return;
+            }
+            
+            List<PollTemplate> templates = getAllTemplates();
+            templates.removeIf(t -> t != null && t.getId() != null && t.getId().equals(id));
+            String json = gson.toJson(templates);
+            prefs.putString(KEY_TEMPLATES, json);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Utility methods
+    @Override
+    public synchronized void clearAllData() {
+        try {
+            if (prefs != null) {
+                prefs.clear();
+            }
+            if (writeBuffer != null) {
+                writeBuffer.clear();
+            }
+            if (records != null) {
+                records.clear();
+            }
+            if (eventLog != null) {
+                eventLog.clear();
+            }
+            if (summaryIndex != null) {
+                summaryIndex.clear();
+            }
+            cache.clear();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    @Override
+    public synchronized boolean hasTemplates() {
+        try {
+            return !getAllTemplates().isEmpty();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Phương pháp Schulze trên ma trận ưu tiên từng cặp d[a][b] = số phiếu xếp a trên b.
+// Ma trận được TallyEngine cộng dồn theo từng phiếu, nên tính kết quả chỉ tốn O(n³)
+// theo số ứng viên, không phụ thuộc số phiếu.
+public final class SchulzeEngine {
+
+    public static final class Result {
+        private final List<String> candidates;
+        private final Map<String, Integer> indexByCandidate;
+        private final int[][] preferences;
+        private final int[][] strengths;
+        private final int[] wins;
+        private final List<String> winners;
+
+        Result(List<String> candidates, Map<String, Integer> indexByCandidate, int[][] preferences,
+               int[][] strengths, int[] wins, List<String> winners) {
+            this.candidates = candidates;
+            this.indexByCandidate = indexByCandidate;
+            this.preferences = preferences;
+            this.strengths = strengths;
+            this.wins = wins;
+            this.winners = Collections.unmodifiableList(winners);
+        }
+
+        // Các ứng viên không bị ứng viên nào khác thắng; nhiều hơn một nghĩa là hòa
+        public List<String> getWinners() {
+            return winners;
+        }
+
+        public boolean isTied() {
+            return winners.size() > 1;
+        }
+
+        // Số ứng viên khác mà candidate thắng theo đường mạnh nhất
+        public int getWins(String candidate) {
+            int index = indexOf(candidate);
+            return index >= 0 ? wins[index] : 0;
+        }
+
+        // Số phiếu xếp a trên b
+        public int getPreference(String a, String b) {
+            int i = indexOf(a);
+            int j = indexOf(b);
+            return i >= 0 && j >= 0 ? preferences[i][j] : 0;
+        }
+
+        // Độ mạnh của đường mạnh nhất từ a tới b
+        public int getStrength(String a, String b) {
+            int i = indexOf(a);
+            int j = indexOf(b);
+            return i >= 0 && j >= 0 ? strengths[i][j] : 0;
+        }
+
+        public boolean beats(String a, String b) {
+            int i = indexOf(a);
+            int j = indexOf(b);
+            return i >= 0 && j >= 0 && strengths[i][j] > strengths[j][i];
+        }
+
+        public int getCandidateCount() {
+            return candidates.size();
+        }
+
+        // Giá trị để xếp hạng theo chỉ số ứng viên. Quan hệ thắng của Schulze có tính bắc cầu,
+        // nên sắp theo số ứng viên bị thắng cho đúng thứ tự Schulze
+        long[] standings() {
+            long[] values = new long[wins.length];
+            for (int i = 0; i < wins.length; i++) {
+                values[i] = wins[i];
+            }
+            return values;
+        }
+
+        private int indexOf(String candidate) {
+            Integer index = candidate != null ? indexByCandidate.get(candidate) : null;
+            return index != null ? index : -1;
+        }
+    }
+
+    private SchulzeEngine() {}
+
+    // preferences[a][b] = số phiếu xếp a trên b; candidates.get(i) là tên của chỉ số i
+    public static Result compute(List<String> candidates, int[][] preferences) {
+        int n = candidates.size();
+        Map<String, Integer> indexByCandidate = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexByCandidate.put(candidates.get(i), i);
+        }
+
+        // Đường mạnh nhất (widest path) theo Floyd–Warshall
+        int[][] strengths = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j && preferences[i][j] > preferences[j][i]) {
+                    strengths[i][j] = preferences[i][j];
+                }
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            int[] fromK = strengths[k];
+            for (int i = 0; i < n; i++) {
+                if (i == k) {
+                    continue;
+                }
+                int[] fromI = strengths[i];
+                int viaK = fromI[k];
+                if (viaK == 0) {
+                    continue;
+                }
+                for (int j = 0; j < n; j++) {
+                    if (j != i && j != k) {
+                        int path = Math.min(viaK, fromK[j]);
+                        if (path > fromI[j]) {
+                            fromI[j] = path;
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] wins = new int[n];
+        boolean[] beaten = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j && strengths[i][j] > strengths[j][i]) {
+                    wins[i]++;
+                    beaten[j] = true;
+                }
+            }
+        }
+        List<String> winners = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (!beaten[i]) {
+                winners.add(candidates.get(i));
+            }
+        }
+
+        return new Result(new ArrayList<>(candidates), indexByCandidate, preferences, strengths, wins, winners);
+    }
+}
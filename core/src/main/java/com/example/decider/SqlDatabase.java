@@ -0,0 +1,31 @@
+package com.example.decider;
+
+import java.io.Closeable;
+import java.util.List;
+
+// Lớp mỏng trên một CSDL SQLite để SqlPollStore không phụ thuộc vào android.database:
+// trên máy dùng AndroidSqlDatabase, còn test JVM dùng bản JDBC với CSDL trong bộ nhớ.
+// Lỗi SQL được ném ra dưới dạng RuntimeException, nơi gọi tự bắt như phần lưu trữ còn lại.
+public interface SqlDatabase extends Closeable {
+    // Một dòng kết quả, cột đánh số từ 0 theo thứ tự trong câu SELECT
+    interface Row {
+        String getString(int column);
+        long getLong(int column);
+        boolean isNull(int column);
+    }
+
+    interface RowMapper<T> {
+        T map(Row row);
+    }
+
+    // Câu lệnh không trả dòng (CREATE, INSERT, UPDATE, DELETE); tham số có thể null
+    void execute(String sql, Object... args);
+
+    <T> List<T> query(String sql, RowMapper<T> mapper, Object... args);
+
+    // Chạy body trong một transaction; có thể lồng nhau, chỉ transaction ngoài cùng commit
+    void inTransaction(Runnable body);
+
+    @Override
+    void close();
+}
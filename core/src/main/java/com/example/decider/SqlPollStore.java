@@ -0,0 +1,550 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lưu poll, phiếu và mẫu trong SQLite thay vì JSON. Mỗi phiếu là một dòng trong bảng votes
+// (khoá poll_id + user_id), nên bầu hoặc bầu lại là một câu INSERT OR REPLACE, không phải ghi lại cả poll.
+// Số phiếu và điểm xếp hạng được đếm bằng GROUP BY trong SQLite thay vì duyệt phiếu trong Java.
+//
+// Thứ tự xếp hạng có điểm bằng nhau giữ theo vị trí option, giống TallyEngine, để kết quả
+// tính ở đây khớp với Poll.closePoll trên cùng tập phiếu.
+public class SqlPollStore implements PollRepository {
+    public static final String DATABASE_NAME = "decider.db";
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS polls ("
+                    + "id TEXT PRIMARY KEY, question TEXT NOT NULL, voting_mode TEXT NOT NULL, counting_method TEXT, "
+                    + "has_timer INTEGER NOT NULL, timer_minutes INTEGER NOT NULL, start_time INTEGER NOT NULL, "
+                    + "end_time INTEGER NOT NULL, is_active INTEGER NOT NULL, invite_code TEXT, results TEXT)",
+            // Mã mời không phân biệt hoa thường (PollCache.normalizeCode); chỉ mục cũ so từng byte
+            "DROP INDEX IF EXISTS polls_invite_code",
+            "CREATE INDEX IF NOT EXISTS polls_invite_code_nocase ON polls (invite_code COLLATE NOCASE)",
+            "CREATE INDEX IF NOT EXISTS polls_start_time ON polls (start_time)",
+            "CREATE TABLE IF NOT EXISTS options ("
+                    + "poll_id TEXT NOT NULL, position INTEGER NOT NULL, text TEXT, PRIMARY KEY (poll_id, position))",
+            // rankings NULL = phiếu chọn một; phiếu xếp hạng có thứ tự trong vote_ranks
+            "CREATE TABLE IF NOT EXISTS votes ("
+                    + "poll_id TEXT NOT NULL, user_id TEXT NOT NULL, single_choice TEXT, ranked INTEGER NOT NULL, "
+                    + "timestamp INTEGER NOT NULL, PRIMARY KEY (poll_id, user_id))",
+            "CREATE INDEX IF NOT EXISTS votes_user_id ON votes (user_id)",
+            "CREATE INDEX IF NOT EXISTS votes_choice ON votes (poll_id, single_choice)",
+            "CREATE TABLE IF NOT EXISTS vote_ranks ("
+                    + "poll_id TEXT NOT NULL, user_id TEXT NOT NULL, rank INTEGER NOT NULL, option TEXT, "
+                    + "PRIMARY KEY (poll_id, user_id, rank))",
+            "CREATE INDEX IF NOT EXISTS vote_ranks_option ON vote_ranks (poll_id, option)",
+            "CREATE TABLE IF NOT EXISTS templates ("
+                    + "id TEXT PRIMARY KEY, name TEXT, question TEXT, options TEXT, default_voting_mode TEXT, "
+                    + "has_default_timer INTEGER NOT NULL, default_timer_minutes INTEGER NOT NULL, "
+                    + "created_time INTEGER NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS templates_created_time ON templates (created_time)",
+            // Bản chụp current poll dạng JSON, tối đa một dòng
+            "CREATE TABLE IF NOT EXISTS current_poll (slot INTEGER PRIMARY KEY CHECK (slot = 0), json TEXT NOT NULL)"
+    };
+
+    private static final String POLL_COLUMNS = "id, question, voting_mode, counting_method, has_timer, timer_minutes, "
+            + "start_time, end_time, is_active, invite_code, results";
+    private static final String TEMPLATE_COLUMNS = "id, name, question, options, default_voting_mode, "
+            + "has_default_timer, default_timer_minutes, created_time";
+
+    // Số phiếu của từng option theo vị trí; option trùng tên cùng nhận số phiếu của tên đó như TallyEngine
+    private static final String CHOICE_TOTALS = "SELECT o.text, COUNT(v.user_id) AS total FROM options o "
+            + "LEFT JOIN votes v ON v.poll_id = o.poll_id AND v.single_choice = o.text "
+            + "WHERE o.poll_id = ? GROUP BY o.position";
+    // Điểm Borda: hạng i (từ 0) được số option - i điểm
+    private static final String SCORE_TOTALS = "SELECT o.text, COALESCE(SUM(n.size - r.rank), 0) AS total FROM options o "
+            + "CROSS JOIN (SELECT COUNT(*) AS size FROM options WHERE poll_id = ?) n "
+            + "LEFT JOIN vote_ranks r ON r.poll_id = o.poll_id AND r.option = o.text "
+            + "WHERE o.poll_id = ? GROUP BY o.position";
+
+    private static final Type STRING_LIST = new TypeToken<List<String>>() {}.getType();
+
+    private final SqlDatabase db;
+    private final Gson gson;
+    private final PollChangeBus changes;
+
+    public SqlPollStore(SqlDatabase db) {
+        this(db, new PollChangeBus());
+    }
+
+    public SqlPollStore(SqlDatabase db, PollChangeBus changes) {
+        this.db = db;
+        this.gson = PollGson.create();
+        this.changes = changes;
+        db.inTransaction(() -> {
+            for (String statement : SCHEMA) {
+                db.execute(statement);
+            }
+        });
+    }
+
+    // Lưu poll. Poll đã có trong bảng với cùng options chỉ ghi dòng polls và các phiếu mới hoặc
+    // bị thay thế kể từ lần lưu trước (Poll.takeChanges), mỗi phiếu một INSERT OR REPLACE như castVote.
+    // Poll mới, đã đổi options hoặc chưa từng được store này theo dõi thì ghi lại cả options và toàn bộ phiếu.
+    @Override
+    public synchronized void savePoll(Poll poll) {
+        try {
+            if (poll == null || poll.getId() == null) {
+                return;
+            }
+            String id = poll.getId();
+            // Poll không đi qua store này (ví dụ đọc từ JSON) chưa ghi lại thay đổi nào, nên phải ghi cả poll
+            boolean tracked = poll.isTrackingChanges();
+            PollChange change = poll.takeChanges(); // lấy cả khi ghi lại toàn bộ, để thay đổi không dồn lại trong Poll
+            db.inTransaction(() -> {
+                boolean exists = longValue("SELECT COUNT(*) FROM polls WHERE id = ?", id) > 0;
+                List<String> options = poll.getOptions();
+                boolean sameOptions = exists && options.equals(
+                        db.query("SELECT text FROM options WHERE poll_id = ? ORDER BY position", row -> row.getString(0), id));
+
+                db.execute("INSERT OR REPLACE INTO polls (" + POLL_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        id, poll.getQuestion(), poll.getVotingMode().name(), poll.getCountingMethod().name(),
+                        poll.isHasTimer() ? 1 : 0, poll.getTimerMinutes(), poll.getStartTime(), poll.getEndTime(),
+                        poll.isActive() ? 1 : 0, poll.getInviteCode(), gson.toJson(poll.getResults()));
+
+                if (sameOptions && tracked) {
+                    if (change != null) {
+                        writeVotes(id, change.getAddedVotes());
+                        writeVotes(id, change.getReplacedVotes());
+                    }
+                    return;
+                }
+
+                db.execute("DELETE FROM options WHERE poll_id = ?", id);
+                for (int i = 0; i < options.size(); i++) {
+                    db.execute("INSERT INTO options (poll_id, position, text) VALUES (?, ?, ?)", id, i, options.get(i));
+                }
+
+                db.execute("DELETE FROM votes WHERE poll_id = ?", id);
+                db.execute("DELETE FROM vote_ranks WHERE poll_id = ?", id);
+                for (Map.Entry<String, Vote> entry : poll.getVotes().entrySet()) {
+                    writeVote(id, entry.getKey(), entry.getValue());
+                    writeRanks(id, entry.getKey(), entry.getValue());
+                }
+            });
+            changes.publish(change);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Bầu hoặc bầu lại: một INSERT OR REPLACE vào votes (kèm thứ hạng nếu là phiếu xếp hạng).
+    // Trả về false nếu poll không tồn tại hoặc đã kết thúc, giống Poll.addVote.
+    public synchronized boolean castVote(String pollId, String userId, Vote vote) {
+        try {
+            if (pollId == null || userId == null || vote == null) {
+                return false;
+            }
+            boolean[] accepted = new boolean[1];
+            db.inTransaction(() -> {
+                db.execute("INSERT OR REPLACE INTO votes (poll_id, user_id, single_choice, ranked, timestamp) "
+                                + "SELECT ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM polls WHERE id = ? AND is_active = 1)",
+                        pollId, userId, vote.getSingleChoice(), vote.getRankings() != null ? 1 : 0,
+                        vote.getTimestamp(), pollId);
+                accepted[0] = longValue("SELECT changes()") > 0;
+                if (accepted[0]) {
+                    replaceRanks(pollId, userId, vote);
+                }
+            });
+            return accepted[0];
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized List<Poll> getAllPolls() {
+        try {
+            return loadPolls("1 = 1");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public synchronized Poll getPollById(String id) {
+        try {
+            if (id == null) {
+                return null;
+            }
+            List<Poll> polls = loadPolls("id = ?", id);
+            return polls.isEmpty() ? null : polls.get(0);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Chỉ trả poll còn mở, giống RecordPollRepository.getPollByInviteCode
+    @Override
+    public synchronized Poll getPollByInviteCode(String inviteCode) {
+        try {
+            String code = PollCache.normalizeCode(inviteCode);
+            if (code == null) {
+                return null;
+            }
+            List<Poll> polls = loadPolls("invite_code = ? COLLATE NOCASE AND is_active = 1", code);
+            return polls.isEmpty() ? null : polls.get(0);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void deletePoll(String id) {
+        try {
+            if (id == null) {
+                return;
+            }
+            db.inTransaction(() -> {
+                db.execute("DELETE FROM vote_ranks WHERE poll_id = ?", id);
+                db.execute("DELETE FROM votes WHERE poll_id = ?", id);
+                db.execute("DELETE FROM options WHERE poll_id = ?", id);
+                db.execute("DELETE FROM polls WHERE id = ?", id);
+            });
+            changes.publish(PollChange.deleted(id));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Kết thúc poll và lưu kết quả. Chọn một và Borda được xếp hạng hoàn toàn bằng SQL;
+    // loại dần và Schulze cần cả lá phiếu nên đọc poll ra và đếm bằng Poll.closePoll.
+    public synchronized void closePoll(String id) {
+        try {
+            if (id == null) {
+                return;
+            }
+            List<String[]> modes = db.query("SELECT voting_mode, counting_method FROM polls WHERE id = ?",
+                    row -> new String[]{row.getString(0), row.getString(1)}, id);
+            if (modes.isEmpty()) {
+                return;
+            }
+            Poll.VotingMode mode = parseEnum(Poll.VotingMode.class, modes.get(0)[0], Poll.VotingMode.SINGLE_CHOICE);
+            Poll.CountingMethod method = parseEnum(Poll.CountingMethod.class, modes.get(0)[1], Poll.CountingMethod.BORDA);
+
+            List<String> results;
+            if (mode == Poll.VotingMode.SINGLE_CHOICE) {
+                results = rankByChoiceCount(id);
+            } else if (mode == Poll.VotingMode.RANKED_CHOICE && method == Poll.CountingMethod.BORDA) {
+                results = rankByScore(id);
+            } else {
+                Poll poll = getPollById(id);
+                poll.closePoll();
+                results = poll.getResults();
+            }
+            db.execute("UPDATE polls SET is_active = 0, "
+                            + "end_time = CASE WHEN end_time > 0 THEN end_time ELSE ? END, results = ? WHERE id = ?",
+                    System.currentTimeMillis(), gson.toJson(results), id);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Số phiếu chọn một của từng option, theo thứ tự options
+    public synchronized Map<String, Integer> getChoiceCounts(String pollId) {
+        return totals(CHOICE_TOTALS + " ORDER BY o.position", pollId);
+    }
+
+    // Điểm xếp hạng (Borda) của từng option, theo thứ tự options
+    public synchronized Map<String, Integer> getRankedScores(String pollId) {
+        return totals(SCORE_TOTALS + " ORDER BY o.position", pollId, pollId);
+    }
+
+    public synchronized List<String> rankByChoiceCount(String pollId) {
+        return ranking(CHOICE_TOTALS + " ORDER BY total DESC, o.position", pollId);
+    }
+
+    public synchronized List<String> rankByScore(String pollId) {
+        return ranking(SCORE_TOTALS + " ORDER BY total DESC, o.position", pollId, pollId);
+    }
+
+    public synchronized int getSingleChoiceVoterCount(String pollId) {
+        try {
+            return (int) longValue("SELECT COUNT(*) FROM votes WHERE poll_id = ? AND single_choice IS NOT NULL", pollId);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    public synchronized int getRankedVoterCount(String pollId) {
+        try {
+            return (int) longValue("SELECT COUNT(*) FROM votes WHERE poll_id = ? AND ranked = 1", pollId);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    @Override
+    public PollChangeBus changes() {
+        return changes;
+    }
+
+    // Mỗi câu lệnh đã được ghi ngay khi chạy, không có gì đang chờ
+    @Override
+    public void flush() {
+    }
+
+    // Current poll management
+    @Override
+    public synchronized void setCurrentPoll(Poll poll) {
+        try {
+            if (poll == null) {
+                clearCurrentPoll();
+                return;
+            }
+            db.execute("INSERT OR REPLACE INTO current_poll (slot, json) VALUES (0, ?)", gson.toJson(poll));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized Poll getCurrentPoll() {
+        try {
+            List<String> json = db.query("SELECT json FROM current_poll WHERE slot = 0", row -> row.getString(0));
+            return json.isEmpty() ? null : gson.fromJson(json.get(0), Poll.class);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void clearCurrentPoll() {
+        try {
+            db.execute("DELETE FROM current_poll");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Template management
+    @Override
+    public synchronized void saveTemplate(PollTemplate template) {
+        try {
+            if (template == null || template.getId() == null) {
+                return;
+            }
+            Poll.VotingMode mode = template.getDefaultVotingMode();
+            db.execute("INSERT OR REPLACE INTO templates (" + TEMPLATE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    template.getId(), template.getName(), template.getQuestion(), gson.toJson(template.getOptions()),
+                    mode != null ? mode.name() : null, template.isHasDefaultTimer() ? 1 : 0,
+                    template.getDefaultTimerMinutes(), template.getCreatedTime());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized List<PollTemplate> getAllTemplates() {
+        try {
+            return db.query("SELECT " + TEMPLATE_COLUMNS + " FROM templates ORDER BY created_time, id", this::readTemplate);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public synchronized PollTemplate getTemplateById(String id) {
+        try {
+            if (id == null) {
+                return null;
+            }
+            List<PollTemplate> templates = db.query("SELECT " + TEMPLATE_COLUMNS + " FROM templates WHERE id = ?",
+                    this::readTemplate, id);
+            return templates.isEmpty() ? null : templates.get(0);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void deleteTemplate(String id) {
+        try {
+            if (id != null) {
+                db.execute("DELETE FROM templates WHERE id = ?", id);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized boolean hasTemplates() {
+        try {
+            return longValue("SELECT COUNT(*) FROM templates") > 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void clearAllData() {
+        try {
+            db.inTransaction(() -> {
+                db.execute("DELETE FROM vote_ranks");
+                db.execute("DELETE FROM votes");
+                db.execute("DELETE FROM options");
+                db.execute("DELETE FROM polls");
+                db.execute("DELETE FROM templates");
+                db.execute("DELETE FROM current_poll");
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized void close() {
+        try {
+            db.close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void writeVote(String pollId, String userId, Vote vote) {
+        db.execute("INSERT OR REPLACE INTO votes (poll_id, user_id, single_choice, ranked, timestamp) VALUES (?, ?, ?, ?, ?)",
+                pollId, userId, vote.getSingleChoice(), vote.getRankings() != null ? 1 : 0, vote.getTimestamp());
+    }
+
+    // Phiếu thêm hoặc thay thế: một INSERT OR REPLACE mỗi phiếu, thứ hạng cũ của người đó được thay
+    private void writeVotes(String pollId, Map<String, Vote> votes) {
+        for (Map.Entry<String, Vote> entry : votes.entrySet()) {
+            writeVote(pollId, entry.getKey(), entry.getValue());
+            replaceRanks(pollId, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void replaceRanks(String pollId, String userId, Vote vote) {
+        db.execute("DELETE FROM vote_ranks WHERE poll_id = ? AND user_id = ?", pollId, userId);
+        writeRanks(pollId, userId, vote);
+    }
+
+    private void writeRanks(String pollId, String userId, Vote vote) {
+        List<String> rankings = vote.getRankings();
+        if (rankings == null) {
+            return;
+        }
+        for (int i = 0; i < rankings.size(); i++) {
+            db.execute("INSERT INTO vote_ranks (poll_id, user_id, rank, option) VALUES (?, ?, ?, ?)",
+                    pollId, userId, i, rankings.get(i));
+        }
+    }
+
+    // Đọc các poll thoả điều kiện trên bảng polls, mỗi bảng con một câu truy vấn cho mọi poll
+    private List<Poll> loadPolls(String where, Object... args) {
+        String pollIds = "poll_id IN (SELECT id FROM polls WHERE " + where + ")";
+
+        Map<String, List<String>> optionsByPoll = new HashMap<>();
+        db.query("SELECT poll_id, text FROM options WHERE " + pollIds + " ORDER BY poll_id, position", row -> {
+            optionsByPoll.computeIfAbsent(row.getString(0), key -> new ArrayList<>()).add(row.getString(1));
+            return null;
+        }, args);
+
+        Map<String, Map<String, Vote>> votesByPoll = new HashMap<>();
+        db.query("SELECT poll_id, user_id, single_choice, ranked, timestamp FROM votes WHERE " + pollIds, row -> {
+            Vote vote = new Vote(row.getString(1));
+            vote.setSingleChoice(row.getString(2));
+            vote.setRankings(row.getLong(3) != 0 ? new ArrayList<>() : null);
+            vote.setTimestamp(row.getLong(4));
+            votesByPoll.computeIfAbsent(row.getString(0), key -> new HashMap<>()).put(vote.getUserId(), vote);
+            return null;
+        }, args);
+        db.query("SELECT poll_id, user_id, option FROM vote_ranks WHERE " + pollIds + " ORDER BY poll_id, user_id, rank",
+                row -> {
+                    Map<String, Vote> votes = votesByPoll.get(row.getString(0));
+                    Vote vote = votes != null ? votes.get(row.getString(1)) : null;
+                    if (vote != null && vote.getRankings() != null) {
+                        vote.getRankings().add(row.getString(2));
+                    }
+                    return null;
+                }, args);
+
+        return db.query("SELECT " + POLL_COLUMNS + " FROM polls WHERE " + where + " ORDER BY start_time, id", row -> {
+            String id = row.getString(0);
+            List<String> options = optionsByPoll.get(id);
+            Poll poll = new Poll(id, row.getString(1), options != null ? options : new ArrayList<>(),
+                    parseEnum(Poll.VotingMode.class, row.getString(2), Poll.VotingMode.SINGLE_CHOICE));
+            poll.setCountingMethod(row.isNull(3) ? null
+                    : parseEnum(Poll.CountingMethod.class, row.getString(3), Poll.CountingMethod.BORDA));
+            poll.setHasTimer(row.getLong(4) != 0);
+            poll.setTimerMinutes((int) row.getLong(5));
+            poll.setStartTime(row.getLong(6));
+            poll.setEndTime(row.getLong(7));
+            poll.setActive(row.getLong(8) != 0);
+            poll.setInviteCode(row.getString(9));
+            poll.setVotes(votesByPoll.get(id));
+            poll.setResults(row.isNull(10) ? null : gson.fromJson(row.getString(10), STRING_LIST));
+            poll.trackChanges();
+            return poll;
+        }, args);
+    }
+
+    private PollTemplate readTemplate(SqlDatabase.Row row) {
+        PollTemplate template = new PollTemplate();
+        template.setId(row.getString(0));
+        template.setName(row.getString(1));
+        template.setQuestion(row.getString(2));
+        List<String> options = row.isNull(3) ? null : gson.fromJson(row.getString(3), STRING_LIST);
+        template.setOptions(options != null ? options : new ArrayList<>());
+        template.setDefaultVotingMode(row.isNull(4) ? null
+                : parseEnum(Poll.VotingMode.class, row.getString(4), Poll.VotingMode.SINGLE_CHOICE));
+        template.setHasDefaultTimer(row.getLong(5) != 0);
+        template.setDefaultTimerMinutes((int) row.getLong(6));
+        template.setCreatedTime(row.getLong(7));
+        return template;
+    }
+
+    private Map<String, Integer> totals(String sql, Object... args) {
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        try {
+            db.query(sql, row -> {
+                if (!row.isNull(0)) {
+                    totals.put(row.getString(0), (int) row.getLong(1));
+                }
+                return null;
+            }, args);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return totals;
+    }
+
+    private List<String> ranking(String sql, Object... args) {
+        try {
+            return db.query(sql, row -> row.getString(0), args);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private long longValue(String sql, Object... args) {
+        List<Long> values = db.query(sql, row -> row.getLong(0), args);
+        return values.isEmpty() ? 0L : values.get(0);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, E fallback) {
+        try {
+            return name != null ? Enum.valueOf(type, name) : fallback;
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.decider;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+// Luồng ghi duy nhất cho toàn bộ dữ liệu lưu trữ của ứng dụng
+final class StorageExecutor {
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "poll-storage");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private StorageExecutor() {}
+
+    static ScheduledExecutorService get() {
+        return EXECUTOR;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bộ đếm phiếu dùng chỉ số nguyên cho từng option: mỗi phiếu được chuyển sang chỉ số một lần
+// khi ghi nhận, sau đó chỉ cộng/trừ trên các LongAdder theo chỉ số.
+// An toàn khi nhiều luồng cùng ghi phiếu: phiếu cũ của một user được trừ đúng một lần bởi
+// luồng đã thay thế nó. Các giá trị đọc trong lúc đang ghi có thể chưa nhất quán với nhau;
+// Poll.closePoll chặn ghi khi cần một ảnh chụp nhất quán.
+public class TallyEngine {
+    private static final int NO_OPTION = -1;
+    private static final int NOT_SINGLE_CHOICE = -2;
+
+    private final List<String> options;
+    private final Map<String, Integer> indexByOption = new HashMap<>();
+    private final List<String> optionBySlot = new ArrayList<>();
+    private final int[] slotByPosition; // vị trí trong options -> chỉ số (các option trùng tên dùng chung chỉ số)
+    private final LongAdder[] choiceCounts;
+    private final LongAdder[] rankedScores;
+    // pairwise[a * n + b] = số phiếu xếp a trên b (option không được xếp hạng đứng sau mọi option
+    // được xếp). Mỗi ô là một số nguyên tử nên các phiếu xếp hạng ghi song song mà không cần khóa.
+    private final AtomicIntegerArray pairwise;
+    private final int slotCount;
+    private final Map<String, Ballot> ballots = new ConcurrentHashMap<>();
+    private final LongAdder singleChoiceVoters = new LongAdder();
+    private final LongAdder rankedVoters = new LongAdder();
+    // Tăng sau mỗi lần phiếu được ghi/xóa, để kết quả tính từ toàn bộ phiếu được dùng lại khi tally chưa đổi
+    private final AtomicLong version = new AtomicLong();
+
+    // Phiếu đã được chuyển sang chỉ số option
+    private static final class Ballot {
+        final int choice; // NOT_SINGLE_CHOICE nếu phiếu không phải một lựa chọn
+        final int[] ranking; // null nếu phiếu không có xếp hạng (kể cả danh sách xếp hạng rỗng)
+        final int[] distinct; // các chỉ số trong ranking theo thứ tự, bỏ NO_OPTION và chỉ số lặp
+
+        Ballot(int choice, int[] ranking, int[] distinct) {
+            this.choice = choice;
+            this.ranking = ranking;
+            this.distinct = distinct;
+        }
+    }
+
+    public TallyEngine(List<String> options) {
+        this.options = options != null ? new ArrayList<>(options) : new ArrayList<>();
+        this.slotByPosition = new int[this.options.size()];
+        for (int i = 0; i < this.options.size(); i++) {
+            String option = this.options.get(i);
+            if (option == null) {
+                slotByPosition[i] = NO_OPTION;
+                continue;
+            }
+            Integer slot = indexByOption.get(option);
+            if (slot == null) {
+                slot = indexByOption.size();
+                indexByOption.put(option, slot);
+                optionBySlot.add(option);
+            }
+            slotByPosition[i] = slot;
+        }
+        this.choiceCounts = newAdders(indexByOption.size());
+        this.rankedScores = newAdders(indexByOption.size());
+        this.slotCount = indexByOption.size();
+        this.pairwise = new AtomicIntegerArray(slotCount * slotCount);
+    }
+
+    public int indexOf(String option) {
+        Integer slot = option != null ? indexByOption.get(option) : null;
+        return slot != null ? slot : NO_OPTION;
+    }
+
+    public int getOptionCount() {
+        return options.size();
+    }
+
+    // Ghi nhận (hoặc thay thế) phiếu của userId
+    public void recordVote(String userId, Vote vote) {
+        if (userId == null) {
+            return;
+        }
+        Ballot ballot = toBallot(vote);
+        Ballot previous = ballot != null ? ballots.put(userId, ballot) : ballots.remove(userId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (ballot != null) {
+            apply(ballot, 1);
+        }
+        version.incrementAndGet();
+    }
+
+    public void removeVote(String userId) {
+        Ballot previous = userId != null ? ballots.remove(userId) : null;
+        if (previous != null) {
+            apply(previous, -1);
+            version.incrementAndGet();
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int getChoiceCount(int index) {
+        return index >= 0 && index < choiceCounts.length ? (int) choiceCounts[index].sum() : 0;
+    }
+
+    public long getRankedScore(int index) {
+        return index >= 0 && index < rankedScores.length ? rankedScores[index].sum() : 0L;
+    }
+
+    public int getSingleChoiceVoters() {
+        return singleChoiceVoters.intValue();
+    }
+
+    public int getRankedVoters() {
+        return rankedVoters.intValue();
+    }
+
+    // Options sắp theo số phiếu giảm dần; giữ nguyên thứ tự ban đầu khi bằng nhau
+    public List<String> rankByChoiceCount() {
+        return rankBy(sums(choiceCounts));
+    }
+
+    // Options sắp theo điểm xếp hạng giảm dần; giữ nguyên thứ tự ban đầu khi bằng nhau
+    public List<String> rankByScore() {
+        return rankBy(sums(rankedScores));
+    }
+
+    // Đếm loại dần trên các phiếu xếp hạng hiện có
+    public InstantRunoffEngine.Result runInstantRunoff() {
+        InstantRunoffEngine engine = new InstantRunoffEngine(optionBySlot);
+        for (Ballot ballot : ballots.values()) {
+            engine.addBallot(ballot.ranking);
+        }
+        return engine.run();
+    }
+
+    // Options sắp theo kết quả loại dần: người thắng trước, rồi tới các option bị loại muộn hơn
+    public List<String> rankByRunoff(InstantRunoffEngine.Result result) {
+        return rankBy(result.standings());
+    }
+
+    // Xếp hạng Schulze từ ma trận cặp đã cộng dồn: O(n³) theo số option, không đọc lại phiếu
+    public SchulzeEngine.Result runSchulze() {
+        int n = slotCount;
+        int[][] snapshot = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                snapshot[i][j] = pairwise.get(i * n + j);
+            }
+        }
+        return SchulzeEngine.compute(optionBySlot, snapshot);
+    }
+
+    // Options sắp theo thứ tự Schulze; giữ nguyên thứ tự ban đầu khi hòa
+    public List<String> rankBySchulze(SchulzeEngine.Result result) {
+        return rankBy(result.standings());
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    private List<String> rankBy(long[] values) {
+        int n = options.size();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // Insertion sort ổn định, số option luôn nhỏ
+        for (int i = 1; i < n; i++) {
+            int position = order[i];
+            long value = valueAt(values, position);
+            int j = i - 1;
+            while (j >= 0 && valueAt(values, order[j]) < value) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = position;
+        }
+
+        List<String> ranked = new ArrayList<>(n);
+        for (int position : order) {
+            ranked.add(options.get(position));
+        }
+        return ranked;
+    }
+
+    private long valueAt(long[] values, int position) {
+        int slot = slotByPosition[position];
+        return slot != NO_OPTION ? values[slot] : 0L;
+    }
+
+    private Ballot toBallot(Vote vote) {
+        if (vote == null) {
+            return null;
+        }
+
+        int choice = vote.getSingleChoice() != null ? indexOf(vote.getSingleChoice()) : NOT_SINGLE_CHOICE;
+
+        int[] ranking = null;
+        int[] distinct = null;
+        List<String> rankings = vote.getRankings();
+        // Phiếu một lựa chọn vẫn mang danh sách xếp hạng rỗng (Vote() và phiếu giải mã từ JSON)
+        if (rankings != null && !rankings.isEmpty()) {
+            ranking = new int[rankings.size()];
+            for (int i = 0; i < ranking.length; i++) {
+                ranking[i] = indexOf(rankings.get(i));
+            }
+            distinct = distinctSlots(ranking);
+        }
+
+        return new Ballot(choice, ranking, distinct);
+    }
+
+    private void apply(Ballot ballot, int sign) {
+        if (ballot.choice != NOT_SINGLE_CHOICE) {
+            if (ballot.choice != NO_OPTION) {
+                choiceCounts[ballot.choice].add(sign);
+            }
+            singleChoiceVoters.add(sign);
+        }
+
+        if (ballot.ranking != null) {
+            int optionCount = options.size();
+            for (int i = 0; i < ballot.ranking.length; i++) {
+                int slot = ballot.ranking[i];
+                if (slot != NO_OPTION) {
+                    rankedScores[slot].add((long) sign * (optionCount - i)); // First place gets most points
+                }
+            }
+            rankedVoters.add(sign);
+            applyPairwise(ballot.distinct, sign);
+        }
+    }
+
+    // ranked là các chỉ số khác nhau theo thứ tự xếp hạng của phiếu
+    private void applyPairwise(int[] ranked, int sign) {
+        int n = slotCount;
+        for (int i = 0; i < ranked.length; i++) {
+            int row = ranked[i] * n;
+            // ranked[i] đứng trên mọi option chưa xuất hiện trước nó: cộng cả hàng rồi trừ lại
+            // các option đã đứng trước
+            for (int other = 0; other < n; other++) {
+                if (other != ranked[i]) {
+                    pairwise.addAndGet(row + other, sign);
+                }
+            }
+            for (int j = 0; j < i; j++) {
+                pairwise.addAndGet(row + ranked[j], -sign);
+            }
+        }
+    }
+
+    private static int[] distinctSlots(int[] ranking) {
+        int[] distinct = new int[ranking.length];
+        int size = 0;
+        for (int slot : ranking) {
+            if (slot == NO_OPTION) {
+                continue;
+            }
+            boolean repeated = false;
+            for (int j = 0; j < size && !repeated; j++) {
+                repeated = distinct[j] == slot;
+            }
+            if (!repeated) {
+                distinct[size++] = slot;
+            }
+        }
+        return size == distinct.length ? distinct : Arrays.copyOf(distinct, size);
+    }
+}
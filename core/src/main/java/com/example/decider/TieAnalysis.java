@@ -0,0 +1,56 @@
+package com.example.decider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+// Các option cùng đứng đầu theo cách tính điểm của poll, xem Poll.analyzeTies()
+public final class TieAnalysis {
+    static final TieAnalysis NONE = new TieAnalysis(Collections.emptyList(), 0L);
+
+    private final List<String> tiedOptions;
+    private final long topScore;
+
+    TieAnalysis(List<String> tiedOptions, long topScore) {
+        this.tiedOptions = Collections.unmodifiableList(new ArrayList<>(tiedOptions));
+        this.topScore = topScore;
+    }
+
+    // Tất cả option có điểm cao nhất, theo thứ tự trong kết quả
+    public List<String> getTiedOptions() {
+        return tiedOptions;
+    }
+
+    // Điểm của nhóm đứng đầu (số phiếu, điểm Borda, số phiếu vòng quyết định hoặc số cặp thắng)
+    public long getTopScore() {
+        return topScore;
+    }
+
+    public boolean isTied() {
+        return tiedOptions.size() > 1;
+    }
+
+    // Một lượt qua các option, đọc điểm đã có sẵn trong tally
+    static TieAnalysis atTop(List<String> options, ToLongFunction<String> score) {
+        List<String> tied = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        long top = Long.MIN_VALUE;
+        for (String option : options) {
+            if (option == null || !seen.add(option)) {
+                continue;
+            }
+            long value = score.applyAsLong(option);
+            if (value > top) {
+                top = value;
+                tied.clear();
+                tied.add(option);
+            } else if (value == top) {
+                tied.add(option);
+            }
+        }
+        return tied.isEmpty() ? NONE : new TieAnalysis(tied, top);
+    }
+}
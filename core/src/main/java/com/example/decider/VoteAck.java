@@ -0,0 +1,37 @@
+package com.example.decider;
+
+// Xác nhận cho một phiếu trong lô gửi qua PollTransport
+public class VoteAck {
+    public static final String REASON_NOT_FOUND = "not_found";
+    public static final String REASON_CLOSED = "closed";
+    public static final String REASON_INVALID = "invalid";
+    public static final String REASON_BUSY = "busy"; // hàng đợi của máy chủ đang đầy, gửi lại sau
+    // Máy chủ không xác nhận kịp hoặc lỗi giữa chừng: phiếu có thể vẫn được ghi sau đó.
+    // Gửi lại đúng phiếu này là an toàn, vì mỗi userId chỉ có một phiếu trong poll.
+    public static final String REASON_UNKNOWN = "unknown";
+    public static final String REASON_UNAUTHORIZED = "unauthorized"; // userId không phải người bầu máy chủ đã cấp cho thiết bị này
+
+    private String userId;
+    private boolean accepted;
+    private String reason; // null khi được chấp nhận
+
+    public VoteAck() {}
+
+    public VoteAck(String userId, boolean accepted, String reason) {
+        this.userId = userId;
+        this.accepted = accepted;
+        this.reason = reason;
+    }
+
+    public static VoteAck accepted(String userId) {
+        return new VoteAck(userId, true, null);
+    }
+
+    public static VoteAck rejected(String userId, String reason) {
+        return new VoteAck(userId, false, reason);
+    }
+
+    public String getUserId() { return userId; }
+    public boolean isAccepted() { return accepted; }
+    public String getReason() { return reason; }
+}
@@ -0,0 +1,309 @@
+package com.example.decider;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mã hóa Poll.votes theo cột để lưu gọn:
+// - option được tham chiếu bằng chỉ số nhỏ (vào options, rồi tới "dict" cho chuỗi lạ),
+// - lựa chọn và xếp hạng được đóng gói thành mảng byte/short (base64),
+// - timestamp lưu dạng delta (varint zigzag) sau khi sắp phiếu theo thời gian.
+public final class VoteCodec {
+    public static final String FIELD = "compactVotes";
+
+    private static final int VERSION = 1;
+    private static final String KEY_VERSION = "v";
+    private static final String KEY_DICT = "dict";
+    private static final String KEY_USERS = "users";
+    private static final String KEY_VOTE_USERS = "voteUsers";
+    private static final String KEY_WIDTH = "width";
+    private static final String KEY_CHOICES = "choices";
+    private static final String KEY_RANK_LENGTHS = "rankLengths";
+    private static final String KEY_RANKINGS = "rankings";
+    private static final String KEY_TIMESTAMPS = "timestamps";
+
+    private VoteCodec() {}
+
+    public static JsonObject encode(List<String> options, Map<String, Vote> votes) {
+        List<Map.Entry<String, Vote>> entries = new ArrayList<>();
+        if (votes != null) {
+            for (Map.Entry<String, Vote> entry : votes.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        // Sắp theo thời gian để delta timestamp nhỏ và luôn dương
+        entries.sort((a, b) -> Long.compare(a.getValue().getTimestamp(), b.getValue().getTimestamp()));
+
+        // Từ điển: các option trước, chuỗi không thuộc options được thêm vào sau
+        Map<String, Integer> indexByText = new HashMap<>();
+        List<String> dict = new ArrayList<>();
+        int dictSize = 0;
+        if (options != null) {
+            for (String option : options) {
+                if (option != null && !indexByText.containsKey(option)) {
+                    indexByText.put(option, dictSize);
+                }
+                dictSize++;
+            }
+        }
+
+        int[] choices = new int[entries.size()];
+        int[] rankLengths = new int[entries.size()];
+        List<int[]> rankings = new ArrayList<>(entries.size());
+        JsonArray users = new JsonArray();
+        JsonArray voteUsers = new JsonArray(); // cặp [vị trí, Vote.userId] khi khác key trong map
+        int maxValue = 0;
+        int totalRanked = 0;
+
+        for (int i = 0; i < entries.size(); i++) {
+            String userId = entries.get(i).getKey();
+            Vote vote = entries.get(i).getValue();
+            users.add(userId);
+            if (vote.getUserId() == null || !vote.getUserId().equals(userId)) {
+                JsonArray pair = new JsonArray();
+                pair.add(i);
+                pair.add(vote.getUserId());
+                voteUsers.add(pair);
+            }
+
+            // Giá trị 0 dành cho null, các chỉ số được lưu +1
+            if (vote.getSingleChoice() != null) {
+                choices[i] = indexFor(vote.getSingleChoice(), indexByText, dict, dictSize) + 1;
+            }
+
+            List<String> ranking = vote.getRankings();
+            if (ranking != null) {
+                int[] packed = new int[ranking.size()];
+                for (int j = 0; j < packed.length; j++) {
+                    String option = ranking.get(j);
+                    packed[j] = option != null ? indexFor(option, indexByText, dict, dictSize) + 1 : 0;
+                    maxValue = Math.max(maxValue, packed[j]);
+                }
+                rankings.add(packed);
+                rankLengths[i] = packed.length + 1;
+                totalRanked += packed.length;
+            } else {
+                rankings.add(null);
+            }
+            maxValue = Math.max(maxValue, Math.max(choices[i], rankLengths[i]));
+        }
+
+        int width = maxValue <= 0xFF ? 1 : maxValue <= 0xFFFF ? 2 : 4;
+        int[] flatRankings = new int[totalRanked];
+        int offset = 0;
+        for (int[] packed : rankings) {
+            if (packed != null) {
+                System.arraycopy(packed, 0, flatRankings, offset, packed.length);
+                offset += packed.length;
+            }
+        }
+
+        ByteArrayOutputStream timestamps = new ByteArrayOutputStream();
+        long previous = 0L;
+        for (Map.Entry<String, Vote> entry : entries) {
+            long timestamp = entry.getValue().getTimestamp();
+            writeVarLong(timestamps, timestamp - previous);
+            previous = timestamp;
+        }
+
+        JsonObject encoded = new JsonObject();
+        encoded.addProperty(KEY_VERSION, VERSION);
+        JsonArray dictJson = new JsonArray();
+        for (String text : dict) {
+            dictJson.add(text);
+        }
+        encoded.add(KEY_DICT, dictJson);
+        encoded.add(KEY_USERS, users);
+        if (voteUsers.size() > 0) {
+            encoded.add(KEY_VOTE_USERS, voteUsers);
+        }
+        encoded.addProperty(KEY_WIDTH, width);
+        encoded.addProperty(KEY_CHOICES, Base64Codec.encode(pack(choices, width)));
+        encoded.addProperty(KEY_RANK_LENGTHS, Base64Codec.encode(pack(rankLengths, width)));
+        encoded.addProperty(KEY_RANKINGS, Base64Codec.encode(pack(flatRankings, width)));
+        encoded.addProperty(KEY_TIMESTAMPS, Base64Codec.encode(timestamps.toByteArray()));
+        return encoded;
+    }
+
+    public static Map<String, Vote> decode(List<String> options, JsonObject encoded) {
+        Map<String, Vote> votes = new HashMap<>();
+        if (encoded == null || !encoded.has(KEY_USERS)) {
+            return votes;
+        }
+
+        List<String> dict = new ArrayList<>();
+        if (options != null) {
+            dict.addAll(options);
+        }
+        if (encoded.has(KEY_DICT)) {
+            for (JsonElement text : encoded.getAsJsonArray(KEY_DICT)) {
+                dict.add(text.isJsonNull() ? null : text.getAsString());
+            }
+        }
+
+        JsonArray users = encoded.getAsJsonArray(KEY_USERS);
+        Map<Integer, String> voteUsers = new HashMap<>();
+        if (encoded.has(KEY_VOTE_USERS)) {
+            for (JsonElement element : encoded.getAsJsonArray(KEY_VOTE_USERS)) {
+                JsonArray pair = element.getAsJsonArray();
+                voteUsers.put(pair.get(0).getAsInt(), pair.get(1).isJsonNull() ? null : pair.get(1).getAsString());
+            }
+        }
+        int width = encoded.get(KEY_WIDTH).getAsInt();
+        int[] choices = unpack(Base64Codec.decode(encoded.get(KEY_CHOICES).getAsString()), width);
+        int[] rankLengths = unpack(Base64Codec.decode(encoded.get(KEY_RANK_LENGTHS).getAsString()), width);
+        int[] rankings = unpack(Base64Codec.decode(encoded.get(KEY_RANKINGS).getAsString()), width);
+        byte[] timestamps = Base64Codec.decode(encoded.get(KEY_TIMESTAMPS).getAsString());
+
+        int rankingOffset = 0;
+        int[] timestampOffset = new int[1];
+        long timestamp = 0L;
+        for (int i = 0; i < users.size(); i++) {
+            String userId = users.get(i).getAsString();
+            Vote vote = new Vote(userId);
+            if (voteUsers.containsKey(i)) {
+                vote.setUserId(voteUsers.get(i));
+            }
+
+            if (choices[i] > 0) {
+                vote.setSingleChoice(dict.get(choices[i] - 1));
+            }
+
+            if (rankLengths[i] > 0) {
+                int length = rankLengths[i] - 1;
+                List<String> ranking = new ArrayList<>(length);
+                for (int j = 0; j < length; j++) {
+                    int value = rankings[rankingOffset++];
+                    ranking.add(value > 0 ? dict.get(value - 1) : null);
+                }
+                vote.setRankings(ranking);
+            } else {
+                vote.setRankings(null);
+            }
+
+            timestamp += readVarLong(timestamps, timestampOffset);
+            vote.setTimestamp(timestamp);
+            votes.put(userId, vote);
+        }
+        return votes;
+    }
+
+    private static int indexFor(String text, Map<String, Integer> indexByText, List<String> dict, int optionCount) {
+        Integer index = indexByText.get(text);
+        if (index == null) {
+            index = optionCount + dict.size();
+            dict.add(text);
+            indexByText.put(text, index);
+        }
+        return index;
+    }
+
+    private static byte[] pack(int[] values, int width) {
+        byte[] bytes = new byte[values.length * width];
+        int position = 0;
+        for (int value : values) {
+            for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) {
+                bytes[position++] = (byte) (value >>> shift);
+            }
+        }
+        return bytes;
+    }
+
+    private static int[] unpack(byte[] bytes, int width) {
+        int[] values = new int[bytes.length / width];
+        int position = 0;
+        for (int i = 0; i < values.length; i++) {
+            int value = 0;
+            for (int j = 0; j < width; j++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] offset) {
+        long zigzag = 0L;
+        int shift = 0;
+        while (true) {
+            byte b = bytes[offset[0]++];
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    // android.util.Base64 không chạy được trong unit test JVM, java.util.Base64 cần API 26
+    static final class Base64Codec {
+        private static final char[] ALPHABET =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+        private static final int[] VALUES = new int[128];
+
+        static {
+            for (int i = 0; i < VALUES.length; i++) {
+                VALUES[i] = -1;
+            }
+            for (int i = 0; i < ALPHABET.length; i++) {
+                VALUES[ALPHABET[i]] = i;
+            }
+        }
+
+        private Base64Codec() {}
+
+        static String encode(byte[] bytes) {
+            StringBuilder out = new StringBuilder((bytes.length + 2) / 3 * 4);
+            for (int i = 0; i < bytes.length; i += 3) {
+                int b0 = bytes[i] & 0xFF;
+                int b1 = i + 1 < bytes.length ? bytes[i + 1] & 0xFF : 0;
+                int b2 = i + 2 < bytes.length ? bytes[i + 2] & 0xFF : 0;
+                out.append(ALPHABET[b0 >>> 2]);
+                out.append(ALPHABET[((b0 & 0x03) << 4) | (b1 >>> 4)]);
+                out.append(i + 1 < bytes.length ? ALPHABET[((b1 & 0x0F) << 2) | (b2 >>> 6)] : '=');
+                out.append(i + 2 < bytes.length ? ALPHABET[b2 & 0x3F] : '=');
+            }
+            return out.toString();
+        }
+
+        static byte[] decode(String text) {
+            int padding = 0;
+            if (text.endsWith("==")) {
+                padding = 2;
+            } else if (text.endsWith("=")) {
+                padding = 1;
+            }
+            byte[] bytes = new byte[text.length() / 4 * 3 - padding];
+            int position = 0;
+            for (int i = 0; i < text.length(); i += 4) {
+                int c0 = VALUES[text.charAt(i)];
+                int c1 = VALUES[text.charAt(i + 1)];
+                int c2 = text.charAt(i + 2) == '=' ? 0 : VALUES[text.charAt(i + 2)];
+                int c3 = text.charAt(i + 3) == '=' ? 0 : VALUES[text.charAt(i + 3)];
+                int triple = (c0 << 18) | (c1 << 12) | (c2 << 6) | c3;
+                if (position < bytes.length) bytes[position++] = (byte) (triple >>> 16);
+                if (position < bytes.length) bytes[position++] = (byte) (triple >>> 8);
+                if (position < bytes.length) bytes[position++] = (byte) triple;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.decider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Số hiển thị trên màn hình kết quả cho từng option, đọc từ tally của poll thay vì duyệt phiếu:
+// số phiếu (một lựa chọn), điểm Borda, số phiếu ở vòng cuối (loại dần) hoặc số cặp thắng (Schulze).
+// ResultsAdapter dựng các hàng từ đây; VoteCountsBenchmark đo đúng phép tính này.
+public final class VoteCounts {
+    private static final VoteCounts EMPTY = new VoteCounts(new HashMap<>(), 0, null, null);
+
+    private final Map<String, Integer> counts;
+    private final int total;
+    private final InstantRunoffEngine.Result runoff; // chỉ có khi poll xếp hạng đếm loại dần
+    private final SchulzeEngine.Result schulze; // chỉ có khi poll xếp hạng đếm theo Schulze
+
+    private VoteCounts(Map<String, Integer> counts, int total, InstantRunoffEngine.Result runoff,
+                       SchulzeEngine.Result schulze) {
+        this.counts = counts;
+        this.total = total;
+        this.runoff = runoff;
+        this.schulze = schulze;
+    }
+
+    public static VoteCounts empty() {
+        return EMPTY;
+    }
+
+    // results chỉ dùng cho vòng quay: option thắng nhận một phiếu
+    public static VoteCounts of(Poll poll, List<String> results) {
+        if (poll == null || poll.getOptions() == null) {
+            return EMPTY;
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (String option : poll.getOptions()) {
+            if (option != null) {
+                counts.put(option, 0);
+            }
+        }
+
+        switch (poll.getVotingMode()) {
+            case SINGLE_CHOICE:
+                for (String option : poll.getOptions()) {
+                    if (option != null) {
+                        counts.put(option, poll.getChoiceCount(option));
+                    }
+                }
+                return new VoteCounts(counts, poll.getSingleChoiceVoterCount(), null, null);
+
+            case RANKED_CHOICE:
+                if (poll.getCountingMethod() == Poll.CountingMethod.INSTANT_RUNOFF) {
+                    // Số phiếu ở vòng cuối cùng mỗi option còn được tính
+                    InstantRunoffEngine.Result runoff = poll.getRunoffResult();
+                    for (String option : poll.getOptions()) {
+                        if (option != null) {
+                            counts.put(option, runoff.getLastCount(option));
+                        }
+                    }
+                    return new VoteCounts(counts, poll.getRankedVoterCount(), runoff, null);
+                }
+                if (poll.getCountingMethod() == Poll.CountingMethod.SCHULZE) {
+                    // Số option mỗi option thắng theo đường mạnh nhất
+                    SchulzeEngine.Result schulze = poll.getSchulzeResult();
+                    for (String option : poll.getOptions()) {
+                        if (option != null) {
+                            counts.put(option, schulze.getWins(option));
+                        }
+                    }
+                    return new VoteCounts(counts, Math.max(0, schulze.getCandidateCount() - 1), null, schulze);
+                }
+                // Borda: điểm xếp hạng
+                for (String option : poll.getOptions()) {
+                    if (option != null) {
+                        counts.put(option, poll.getRankedScore(option));
+                    }
+                }
+                return new VoteCounts(counts, poll.getRankedVoterCount(), null, null);
+
+            case RANDOM_SPINNER:
+            default:
+                // Option vòng quay chọn nhận toàn bộ phiếu
+                if (results != null && !results.isEmpty() && results.get(0) != null) {
+                    counts.put(results.get(0), 1);
+                    return new VoteCounts(counts, 1, null, null);
+                }
+                return new VoteCounts(counts, 0, null, null);
+        }
+    }
+
+    public int get(String option) {
+        Integer count = counts.get(option);
+        return count != null ? count : 0;
+    }
+
+    public Map<String, Integer> asMap() {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    // Mẫu số của phần trăm: số người bầu, hoặc số đối thủ với Schulze
+    public int getTotal() {
+        return total;
+    }
+
+    public InstantRunoffEngine.Result getRunoff() {
+        return runoff;
+    }
+
+    public SchulzeEngine.Result getSchulze() {
+        return schulze;
+    }
+}
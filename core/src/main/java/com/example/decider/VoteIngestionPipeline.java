@@ -0,0 +1,234 @@
+package com.example.decider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hàng đợi phiếu có giới hạn cho máy chủ poll: nhiều luồng (các kết nối) đẩy phiếu vào,
+// một luồng áp dụng lấy ra theo lô, gom theo poll và gọi delegate.submitVotes một lần cho mỗi poll
+// trong lô (LocalPollTransport kiểm tra phiếu theo options và lưu một lần cho cả lô).
+// Khi hàng đợi đầy, offer() trả về null và submitVotes() trả ack REASON_BUSY thay vì chặn mãi.
+public class VoteIngestionPipeline implements PollTransport {
+    static final int DEFAULT_CAPACITY = 4096;
+    static final int DEFAULT_MAX_BATCH = 512;
+    private static final long SUBMIT_TIMEOUT_MS = 2_000;
+    private static final long ACK_TIMEOUT_MS = 10_000; // chờ ack tối đa, kể cả khi lưu trữ đang chậm
+    private static final long CLOSE_JOIN_MS = 2_000;
+
+    private static final class Pending {
+        final String pollId;
+        final Vote vote;
+        final CompletableFuture<VoteAck> ack = new CompletableFuture<>();
+
+        Pending(String pollId, Vote vote) {
+            this.pollId = pollId;
+            this.vote = vote;
+        }
+    }
+
+    private final PollTransport delegate;
+    private final BlockingQueue<Pending> queue;
+    private final int capacity;
+    private final int maxBatch;
+    private final AtomicLong appliedVotes = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+    private volatile boolean running;
+    private Thread applyThread;
+
+    public VoteIngestionPipeline(PollTransport delegate) {
+        this(delegate, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH);
+    }
+
+    public VoteIngestionPipeline(PollTransport delegate, int capacity, int maxBatch) {
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        applyThread = new Thread(this::applyLoop, "vote-ingestion");
+        applyThread.setDaemon(true);
+        applyThread.start();
+    }
+
+    // Dừng luồng áp dụng; phiếu còn trong hàng đợi nhận ack REASON_BUSY
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = applyThread;
+            applyThread = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(CLOSE_JOIN_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        rejectQueued();
+    }
+
+    // Không chặn: null khi hàng đợi đầy
+    public CompletableFuture<VoteAck> offer(String pollId, Vote vote) {
+        Pending pending = new Pending(pollId, vote);
+        if (!running || !queue.offer(pending)) {
+            rejectedBusy.incrementAndGet();
+            return null;
+        }
+        rejectIfClosed();
+        return pending.ack;
+    }
+
+    // Chờ tối đa timeout để có chỗ trong hàng đợi; null nếu vẫn đầy
+    public CompletableFuture<VoteAck> submit(String pollId, Vote vote, long timeout, TimeUnit unit) throws InterruptedException {
+        Pending pending = new Pending(pollId, vote);
+        if (!running || !queue.offer(pending, timeout, unit)) {
+            rejectedBusy.incrementAndGet();
+            return null;
+        }
+        rejectIfClosed();
+        return pending.ack;
+    }
+
+    // close() có thể đã dọn hàng đợi ngay trước khi phiếu này vào, khi đó không còn ai lấy nó ra
+    private void rejectIfClosed() {
+        if (!running) {
+            rejectQueued();
+        }
+    }
+
+    private void rejectQueued() {
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Pending pending : left) {
+            pending.ack.complete(VoteAck.rejected(pending.vote.getUserId(), VoteAck.REASON_BUSY));
+        }
+    }
+
+    // Tín hiệu backpressure
+    public int getQueuedCount() { return queue.size(); }
+    public int getRemainingCapacity() { return queue.remainingCapacity(); }
+    public boolean isBackpressured() { return queue.size() >= capacity * 3 / 4; }
+
+    public long getAppliedVoteCount() { return appliedVotes.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getRejectedBusyCount() { return rejectedBusy.get(); }
+
+    @Override
+    public Poll findPollByInviteCode(String inviteCode) throws IOException {
+        return delegate.findPollByInviteCode(inviteCode);
+    }
+
+    @Override
+    public List<VoteAck> submitVotes(String pollId, List<Vote> votes) throws IOException {
+        List<CompletableFuture<VoteAck>> futures = new ArrayList<>(votes.size());
+        try {
+            for (Vote vote : votes) {
+                futures.add(vote != null ? submit(pollId, vote, SUBMIT_TIMEOUT_MS, TimeUnit.MILLISECONDS) : null);
+            }
+            List<VoteAck> acks = new ArrayList<>(votes.size());
+            for (int i = 0; i < votes.size(); i++) {
+                CompletableFuture<VoteAck> future = futures.get(i);
+                Vote vote = votes.get(i);
+                if (vote == null) {
+                    acks.add(VoteAck.rejected(null, VoteAck.REASON_INVALID));
+                } else if (future == null) {
+                    acks.add(VoteAck.rejected(vote.getUserId(), VoteAck.REASON_BUSY));
+                } else {
+                    // Phiếu đã vào hàng đợi: quá hạn chờ hoặc lô của nó lỗi thì không biết phiếu đã được
+                    // ghi hay chưa, nên chỉ phiếu đó nhận REASON_UNKNOWN; các phiếu khác giữ ack thật
+                    try {
+                        acks.add(future.get(ACK_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+                    } catch (TimeoutException | ExecutionException e) {
+                        acks.add(VoteAck.rejected(vote.getUserId(), VoteAck.REASON_UNKNOWN));
+                    }
+                }
+            }
+            return acks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private void applyLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, maxBatch - 1);
+                    applyBatch(batch);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    // Phiếu của lô bị ngắt giữa chừng vẫn phải có ack
+                    for (Pending pending : batch) {
+                        pending.ack.complete(VoteAck.rejected(pending.vote.getUserId(), VoteAck.REASON_BUSY));
+                    }
+                    batch.clear();
+                }
+            }
+        } finally {
+            // Không còn luồng nào lấy phiếu ra nữa
+            rejectQueued();
+        }
+    }
+
+    private void applyBatch(List<Pending> batch) {
+        // Gom theo poll, giữ thứ tự đến trong từng poll
+        Map<String, List<Pending>> byPoll = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            List<Pending> group = byPoll.get(pending.pollId);
+            if (group == null) {
+                group = new ArrayList<>();
+                byPoll.put(pending.pollId, group);
+            }
+            group.add(pending);
+        }
+
+        for (Map.Entry<String, List<Pending>> entry : byPoll.entrySet()) {
+            List<Pending> group = entry.getValue();
+            List<Vote> votes = new ArrayList<>(group.size());
+            for (Pending pending : group) {
+                votes.add(pending.vote);
+            }
+            try {
+                List<VoteAck> acks = delegate.submitVotes(entry.getKey(), votes);
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).ack.complete(i < acks.size() ? acks.get(i)
+                            : VoteAck.rejected(group.get(i).vote.getUserId(), VoteAck.REASON_INVALID));
+                }
+                for (VoteAck ack : acks) {
+                    if (ack.isAccepted()) {
+                        appliedVotes.incrementAndGet();
+                    }
+                }
+            } catch (Exception e) {
+                for (Pending pending : group) {
+                    pending.ack.completeExceptionally(e);
+                }
+            }
+        }
+        batches.incrementAndGet();
+    }
+}
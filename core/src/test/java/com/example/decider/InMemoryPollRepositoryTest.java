@@ -0,0 +1,8 @@
+package com.example.decider;
+
+public class InMemoryPollRepositoryTest extends PollRepositoryContract {
+    @Override
+    protected PollRepository createRepository() {
+        return new InMemoryPollRepository();
+    }
+}
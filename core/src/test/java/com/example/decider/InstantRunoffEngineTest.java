@@ -0,0 +1,163 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class InstantRunoffEngineTest {
+    @Test
+    public void redistributesEliminatedBallots() {
+        // Borda chọn B (thứ hai của mọi người), loại dần chọn A
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.INSTANT_RUNOFF);
+        addBallots(poll, 4, "A", "B", "C");
+        addBallots(poll, 3, "C", "B", "A");
+        addBallots(poll, 2, "B", "A", "C");
+        poll.closePoll();
+
+        assertEquals(Arrays.asList("A", "C", "B"), poll.getResults());
+
+        InstantRunoffEngine.Result result = poll.getRunoffResult();
+        assertEquals("A", result.getWinner());
+        assertEquals(2, result.getRounds().size());
+
+        InstantRunoffEngine.Round first = result.getRounds().get(0);
+        assertEquals(4, first.getCount("A"));
+        assertEquals(2, first.getCount("B"));
+        assertEquals(3, first.getCount("C"));
+        assertEquals("B", first.getEliminated());
+
+        InstantRunoffEngine.Round last = result.getFinalRound();
+        assertEquals(6, last.getCount("A"));
+        assertEquals(3, last.getCount("C"));
+        assertFalse(last.isActive("B"));
+        assertNull(last.getEliminated());
+        assertEquals(1, result.getEliminatedRound("B"));
+        assertEquals(0, result.getEliminatedRound("A"));
+        assertEquals(2, result.getLastCount("B"));
+    }
+
+    @Test
+    public void bordaStaysDefault() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        addBallots(poll, 4, "A", "B", "C");
+        addBallots(poll, 3, "C", "B", "A");
+        addBallots(poll, 2, "B", "A", "C");
+        poll.closePoll();
+
+        assertEquals(Poll.CountingMethod.BORDA, poll.getCountingMethod());
+        assertEquals("B", poll.getResults().get(0));
+    }
+
+    @Test
+    public void openPollRecountsOnlyWhenTallyChanges() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.INSTANT_RUNOFF);
+        addBallots(poll, 2, "A", "B", "C");
+        addBallots(poll, 1, "B", "A", "C");
+
+        InstantRunoffEngine.Result first = poll.getRunoffResult();
+        assertSame(first, poll.getRunoffResult());
+
+        poll.addVote("late", new Vote("late", Arrays.asList("C", "B", "A")));
+        InstantRunoffEngine.Result second = poll.getRunoffResult();
+        assertNotSame(first, second);
+        assertEquals(4, second.getRounds().get(0).getContinuing());
+        assertSame(second, poll.getRunoffResult());
+
+        poll.setCountingMethod(Poll.CountingMethod.SCHULZE);
+        SchulzeEngine.Result schulze = poll.getSchulzeResult();
+        assertSame(schulze, poll.getSchulzeResult());
+        poll.addVote("late", new Vote("late", Arrays.asList("A", "B", "C")));
+        assertNotSame(schulze, poll.getSchulzeResult());
+    }
+
+    @Test
+    public void exhaustedBallotsLeaveTheCount() {
+        InstantRunoffEngine engine = new InstantRunoffEngine(Arrays.asList("A", "B", "C"));
+        engine.addBallot(new int[]{0});
+        engine.addBallot(new int[]{0});
+        engine.addBallot(new int[]{1});
+        engine.addBallot(new int[]{1});
+        engine.addBallot(new int[]{2}); // chỉ chọn C, hết lựa chọn khi C bị loại
+        engine.addBallot(new int[]{-1, 2, 1});
+
+        InstantRunoffEngine.Result result = engine.run();
+        InstantRunoffEngine.Round second = result.getRounds().get(1);
+        assertEquals("C", result.getRounds().get(0).getEliminated());
+        assertEquals(1, second.getExhausted());
+        assertEquals(5, second.getContinuing());
+        assertEquals("B", result.getWinner());
+        assertEquals(3, second.getCount("B"));
+    }
+
+    @Test
+    public void roundTallyMatchesFullRecount() {
+        Random random = new Random(7);
+        List<int[]> ballots = randomBallots(random, 2_000, 8);
+        InstantRunoffEngine engine = new InstantRunoffEngine(names(8));
+        for (int[] ballot : ballots) {
+            engine.addBallot(ballot);
+        }
+        InstantRunoffEngine.Result result = engine.run();
+
+        // Đếm lại toàn bộ phiếu ở mỗi vòng và so với số phiếu đã chuyển theo thùng
+        boolean[] eliminated = new boolean[8];
+        for (InstantRunoffEngine.Round round : result.getRounds()) {
+            int[] counts = new int[8];
+            for (int[] ballot : ballots) {
+                for (int candidate : ballot) {
+                    if (!eliminated[candidate]) {
+                        counts[candidate]++;
+                        break;
+                    }
+                }
+            }
+            for (int c = 0; c < 8; c++) {
+                assertEquals(eliminated[c] ? -1 : counts[c], round.getCount("O" + c));
+            }
+            if (round.getEliminated() != null) {
+                eliminated[Integer.parseInt(round.getEliminated().substring(1))] = true;
+            }
+        }
+    }
+
+    private static List<int[]> randomBallots(Random random, int count, int optionCount) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < optionCount; i++) {
+            order.add(i);
+        }
+        List<int[]> ballots = new ArrayList<>(count);
+        for (int b = 0; b < count; b++) {
+            Collections.shuffle(order, random);
+            // Người bầu thường chỉ xếp hạng vài lựa chọn đầu
+            int[] ballot = new int[1 + random.nextInt(optionCount)];
+            for (int i = 0; i < ballot.length; i++) {
+                ballot[i] = order.get(i);
+            }
+            ballots.add(ballot);
+        }
+        return ballots;
+    }
+
+    private static List<String> names(int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add("O" + i);
+        }
+        return names;
+    }
+
+    private static void addBallots(Poll poll, int count, String... ranking) {
+        for (int i = 0; i < count; i++) {
+            String userId = "u" + poll.getVotes().size();
+            poll.addVote(userId, new Vote(userId, Arrays.asList(ranking)));
+        }
+    }
+}
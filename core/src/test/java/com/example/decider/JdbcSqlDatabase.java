@@ -0,0 +1,128 @@
+package com.example.decider;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// SqlDatabase trên sqlite-jdbc, để chạy SqlPollStore trên JVM với CSDL trong bộ nhớ
+public class JdbcSqlDatabase implements SqlDatabase {
+    private final Connection connection;
+    private int transactionDepth;
+
+    public JdbcSqlDatabase(String url) {
+        try {
+            connection = DriverManager.getConnection(url);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static JdbcSqlDatabase inMemory() {
+        return new JdbcSqlDatabase("jdbc:sqlite::memory:");
+    }
+
+    @Override
+    public synchronized void execute(String sql, Object... args) {
+        try (PreparedStatement statement = prepare(sql, args)) {
+            statement.execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public synchronized <T> List<T> query(String sql, RowMapper<T> mapper, Object... args) {
+        List<T> rows = new ArrayList<>();
+        try (PreparedStatement statement = prepare(sql, args); ResultSet result = statement.executeQuery()) {
+            Row row = new ResultRow(result);
+            while (result.next()) {
+                rows.add(mapper.map(row));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized void inTransaction(Runnable body) {
+        try {
+            if (transactionDepth++ == 0) {
+                connection.setAutoCommit(false);
+            }
+            boolean success = false;
+            try {
+                body.run();
+                success = true;
+            } finally {
+                if (--transactionDepth == 0) {
+                    if (success) {
+                        connection.commit();
+                    } else {
+                        connection.rollback();
+                    }
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private PreparedStatement prepare(String sql, Object[] args) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < args.length; i++) {
+            statement.setObject(i + 1, args[i]);
+        }
+        return statement;
+    }
+
+    private static final class ResultRow implements Row {
+        private final ResultSet result;
+
+        ResultRow(ResultSet result) {
+            this.result = result;
+        }
+
+        @Override
+        public String getString(int column) {
+            try {
+                return result.getString(column + 1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public long getLong(int column) {
+            try {
+                return result.getLong(column + 1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            try {
+                result.getObject(column + 1);
+                return result.wasNull();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.decider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// KeyValueStore trong bộ nhớ thay cho SharedPreferences khi chạy test JVM
+public class MapKeyValueStore implements KeyValueStore {
+    private final Map<String, String> values = new HashMap<>();
+
+    @Override
+    public synchronized String getString(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public synchronized void putString(String key, String value) {
+        values.put(key, value);
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        values.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        values.clear();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        Random random = new Random(25);
+        for (int i = 0; i < values.length; i++) {
+            // Phân bố lệch như độ trễ thật: phần lớn nhanh, đuôi dài tới vài giây
+            values[i] = (long) Math.exp(random.nextDouble() * 22);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percent : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percent / 100 * values.length) - 1];
+            long estimate = histogram.getValueAtPercentile(percent);
+            assertTrue(percent + ": " + estimate + " < " + exact, estimate >= exact);
+            assertTrue(percent + ": " + estimate + " vs " + exact, estimate <= exact + exact / 32 + 1);
+        }
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void bucketsCoverTheWholeRange() {
+        long[] samples = {0, 1, 63, 64, 65, 127, 128, 1_000_000_007L, Long.MAX_VALUE >>> 1, Long.MAX_VALUE};
+        int previous = -1;
+        for (long value : samples) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= previous);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value);
+            previous = index;
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5); // đồng hồ lùi: tính là 0
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void timersTraceAndReport() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        List<String> sections = new ArrayList<>();
+        registry.setTracer(new MetricsRegistry.Tracer() {
+            @Override
+            public void beginSection(String name) {
+                sections.add("begin " + name);
+            }
+
+            @Override
+            public void endSection() {
+                sections.add("end");
+            }
+        });
+
+        MetricsRegistry.Timer timer = registry.timer("storage.savePoll");
+        assertSame(timer, registry.timer("storage.savePoll"));
+        for (int i = 0; i < 3; i++) {
+            long started = timer.start();
+            Thread.sleep(2);
+            timer.stop(started);
+        }
+        registry.counter("storage.eventsLogged").add(5);
+        registry.histogram("record.bytes").record(4_096);
+
+        assertEquals(Arrays.asList("begin storage.savePoll", "end", "begin storage.savePoll", "end",
+                "begin storage.savePoll", "end"), sections);
+        assertEquals(3, timer.getHistogram().getCount());
+        assertTrue(timer.getHistogram().getValueAtPercentile(50) >= 2_000_000L);
+
+        StringWriter out = new StringWriter();
+        registry.dump(out);
+        String dump = out.toString();
+        assertTrue(dump, dump.contains("storage.savePoll"));
+        assertTrue(dump, dump.matches("(?s).*record\\.bytes\\s+1\\s+4096\\s+4096\\s+4096.*"));
+        assertTrue(dump, dump.matches("(?s).*storage\\.eventsLogged\\s+5.*"));
+
+        registry.reset();
+        assertEquals(0, timer.getHistogram().getCount());
+        assertEquals(0, registry.counter("storage.eventsLogged").get());
+        assertSame(timer, registry.timer("storage.savePoll"));
+    }
+}
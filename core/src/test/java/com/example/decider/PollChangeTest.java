@@ -0,0 +1,87 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PollChangeTest {
+
+    @Test
+    public void takeChangesSplitsAddedAndReplacedVotes() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        poll.trackChanges();
+        poll.addVote("u1", new Vote("u1", "A"));
+        assertNotNull(poll.takeChanges());
+
+        poll.addVote("u2", new Vote("u2", "A"));
+        poll.addVote("u2", new Vote("u2", "B")); // vẫn là phiếu mới vì chưa được phát
+        poll.addVote("u1", new Vote("u1", "B"));
+        PollChange change = poll.takeChanges();
+
+        assertEquals("poll_1", change.getPollId());
+        assertEquals("B", change.getAddedVotes().get("u2").getSingleChoice());
+        assertEquals(1, change.getAddedVotes().size());
+        assertEquals("B", change.getReplacedVotes().get("u1").getSingleChoice());
+        assertFalse(change.isClosed());
+        assertNull(poll.takeChanges());
+
+        poll.closePoll();
+        assertTrue(poll.takeChanges().isClosed());
+        poll.closePoll();
+        assertNull(poll.takeChanges());
+    }
+
+    @Test
+    public void pollOutsideARepositoryKeepsNoChanges() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        for (int i = 0; i < 1_000; i++) {
+            poll.addVote("u" + i, new Vote("u" + i, "A"));
+        }
+        poll.closePoll();
+        poll.overrideResults(Arrays.asList("B", "A"));
+
+        // Lần lấy đầu chỉ bắt đầu ghi lại; những gì xảy ra trước đó không được giữ
+        assertNull(poll.takeChanges());
+        poll.addVote("late", new Vote("late", "B"));
+        poll.overrideResults(Arrays.asList("A", "B"));
+        assertEquals(Arrays.asList("A", "B"), poll.takeChanges().getOverriddenResults());
+    }
+
+    @Test
+    public void applyChangeUpdatesAnotherCopyOnce() {
+        Poll source = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        Poll copy = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        source.trackChanges();
+        copy.trackChanges();
+        source.addVote("u1", new Vote("u1", "A"));
+        source.addVote("u2", new Vote("u2", "B"));
+        PollChange change = source.takeChanges();
+
+        assertTrue(copy.applyChange(change));
+        assertFalse(copy.applyChange(change));
+        assertFalse(source.applyChange(change));
+        assertEquals(1, copy.getChoiceCount("A"));
+        assertEquals(1, copy.getChoiceCount("B"));
+        assertNull(copy.takeChanges());
+    }
+
+    @Test
+    public void busDeliversOnlyToSubscribersOfThatPoll() {
+        PollChangeBus bus = new PollChangeBus();
+        List<PollChange> received = new ArrayList<>();
+        PollChangeBus.Listener listener = received::add;
+        bus.subscribe("poll_1", listener);
+
+        bus.publish(PollChange.deleted("poll_2"));
+        bus.publish(PollChange.deleted("poll_1"));
+        bus.unsubscribe("poll_1", listener);
+        bus.publish(PollChange.deleted("poll_1"));
+
+        assertEquals(1, received.size());
+        assertTrue(received.get(0).isDeleted());
+    }
+}
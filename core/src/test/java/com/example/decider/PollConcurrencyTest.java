@@ -0,0 +1,187 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PollConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int VOTES_PER_THREAD = 5_000;
+    private static final int SHARED_USERS = 100;
+    private static final List<String> OPTIONS = Arrays.asList("A", "B", "C", "D", "E");
+
+    @Test
+    public void concurrentAddVoteNeverLosesOrDoubleCountsVotes() throws Exception {
+        Poll poll = new Poll("poll_1", "Q", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < VOTES_PER_THREAD; i++) {
+                    String option = OPTIONS.get((thread + i) % OPTIONS.size());
+                    poll.addVote("t" + thread + "_" + i, new Vote("t" + thread + "_" + i, option));
+                    // Nhiều luồng cùng thay phiếu của một nhóm user nhỏ
+                    String shared = "shared_" + (i % SHARED_USERS);
+                    poll.addVote(shared, new Vote(shared, option));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : done) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(THREADS * VOTES_PER_THREAD + SHARED_USERS, poll.getVotes().size());
+        assertCountsMatchVotes(poll);
+    }
+
+    @Test
+    public void closePollTakesConsistentSnapshotWhileVotesArrive() throws Exception {
+        Poll poll = new Poll("poll_1", "Q", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(THREADS);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            done.add(pool.submit(() -> {
+                started.countDown();
+                for (int i = 0; i < VOTES_PER_THREAD * 4; i++) {
+                    String userId = "t" + thread + "_" + i;
+                    if (poll.addVote(userId, new Vote(userId, OPTIONS.get((thread * 7 + i) % OPTIONS.size())))) {
+                        accepted.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        started.await();
+        while (accepted.get() < THREADS * 100) {
+            Thread.yield();
+        }
+        poll.closePoll();
+        List<String> results = poll.getResults();
+        int votesAtClose = poll.getVotes().size();
+        for (Future<?> future : done) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertFalse(poll.isActive());
+        assertTrue(rejected.get() > 0);
+        assertEquals(accepted.get(), votesAtClose);
+        assertEquals(votesAtClose, poll.getVotes().size());
+        assertCountsMatchVotes(poll);
+
+        // Kết quả tính lúc đóng khớp với số phiếu cuối cùng
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(poll.getChoiceCount(results.get(i - 1)) >= poll.getChoiceCount(results.get(i)));
+        }
+        assertEquals(votesAtClose, poll.getSingleChoiceVoterCount());
+    }
+
+    @Test
+    public void mixedSingleChoiceAndRankedVotersKeepPairwiseMatrixExact() throws Exception {
+        Poll poll = new Poll("poll_1", "Q", OPTIONS, Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.SCHULZE);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < VOTES_PER_THREAD; i++) {
+                    String userId = "t" + thread + "_" + i;
+                    if ((thread + i) % 2 == 0) {
+                        // Phiếu một lựa chọn mang danh sách xếp hạng rỗng như phiếu thật
+                        poll.addVote(userId, new Vote(userId, OPTIONS.get(i % OPTIONS.size())));
+                    } else {
+                        poll.addVote(userId, new Vote(userId, rotation(thread + i, 1 + i % OPTIONS.size())));
+                    }
+                    // Nhóm user nhỏ đổi qua lại giữa hai loại phiếu
+                    String shared = "shared_" + (i % SHARED_USERS);
+                    poll.addVote(shared, i % 3 == 0 ? new Vote(shared, OPTIONS.get(thread % OPTIONS.size()))
+                            : new Vote(shared, rotation(thread * 3 + i, OPTIONS.size())));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : done) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int ranked = 0;
+        int[][] expected = new int[OPTIONS.size()][OPTIONS.size()];
+        for (Vote vote : poll.getVotes().values()) {
+            List<String> ranking = vote.getRankings();
+            if (ranking == null || ranking.isEmpty()) {
+                continue;
+            }
+            ranked++;
+            for (int a = 0; a < OPTIONS.size(); a++) {
+                for (int b = 0; b < OPTIONS.size(); b++) {
+                    int ra = ranking.indexOf(OPTIONS.get(a));
+                    int rb = ranking.indexOf(OPTIONS.get(b));
+                    if (a != b && ra >= 0 && (rb < 0 || ra < rb)) {
+                        expected[a][b]++;
+                    }
+                }
+            }
+        }
+        assertEquals(ranked, poll.getRankedVoterCount());
+        assertEquals(poll.getVotes().size() - ranked, poll.getSingleChoiceVoterCount());
+        SchulzeEngine.Result result = poll.getSchulzeResult();
+        for (int a = 0; a < OPTIONS.size(); a++) {
+            for (int b = 0; b < OPTIONS.size(); b++) {
+                if (a != b) {
+                    assertEquals(expected[a][b], result.getPreference(OPTIONS.get(a), OPTIONS.get(b)));
+                }
+            }
+        }
+    }
+
+    private static List<String> rotation(int offset, int length) {
+        List<String> ranking = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            ranking.add(OPTIONS.get((offset + i) % OPTIONS.size()));
+        }
+        return ranking;
+    }
+
+    private static void assertCountsMatchVotes(Poll poll) {
+        Map<String, Integer> recount = new HashMap<>();
+        for (Vote vote : poll.getVotes().values()) {
+            recount.merge(vote.getSingleChoice(), 1, Integer::sum);
+        }
+        int total = 0;
+        for (String option : OPTIONS) {
+            assertEquals((int) recount.getOrDefault(option, 0), poll.getChoiceCount(option));
+            total += poll.getChoiceCount(option);
+        }
+        assertEquals(poll.getVotes().size(), total);
+        assertEquals(poll.getVotes().size(), poll.getSingleChoiceVoterCount());
+    }
+}
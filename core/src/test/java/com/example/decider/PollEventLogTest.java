@@ -0,0 +1,158 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class PollEventLogTest {
+    private File directory;
+    private Gson gson;
+    private PollEventLog log;
+    private PollRecordStore records;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("poll-events").toFile();
+        gson = PollGson.create();
+        log = new PollEventLog(directory, gson);
+        records = new PollRecordStore(directory, gson);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void replaysPollFromCreatedEvent() {
+        Poll poll = new Poll("poll_1", "Ăn gì?", Arrays.asList("Phở", "Bún", "Cơm"), Poll.VotingMode.SINGLE_CHOICE);
+        poll.takeChanges(); // RecordPollRepository.savePoll lấy thay đổi khi ghi sự kiện CREATED
+        log.append(poll, Collections.singletonList(PollEvent.created(poll)));
+
+        vote(poll, "u1", "Phở");
+        vote(poll, "u2", "Bún");
+        save(poll);
+        vote(poll, "u1", "Cơm"); // bầu lại
+        save(poll);
+        poll.closePoll();
+        save(poll);
+        poll.overrideResults(Arrays.asList("Bún", "Cơm", "Phở"));
+        save(poll);
+
+        Poll recovered = new PollEventLog(directory, gson).replay("poll_1", null);
+        assertNotNull(recovered);
+        assertEquals("Ăn gì?", recovered.getQuestion());
+        assertEquals("Cơm", recovered.getVotes().get("u1").getSingleChoice());
+        assertEquals(1, recovered.getChoiceCount("Cơm"));
+        assertFalse(recovered.isActive());
+        assertEquals(poll.getEndTime(), recovered.getEndTime());
+        assertEquals(Arrays.asList("Bún", "Cơm", "Phở"), recovered.getResults());
+        assertEquals(poll.getEventSeq(), recovered.getEventSeq());
+        assertNull(recovered.takeChanges());
+    }
+
+    @Test
+    public void snapshotPlusTailIsIdempotent() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        poll.takeChanges(); // RecordPollRepository.savePoll lấy thay đổi khi ghi sự kiện CREATED
+        log.append(poll, Collections.singletonList(PollEvent.created(poll)));
+        vote(poll, "u1", "A");
+        save(poll);
+
+        long snapshotSeq = poll.getEventSeq();
+        assertTrue(records.write(poll));
+        vote(poll, "u2", "B");
+        vote(poll, "u3", "B");
+        save(poll);
+
+        Poll first = log.replay("poll_1", records.read("poll_1"));
+        Poll second = log.replay("poll_1", records.read("poll_1"));
+        assertEquals(3, first.getVotes().size());
+        assertEquals(2, second.getChoiceCount("B"));
+        assertEquals(1, second.getChoiceCount("A"));
+        assertEquals(2, log.tailSize("poll_1"));
+
+        // Sau khi gộp, nhật ký chỉ còn các sự kiện mới hơn bản chụp
+        log.compact("poll_1", snapshotSeq);
+        Poll compacted = new PollEventLog(directory, gson).replay("poll_1", records.read("poll_1"));
+        assertEquals(3, compacted.getVotes().size());
+
+        assertTrue(records.write(poll));
+        log.compact("poll_1", poll.getEventSeq());
+        assertFalse(new File(directory, "poll_1.log").exists());
+        vote(poll, "u4", "A");
+        save(poll);
+        assertEquals(poll.getEventSeq(), log.getLastSeq("poll_1"));
+        assertEquals(4, log.replay("poll_1", records.read("poll_1")).getVotes().size());
+    }
+
+    @Test
+    public void dropsTornTailAndKeepsAppending() throws IOException {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        poll.takeChanges(); // RecordPollRepository.savePoll lấy thay đổi khi ghi sự kiện CREATED
+        log.append(poll, Collections.singletonList(PollEvent.created(poll)));
+        vote(poll, "u1", "A");
+        save(poll);
+
+        // Mô phỏng crash giữa lúc ghi một dòng
+        try (FileOutputStream out = new FileOutputStream(new File(directory, "poll_1.log"), true)) {
+            out.write("{\"seq\":3,\"type\":\"VOTE_CAST\",\"userId\":\"u2\",\"vo".getBytes(StandardCharsets.UTF_8));
+        }
+
+        PollEventLog reopened = new PollEventLog(directory, gson);
+        Poll recovered = reopened.replay("poll_1", null);
+        assertEquals(1, recovered.getVotes().size());
+
+        recovered.trackChanges(); // như RecordPollRepository với poll vừa phát lại
+        vote(recovered, "u3", "B");
+        reopened.append(recovered, PollEvent.fromChange(recovered.takeChanges(), recovered));
+        Poll again = new PollEventLog(directory, gson).replay("poll_1", null);
+        assertEquals(2, again.getVotes().size());
+        assertEquals(1, again.getChoiceCount("B"));
+    }
+
+    @Test
+    public void appendingAVoteIsASmallWrite() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.SINGLE_CHOICE);
+        for (int i = 0; i < 2_000; i++) {
+            poll.addVote("seed_" + i, new Vote("seed_" + i, "A"));
+        }
+        poll.takeChanges(); // RecordPollRepository.savePoll lấy thay đổi khi ghi sự kiện CREATED
+        log.append(poll, Collections.singletonList(PollEvent.created(poll)));
+        File file = new File(directory, "poll_1.log");
+        long before = file.length();
+
+        vote(poll, "u1", "B");
+        save(poll);
+
+        long appended = file.length() - before;
+        assertTrue(appended < 300);
+        assertTrue(appended * 50 < before);
+    }
+
+    private static void vote(Poll poll, String userId, String option) {
+        poll.addVote(userId, new Vote(userId, option));
+    }
+
+    private void save(Poll poll) {
+        assertTrue(log.append(poll, PollEvent.fromChange(poll.takeChanges(), poll)));
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.decider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// Hành vi chung mọi PollRepository phải có. Mỗi backend chạy được trên JVM có một lớp con
+// (tên kết thúc bằng Test) chỉ việc tạo repository.
+public abstract class PollRepositoryContract {
+    private static final List<String> OPTIONS = Arrays.asList("Phở", "Bún chả", "Cơm tấm");
+
+    protected PollRepository repository;
+
+    protected abstract PollRepository createRepository();
+
+    @Before
+    public void setUpRepository() {
+        repository = createRepository();
+    }
+
+    @After
+    public void tearDownRepository() {
+        repository.clearAllData();
+    }
+
+    @Test
+    public void savesAndReadsPollById() {
+        Poll poll = poll("poll_1", 1_000L);
+        poll.addVote("u1", new Vote("u1", "Phở"));
+        poll.addVote("u2", new Vote("u2", "Cơm tấm"));
+        repository.savePoll(poll);
+
+        Poll loaded = repository.getPollById("poll_1");
+        assertNotNull(loaded);
+        assertEquals("Ăn gì?", loaded.getQuestion());
+        assertEquals(OPTIONS, loaded.getOptions());
+        assertEquals(Poll.VotingMode.SINGLE_CHOICE, loaded.getVotingMode());
+        assertEquals(1_000L, loaded.getStartTime());
+        assertEquals(poll.getInviteCode(), loaded.getInviteCode());
+        assertEquals(new HashSet<>(Arrays.asList("u1", "u2")), loaded.getVotes().keySet());
+        assertEquals(1, loaded.getChoiceCount("Cơm tấm"));
+
+        assertNull(repository.getPollById("missing"));
+        assertNull(repository.getPollById(null));
+    }
+
+    @Test
+    public void savingAgainReplacesThePoll() {
+        Poll poll = poll("poll_1", 1_000L);
+        repository.savePoll(poll);
+
+        poll.addVote("u1", new Vote("u1", "Bún chả"));
+        poll.addVote("u2", new Vote("u2", "Bún chả"));
+        poll.closePoll();
+        repository.savePoll(poll);
+
+        Poll loaded = repository.getPollById("poll_1");
+        assertFalse(loaded.isActive());
+        assertEquals(2, loaded.getVotes().size());
+        assertEquals("Bún chả", loaded.getResults().get(0));
+        assertEquals(1, repository.getAllPolls().size());
+    }
+
+    @Test
+    public void findsOnlyOpenPollsByInviteCode() {
+        Poll open = poll("poll_open", 1_000L);
+        Poll closed = poll("poll_closed", 2_000L);
+        closed.closePoll();
+        repository.savePoll(open);
+        repository.savePoll(closed);
+
+        assertEquals("poll_open", repository.getPollByInviteCode(open.getInviteCode()).getId());
+        assertNull(repository.getPollByInviteCode(closed.getInviteCode()));
+        assertNull(repository.getPollByInviteCode("KHONGCO"));
+        assertNull(repository.getPollByInviteCode(null));
+    }
+
+    @Test
+    public void findsPollByInviteCodeIgnoringCase() {
+        Poll poll = poll("poll_1", 1_000L);
+        poll.setInviteCode("AB12CD");
+        repository.savePoll(poll);
+
+        assertEquals("poll_1", repository.getPollByInviteCode("ab12cd").getId());
+        assertEquals("poll_1", repository.getPollByInviteCode(" Ab12Cd ").getId());
+        assertNull(repository.getPollByInviteCode("ab12ce"));
+    }
+
+    @Test
+    public void listsPollsByStartTime() {
+        repository.savePoll(poll("poll_c", 3_000L));
+        repository.savePoll(poll("poll_a", 1_000L));
+        repository.savePoll(poll("poll_b", 2_000L));
+
+        List<String> ids = new ArrayList<>();
+        for (Poll poll : repository.getAllPolls()) {
+            ids.add(poll.getId());
+        }
+        assertEquals(Arrays.asList("poll_a", "poll_b", "poll_c"), ids);
+    }
+
+    @Test
+    public void deletesPolls() {
+        repository.savePoll(poll("poll_1", 1_000L));
+        repository.savePoll(poll("poll_2", 2_000L));
+
+        repository.deletePoll("poll_1");
+        repository.deletePoll("missing");
+        repository.deletePoll(null);
+        repository.flush();
+
+        assertNull(repository.getPollById("poll_1"));
+        assertEquals(1, repository.getAllPolls().size());
+    }
+
+    @Test
+    public void pagesSummariesNewestFirst() {
+        for (int i = 0; i < 5; i++) {
+            repository.savePoll(poll("poll_" + i, 1_000L * (i + 1)));
+        }
+
+        Page<PollSummary> first = repository.getPollSummaryPage(null, 2);
+        assertEquals(Arrays.asList("poll_4", "poll_3"), summaryIds(first));
+        assertTrue(first.hasMore());
+        Page<PollSummary> second = repository.getPollSummaryPage(first.getNext(), 2);
+        assertEquals(Arrays.asList("poll_2", "poll_1"), summaryIds(second));
+        Page<PollSummary> last = repository.getPollSummaryPage(second.getNext(), 2);
+        assertEquals(Collections.singletonList("poll_0"), summaryIds(last));
+        assertFalse(last.hasMore());
+        assertEquals(5, repository.getPollSummaries().size());
+    }
+
+    @Test
+    public void publishesChangesOnSaveAndDelete() {
+        Poll poll = poll("poll_1", 1_000L);
+        repository.savePoll(poll);
+        List<PollChange> received = new ArrayList<>();
+        repository.changes().subscribe("poll_1", received::add);
+
+        poll.addVote("u1", new Vote("u1", "Phở"));
+        repository.savePoll(poll);
+        repository.deletePoll("poll_1");
+
+        assertEquals(2, received.size());
+        assertEquals(Collections.singleton("u1"), received.get(0).getAddedVotes().keySet());
+        assertTrue(received.get(1).isDeleted());
+    }
+
+    @Test
+    public void keepsCurrentPollSnapshot() {
+        assertNull(repository.getCurrentPoll());
+
+        Poll poll = poll("poll_1", 1_000L);
+        repository.setCurrentPoll(poll);
+        poll.setQuestion("Đổi sau khi lưu");
+        assertEquals("Ăn gì?", repository.getCurrentPoll().getQuestion());
+
+        repository.setCurrentPoll(null);
+        assertNull(repository.getCurrentPoll());
+
+        repository.setCurrentPoll(poll);
+        repository.clearCurrentPoll();
+        assertNull(repository.getCurrentPoll());
+    }
+
+    @Test
+    public void savesReplacesAndDeletesTemplates() {
+        assertFalse(repository.hasTemplates());
+
+        PollTemplate lunch = new PollTemplate("Trưa", "Ăn gì?", OPTIONS);
+        PollTemplate dinner = new PollTemplate("Tối", "Ăn tối ở đâu?", Arrays.asList("Nhà", "Quán"));
+        repository.saveTemplate(lunch);
+        repository.saveTemplate(dinner);
+        lunch.setDefaultTimerMinutes(10);
+        repository.saveTemplate(lunch);
+
+        assertTrue(repository.hasTemplates());
+        assertEquals(2, repository.getAllTemplates().size());
+        PollTemplate loaded = repository.getTemplateById(lunch.getId());
+        assertEquals("Trưa", loaded.getName());
+        assertEquals(OPTIONS, loaded.getOptions());
+        assertEquals(10, loaded.getDefaultTimerMinutes());
+        assertNull(repository.getTemplateById(null));
+
+        repository.deleteTemplate(lunch.getId());
+        assertNull(repository.getTemplateById(lunch.getId()));
+        assertEquals(1, repository.getAllTemplates().size());
+    }
+
+    @Test
+    public void clearAllDataRemovesEverything() {
+        repository.savePoll(poll("poll_1", 1_000L));
+        repository.setCurrentPoll(poll("poll_2", 2_000L));
+        repository.saveTemplate(new PollTemplate("Trưa", "Ăn gì?", OPTIONS));
+
+        repository.clearAllData();
+
+        assertTrue(repository.getAllPolls().isEmpty());
+        assertNull(repository.getCurrentPoll());
+        assertFalse(repository.hasTemplates());
+    }
+
+    @Test
+    public void ignoresNullArguments() {
+        repository.savePoll(null);
+        repository.saveTemplate(null);
+        repository.deleteTemplate(null);
+
+        assertTrue(repository.getAllPolls().isEmpty());
+        assertTrue(repository.getAllTemplates().isEmpty());
+    }
+
+    private static List<String> summaryIds(Page<PollSummary> page) {
+        List<String> ids = new ArrayList<>();
+        for (PollSummary summary : page.getItems()) {
+            ids.add(summary.getId());
+        }
+        return ids;
+    }
+
+    private static Poll poll(String id, long startTime) {
+        Poll poll = new Poll(id, "Ăn gì?", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        poll.setStartTime(startTime);
+        return poll;
+    }
+}
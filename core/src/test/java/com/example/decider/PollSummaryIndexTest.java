@@ -0,0 +1,214 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PollSummaryIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void pagesNewestFirstWithoutGapsOrDuplicates() throws Exception {
+        Gson gson = PollGson.create();
+        PollRecordStore records = new PollRecordStore(folder.newFolder("polls"), gson);
+        File file = new File(folder.getRoot(), "summaries.json");
+        PollSummaryIndex index = new PollSummaryIndex(file, gson);
+        index.load(records);
+        for (int i = 0; i < 75; i++) {
+            Poll poll = new Poll("poll_" + i, "Q" + i, Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+            poll.setStartTime(1_000L + i / 3); // nhiều poll trùng thời gian để thử phân định theo id
+            records.write(poll);
+            index.put(poll);
+        }
+
+        List<PollSummary> all = collect(index, records);
+        assertEquals(75, all.size());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(ids.add(all.get(i).getId()));
+            if (i > 0) {
+                assertTrue(all.get(i - 1).getStartTime() >= all.get(i).getStartTime());
+            }
+        }
+
+        // Trang đầu đọc stream từ file khi chỉ mục chưa được nạp
+        index.saveIfDirty();
+        backdateRecords(records, file);
+        PollSummaryIndex reopened = new PollSummaryIndex(file, gson);
+        Page<PollSummary> first = reopened.page(records, null, 30);
+        assertEquals(30, first.getItems().size());
+        assertEquals(all.get(0).getId(), first.getItems().get(0).getId());
+        assertEquals(all.get(29).getId(), first.getItems().get(29).getId());
+        assertTrue(first.hasMore());
+        assertEquals(all.get(30).getId(), reopened.page(records, first.getNext(), 30).getItems().get(0).getId());
+    }
+
+    @Test
+    public void removeDropsPollFromPages() throws Exception {
+        Gson gson = PollGson.create();
+        PollRecordStore records = new PollRecordStore(folder.newFolder("polls"), gson);
+        PollSummaryIndex index = new PollSummaryIndex(new File(folder.getRoot(), "summaries.json"), gson);
+        index.load(records);
+        for (int i = 0; i < 5; i++) {
+            Poll poll = new Poll("poll_" + i, "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+            poll.setStartTime(i);
+            index.put(poll);
+        }
+        index.remove("poll_3");
+
+        List<PollSummary> all = collect(index, records);
+        assertEquals(4, all.size());
+        assertEquals("poll_4", all.get(0).getId());
+        assertEquals("poll_2", all.get(1).getId());
+    }
+
+    @Test
+    public void savesAppendChangesUntilTheLogOutgrowsTheIndex() throws Exception {
+        Gson gson = PollGson.create();
+        PollRecordStore records = new PollRecordStore(folder.newFolder("polls"), gson);
+        File file = new File(folder.getRoot(), "summaries.json");
+        File log = new File(file.getPath() + ".log");
+        PollSummaryIndex index = new PollSummaryIndex(file, gson);
+        index.load(records);
+        List<Poll> polls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Poll poll = new Poll("poll_" + i, "Q" + i, Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+            poll.setStartTime(i);
+            polls.add(poll);
+            records.write(poll);
+            index.put(poll);
+        }
+        index.saveIfDirty();
+        backdateRecords(records, file);
+        long snapshotLength = file.length();
+        assertFalse(log.exists());
+
+        // Mỗi lần lưu một phiếu chỉ nối một dòng, file chính giữ nguyên
+        Poll voted = polls.get(42);
+        voted.addVote("u1", new Vote("u1", "B"));
+        index.put(voted);
+        index.saveIfDirty();
+        records.delete("poll_7");
+        index.remove("poll_7");
+        index.saveIfDirty();
+        assertEquals(snapshotLength, file.length());
+        assertTrue(log.length() < snapshotLength / 20);
+
+        PollSummaryIndex reopened = new PollSummaryIndex(file, gson);
+        List<PollSummary> all = collect(reopened, records, polls, null);
+        assertEquals(99, all.size());
+        assertEquals(1, find(all, "poll_42").getVoteCount());
+        assertNull(find(all, "poll_7"));
+
+        // Nhật ký dài hơn chỉ mục thì được gộp vào file chính
+        boolean compacted = false;
+        for (int i = 0; i < 100; i++) {
+            voted.addVote("v" + i, new Vote("v" + i, "A"));
+            index.put(voted);
+            index.saveIfDirty();
+            compacted |= !log.exists();
+        }
+        assertTrue(compacted);
+        assertEquals(101, find(collect(new PollSummaryIndex(file, gson), records, polls, null), "poll_42").getVoteCount());
+    }
+
+    @Test
+    public void loadReconcilesIndexWithRecordFiles() throws Exception {
+        Gson gson = PollGson.create();
+        File directory = folder.newFolder("polls");
+        PollRecordStore records = new PollRecordStore(directory, gson);
+        File file = new File(folder.getRoot(), "summaries.json");
+        PollSummaryIndex index = new PollSummaryIndex(file, gson);
+        index.load(records);
+        List<Poll> polls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Poll poll = new Poll("poll_" + i, "Q" + i, Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+            poll.setStartTime(i);
+            polls.add(poll);
+            records.write(poll);
+            index.put(poll);
+        }
+        index.saveIfDirty();
+        backdateRecords(records, file);
+        long indexTime = file.lastModified();
+
+        // Crash giữa lúc ghi record và lúc ghi chỉ mục: record mới hơn chỉ mục
+        polls.get(1).addVote("u1", new Vote("u1", "A"));
+        records.write(polls.get(1));
+        Poll unindexed = new Poll("poll_9", "Q9", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        records.write(unindexed);
+        for (String id : Arrays.asList("poll_1", "poll_9")) {
+            assertTrue(new File(directory, id + ".json").setLastModified(indexTime + 2_000));
+        }
+        // Record bị xóa nhưng chỉ mục chưa kịp ghi; poll_3 chỉ còn ở nơi khác (nhật ký sự kiện)
+        records.delete("poll_2");
+        records.delete("poll_3");
+
+        PollSummaryIndex reopened = new PollSummaryIndex(file, gson);
+        List<PollSummary> all = collect(reopened, records, polls, Collections.singletonList("poll_3"));
+        assertEquals(Arrays.asList("poll_9", "poll_3", "poll_1", "poll_0"), ids(all));
+        assertEquals(1, find(all, "poll_1").getVoteCount());
+    }
+
+    private static List<PollSummary> collect(PollSummaryIndex index, PollRecordStore records, List<Poll> polls,
+                                             List<String> otherIds) {
+        List<String> others = otherIds != null ? otherIds : Collections.emptyList();
+        List<PollSummary> all = new ArrayList<>();
+        Page.Cursor cursor = null;
+        do {
+            Page<PollSummary> page = index.page(records, () -> others, cursor, 30);
+            all.addAll(page.getItems());
+            cursor = page.getNext();
+        } while (cursor != null);
+        return all;
+    }
+
+    // Record đã ghi trước chỉ mục; trong test cả hai được ghi trong cùng một mili giây
+    private static void backdateRecords(PollRecordStore records, File index) throws Exception {
+        for (String id : records.ids()) {
+            File record = new File(index.getParentFile(), "polls/" + PollRecordStore.encodeId(id) + ".json");
+            assertTrue(record.setLastModified(index.lastModified() - 2_000));
+        }
+    }
+
+    private static PollSummary find(List<PollSummary> summaries, String id) {
+        for (PollSummary summary : summaries) {
+            if (summary.getId().equals(id)) {
+                return summary;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> ids(List<PollSummary> summaries) {
+        List<String> ids = new ArrayList<>();
+        for (PollSummary summary : summaries) {
+            ids.add(summary.getId());
+        }
+        return ids;
+    }
+
+    private static List<PollSummary> collect(PollSummaryIndex index, PollRecordStore records) {
+        List<PollSummary> all = new ArrayList<>();
+        Page.Cursor cursor = null;
+        do {
+            Page<PollSummary> page = index.page(records, cursor, 30);
+            all.addAll(page.getItems());
+            cursor = page.getNext();
+        } while (cursor != null);
+        return all;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.decider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PollTransportTest {
+    private final AtomicInteger saves = new AtomicInteger();
+    private InMemoryPollRepository repository;
+    private ExecutorService storeExecutor;
+    private PollHostServer server;
+    private HttpPollTransport client;
+
+    @Before
+    public void setUp() throws Exception {
+        Poll poll = new Poll("poll_1", "Ăn gì?", Arrays.asList("Phở", "Bún chả"), Poll.VotingMode.SINGLE_CHOICE);
+        poll.setInviteCode("ABC123");
+        repository = new InMemoryPollRepository() {
+            @Override
+            public void savePoll(Poll saved) {
+                saves.incrementAndGet();
+                super.savePoll(saved);
+            }
+        };
+        repository.savePoll(poll);
+        saves.set(0);
+
+        storeExecutor = Executors.newSingleThreadExecutor();
+        LocalPollTransport local = new LocalPollTransport(repository, storeExecutor);
+
+        // Mọi thiết bị trong test đến từ loopback, nên nới giới hạn danh tính mỗi địa chỉ
+        server = new PollHostServer(local, InetAddress.getLoopbackAddress(), 0, 64);
+        server.start();
+        client = new HttpPollTransport("127.0.0.1:" + server.getPort(), "device_client");
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        storeExecutor.shutdownNow();
+    }
+
+    @Test
+    public void findsPollByInviteCodeOverHttp() throws Exception {
+        repository.getPollById("poll_1").addVote("secret_user", new Vote("secret_user", "Phở"));
+
+        Poll found = client.findPollByInviteCode("ABC123");
+        assertNotNull(found);
+        assertEquals("poll_1", found.getId());
+        assertEquals("Ăn gì?", found.getQuestion());
+        assertEquals(Arrays.asList("Phở", "Bún chả"), found.getOptions());
+        assertTrue(found.getVotes().isEmpty());
+        assertNotNull(client.getVoterId());
+        assertNotNull(client.getVoterToken());
+        assertNull(client.findPollByInviteCode("ZZZ999"));
+
+        // Phản hồi chỉ có số đếm tổng hợp, không lộ userId hay lá phiếu của ai
+        String response = rawRequest("GET /polls?inviteCode=ABC123 HTTP/1.1\r\n\r\n");
+        assertTrue(response, response.startsWith("HTTP/1.1 200"));
+        assertFalse(response, response.contains("secret_user"));
+        assertFalse(response, response.contains("\"votes\""));
+        assertTrue(response, response.contains("\"voterCount\":1"));
+        assertTrue(response, response.contains("\"Phở\":1"));
+    }
+
+    @Test
+    public void acknowledgesEachVoteInBatchAndSavesOnce() throws Exception {
+        client.findPollByInviteCode("ABC123");
+        String me = client.getVoterId();
+        List<VoteAck> acks = client.submitVotes("poll_1", Arrays.asList(
+                new Vote(me, "Không có"), new Vote(me, "Phở"), new Vote("u3", "Bún chả")));
+
+        assertEquals(3, acks.size());
+        assertFalse(acks.get(0).isAccepted());
+        assertEquals(VoteAck.REASON_INVALID, acks.get(0).getReason());
+        assertEquals(me, acks.get(1).getUserId());
+        assertTrue(acks.get(1).isAccepted());
+        assertEquals("u3", acks.get(2).getUserId());
+        assertEquals(VoteAck.REASON_UNAUTHORIZED, acks.get(2).getReason());
+        assertEquals(1, saves.get());
+        assertEquals(1, repository.getPollById("poll_1").getChoiceCount("Phở"));
+        assertEquals(0, repository.getPollById("poll_1").getChoiceCount("Bún chả"));
+    }
+
+    @Test
+    public void rejectsVotesForUnknownOrClosedPolls() throws Exception {
+        client.findPollByInviteCode("ABC123");
+        Vote vote = new Vote(client.getVoterId(), "Phở");
+        List<VoteAck> otherPoll = client.submitVotes("missing", Collections.singletonList(vote));
+        assertEquals(VoteAck.REASON_UNAUTHORIZED, otherPoll.get(0).getReason());
+
+        Poll poll = repository.getPollById("poll_1");
+        repository.deletePoll("poll_1");
+        List<VoteAck> unknown = client.submitVotes("poll_1", Collections.singletonList(vote));
+        assertEquals(VoteAck.REASON_NOT_FOUND, unknown.get(0).getReason());
+
+        poll.closePoll();
+        repository.savePoll(poll);
+        saves.set(0);
+        List<VoteAck> closed = client.submitVotes("poll_1", Collections.singletonList(vote));
+        assertEquals(VoteAck.REASON_CLOSED, closed.get(0).getReason());
+        assertNull(client.findPollByInviteCode("ABC123"));
+        assertEquals(0, saves.get());
+    }
+
+    @Test
+    public void votesAreBoundToTheTokenTheHostIssued() throws Exception {
+        HttpPollTransport alice = new HttpPollTransport("127.0.0.1:" + server.getPort(), "device_alice");
+        alice.findPollByInviteCode("ABC123");
+        assertTrue(alice.submitVotes("poll_1", Collections.singletonList(
+                new Vote(alice.getVoterId(), "Phở"))).get(0).isAccepted());
+
+        // Không có token, hoặc token của thiết bị khác: không ghi đè được phiếu của alice
+        List<VoteAck> anonymous = client.submitVotes("poll_1", Collections.singletonList(
+                new Vote(alice.getVoterId(), "Bún chả")));
+        assertEquals(VoteAck.REASON_UNAUTHORIZED, anonymous.get(0).getReason());
+
+        client.findPollByInviteCode("ABC123");
+        assertNotEquals(alice.getVoterId(), client.getVoterId());
+        List<VoteAck> impersonated = client.submitVotes("poll_1", Collections.singletonList(
+                new Vote(alice.getVoterId(), "Bún chả")));
+        assertEquals(VoteAck.REASON_UNAUTHORIZED, impersonated.get(0).getReason());
+
+        // Token được truyền sang transport mới (như từ JoinPollActivity sang VoteActivity)
+        HttpPollTransport aliceAgain = new HttpPollTransport("127.0.0.1:" + server.getPort(),
+                alice.getVoterId(), alice.getVoterToken());
+        assertTrue(aliceAgain.submitVotes("poll_1", Collections.singletonList(
+                new Vote(alice.getVoterId(), "Bún chả"))).get(0).isAccepted());
+
+        Poll poll = repository.getPollById("poll_1");
+        assertEquals(1, poll.getVotes().size());
+        assertEquals("Bún chả", poll.getVotes().get(alice.getVoterId()).getSingleChoice());
+    }
+
+    @Test
+    public void rankingsWithRepeatedOrMissingOptionsAreRejected() throws Exception {
+        Poll ranked = new Poll("poll_2", "Đi đâu?", Arrays.asList("Biển", "Núi", "Phố"), Poll.VotingMode.RANKED_CHOICE);
+        ranked.setInviteCode("RANK42");
+        repository.savePoll(ranked);
+        saves.set(0);
+
+        client.findPollByInviteCode("RANK42");
+        String me = client.getVoterId();
+        List<VoteAck> acks = client.submitVotes("poll_2", Arrays.asList(
+                new Vote(me, Arrays.asList("Biển", "Biển", "Biển")),
+                new Vote(me, Arrays.asList("Biển", "Núi", "Phố", "Biển")),
+                new Vote(me, Arrays.asList("Biển", null))));
+        for (VoteAck ack : acks) {
+            assertFalse(ack.isAccepted());
+            assertEquals(VoteAck.REASON_INVALID, ack.getReason());
+        }
+        assertEquals(0, saves.get());
+        assertEquals(0, repository.getPollById("poll_2").getRankedScore("Biển"));
+
+        assertTrue(client.submitVotes("poll_2", Collections.singletonList(
+                new Vote(me, Arrays.asList("Núi", "Biển")))).get(0).isAccepted());
+        assertEquals(3, repository.getPollById("poll_2").getRankedScore("Núi"));
+        assertEquals(2, repository.getPollById("poll_2").getRankedScore("Biển"));
+    }
+
+    @Test
+    public void eachDeviceGetsOneIdentityAndAddressesAreCapped() throws Exception {
+        PollHostServer strict = new PollHostServer(new LocalPollTransport(repository, storeExecutor),
+                InetAddress.getLoopbackAddress(), 0);
+        strict.start();
+        try {
+            String host = "127.0.0.1:" + strict.getPort();
+            HttpPollTransport device = new HttpPollTransport(host, "device_1");
+            device.findPollByInviteCode("ABC123");
+            HttpPollTransport sameDevice = new HttpPollTransport(host, "device_1");
+            sameDevice.findPollByInviteCode("ABC123");
+            // Tìm lại không cấp thêm danh tính
+            assertEquals(device.getVoterId(), sameDevice.getVoterId());
+            assertEquals(device.getVoterToken(), sameDevice.getVoterToken());
+
+            for (int i = 2; i <= PollHostServer.DEFAULT_VOTERS_PER_ADDRESS; i++) {
+                new HttpPollTransport(host, "device_" + i).findPollByInviteCode("ABC123");
+            }
+            try {
+                new HttpPollTransport(host, "device_extra").findPollByInviteCode("ABC123");
+                fail("Địa chỉ này đã hết danh tính cho poll");
+            } catch (IOException expected) {
+                // HTTP 429
+            }
+            // Danh tính đã cấp vẫn bầu được
+            assertTrue(device.submitVotes("poll_1", Collections.singletonList(
+                    new Vote(device.getVoterId(), "Phở"))).get(0).isAccepted());
+        } finally {
+            strict.close();
+        }
+    }
+
+    @Test
+    public void tooManyHeaderLinesGetAnErrorResponse() throws Exception {
+        StringBuilder request = new StringBuilder("GET /polls?inviteCode=ABC123 HTTP/1.1\r\n");
+        for (int i = 0; i < 100; i++) {
+            request.append("X-Filler-").append(i).append(": x\r\n");
+        }
+        request.append("\r\n");
+        assertTrue(rawRequest(request.toString()).startsWith("HTTP/1.1 431"));
+    }
+
+    @Test
+    public void badContentLengthGetsAnErrorResponse() throws Exception {
+        String post = "POST /polls/poll_1/votes HTTP/1.1\r\nContent-Length: ";
+        assertTrue(rawRequest(post + "abc\r\n\r\n").startsWith("HTTP/1.1 400"));
+        assertTrue(rawRequest(post + "-5\r\n\r\n").startsWith("HTTP/1.1 400"));
+        assertTrue(rawRequest(post + "99999999999\r\n\r\n").startsWith("HTTP/1.1 413"));
+        assertEquals(0, saves.get());
+    }
+
+    @Test
+    public void concurrentClientsAreAllCounted() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<List<VoteAck>>> results = new ArrayList<>();
+        for (int c = 0; c < 40; c++) {
+            int clientIndex = c;
+            results.add(clients.submit(() -> {
+                // Mỗi thiết bị tìm poll để nhận danh tính rồi gửi phiếu của mình
+                HttpPollTransport device = new HttpPollTransport("127.0.0.1:" + server.getPort(), "device_" + clientIndex);
+                device.findPollByInviteCode("ABC123");
+                return device.submitVotes("poll_1", Collections.singletonList(
+                        new Vote(device.getVoterId(), clientIndex % 2 == 0 ? "Phở" : "Bún chả")));
+            }));
+        }
+        for (Future<List<VoteAck>> result : results) {
+            for (VoteAck ack : result.get()) {
+                assertTrue(ack.isAccepted());
+            }
+        }
+        clients.shutdown();
+
+        Poll poll = repository.getPollById("poll_1");
+        assertEquals(40, poll.getVotes().size());
+        assertEquals(20, poll.getChoiceCount("Phở"));
+        assertTrue(saves.get() <= 40);
+    }
+
+    private String rawRequest(String request) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.setSoTimeout(5_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                response.write(buffer, 0, read);
+            }
+            return response.toString("UTF-8");
+        }
+    }
+}
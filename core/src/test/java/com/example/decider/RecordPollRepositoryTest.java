@@ -0,0 +1,55 @@
+package com.example.decider;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.*;
+
+// Backend mặc định của app: record JSON + nhật ký sự kiện trong một thư mục tạm
+public class RecordPollRepositoryTest extends PollRepositoryContract {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MapKeyValueStore prefs = new MapKeyValueStore();
+    private final ScheduledExecutorService writeExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @Override
+    protected PollRepository createRepository() {
+        return new RecordPollRepository(folder.getRoot(), prefs, writeExecutor);
+    }
+
+    @After
+    public void shutDownWriter() {
+        writeExecutor.shutdownNow();
+    }
+
+    @Test
+    public void reopenedRepositoryRecoversPollsFromRecordsAndEventLog() {
+        Poll poll = new Poll("poll_1", "Ăn gì?", Arrays.asList("Phở", "Xôi"), Poll.VotingMode.SINGLE_CHOICE);
+        repository.savePoll(poll);
+        repository.flush(); // bản chụp lúc tạo
+        poll.addVote("u1", new Vote("u1", "Xôi"));
+        repository.savePoll(poll); // chỉ nằm trong nhật ký sự kiện
+
+        Poll recovered = new RecordPollRepository(folder.getRoot(), prefs, writeExecutor).getPollById("poll_1");
+        assertNotNull(recovered);
+        assertEquals(1, recovered.getChoiceCount("Xôi"));
+    }
+
+    @Test
+    public void migratesLegacyPollBlob() {
+        Poll legacy = new Poll("poll_old", "Cũ", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        legacy.addVote("u1", new Vote("u1", "B"));
+        prefs.putString("polls", PollGson.create().toJson(Arrays.asList(legacy)));
+
+        PollRepository migrated = new RecordPollRepository(folder.getRoot(), prefs, writeExecutor);
+        assertEquals(1, migrated.getPollById("poll_old").getChoiceCount("B"));
+        assertNull(prefs.getString("polls"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SchulzeEngineTest {
+
+    @Test
+    public void ranksClassicExample() {
+        // Ví dụ 45 phiếu quen thuộc của phương pháp Schulze: E > A > C > B > D
+        Poll poll = schulzePoll("A", "B", "C", "D", "E");
+        addBallots(poll, 5, "A", "C", "B", "E", "D");
+        addBallots(poll, 5, "A", "D", "E", "C", "B");
+        addBallots(poll, 8, "B", "E", "D", "A", "C");
+        addBallots(poll, 3, "C", "A", "B", "E", "D");
+        addBallots(poll, 7, "C", "A", "E", "B", "D");
+        addBallots(poll, 2, "C", "B", "A", "D", "E");
+        addBallots(poll, 7, "D", "C", "E", "B", "A");
+        addBallots(poll, 8, "E", "B", "A", "D", "C");
+        poll.closePoll();
+
+        assertEquals(Arrays.asList("E", "A", "C", "B", "D"), poll.getResults());
+
+        SchulzeEngine.Result result = poll.getSchulzeResult();
+        assertEquals(Collections.singletonList("E"), result.getWinners());
+        assertEquals(20, result.getPreference("A", "B"));
+        assertEquals(25, result.getPreference("B", "A"));
+        assertEquals(28, result.getStrength("A", "B"));
+        assertTrue(result.beats("A", "B"));
+        assertFalse(poll.hasTiedResults());
+    }
+
+    @Test
+    public void reportsEveryOptionInACycleAsTied() {
+        Poll poll = schulzePoll("A", "B", "C", "D");
+        addBallots(poll, 1, "A", "B", "C", "D");
+        addBallots(poll, 1, "B", "C", "A", "D");
+        addBallots(poll, 1, "C", "A", "B", "D");
+        poll.closePoll();
+
+        SchulzeEngine.Result result = poll.getSchulzeResult();
+        assertEquals(Arrays.asList("A", "B", "C"), result.getWinners());
+        assertTrue(result.isTied());
+        assertTrue(poll.hasTiedResults());
+        assertEquals("D", poll.getResults().get(3));
+    }
+
+    @Test
+    public void unrankedOptionsLoseToRankedOnes() {
+        Poll poll = schulzePoll("A", "B", "C");
+        addBallots(poll, 2, "C");
+        addBallots(poll, 1, "A", "B");
+
+        SchulzeEngine.Result result = poll.getSchulzeResult();
+        assertEquals(2, result.getPreference("C", "A"));
+        assertEquals(1, result.getPreference("A", "B"));
+        assertEquals(0, result.getPreference("B", "A"));
+        assertEquals(Collections.singletonList("C"), result.getWinners());
+    }
+
+    @Test
+    public void replacedVotesKeepMatrixInSync() {
+        List<String> options = Arrays.asList("A", "B", "C", "D", "E", "F");
+        Random random = new Random(11);
+        Poll poll = schulzePoll(options.toArray(new String[0]));
+        for (int i = 0; i < 3_000; i++) {
+            // Nhiều user bầu lại, để phiếu cũ phải được trừ khỏi ma trận
+            String userId = "u" + random.nextInt(500);
+            List<String> ranking = new ArrayList<>(options);
+            Collections.shuffle(ranking, random);
+            poll.addVote(userId, new Vote(userId, ranking.subList(0, 1 + random.nextInt(options.size()))));
+        }
+
+        SchulzeEngine.Result incremental = poll.getSchulzeResult();
+        Poll rebuilt = schulzePoll(options.toArray(new String[0]));
+        rebuilt.setVotes(poll.getVotes());
+        SchulzeEngine.Result recounted = rebuilt.getSchulzeResult();
+        for (String a : options) {
+            for (String b : options) {
+                assertEquals(recounted.getPreference(a, b), incremental.getPreference(a, b));
+            }
+        }
+        assertEquals(recounted.getWinners(), incremental.getWinners());
+    }
+
+    private static Poll schulzePoll(String... options) {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList(options), Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.SCHULZE);
+        return poll;
+    }
+
+    private static void addBallots(Poll poll, int count, String... ranking) {
+        for (int i = 0; i < count; i++) {
+            String userId = "u" + poll.getVotes().size();
+            poll.addVote(userId, new Vote(userId, Arrays.asList(ranking)));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.decider;
+
+// SqlPollStore trên SQLite trong bộ nhớ qua JDBC
+public class SqlPollRepositoryTest extends PollRepositoryContract {
+    @Override
+    protected PollRepository createRepository() {
+        return new SqlPollStore(JdbcSqlDatabase.inMemory());
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SqlPollStoreTest {
+    private static final List<String> OPTIONS = Arrays.asList("Phở", "Bún chả", "Cơm tấm", "Bánh mì", "Xôi");
+
+    private SqlPollStore store;
+
+    @Before
+    public void setUp() {
+        store = new SqlPollStore(JdbcSqlDatabase.inMemory());
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void roundTripsPollWithVotes() {
+        Poll poll = new Poll("poll_1", "Ăn gì?", OPTIONS, Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.SCHULZE);
+        poll.setHasTimer(true);
+        poll.setTimerMinutes(15);
+        poll.addVote("u1", new Vote("u1", Arrays.asList("Xôi", "Phở")));
+        poll.addVote("u2", new Vote("u2", Arrays.asList("Phở", null, "Cơm tấm")));
+        store.savePoll(poll);
+
+        Poll loaded = store.getPollById("poll_1");
+        assertNotNull(loaded);
+        assertEquals("Ăn gì?", loaded.getQuestion());
+        assertEquals(OPTIONS, loaded.getOptions());
+        assertEquals(Poll.VotingMode.RANKED_CHOICE, loaded.getVotingMode());
+        assertEquals(Poll.CountingMethod.SCHULZE, loaded.getCountingMethod());
+        assertTrue(loaded.isHasTimer());
+        assertEquals(15, loaded.getTimerMinutes());
+        assertEquals(poll.getStartTime(), loaded.getStartTime());
+        assertEquals(poll.getInviteCode(), loaded.getInviteCode());
+        assertTrue(loaded.isActive());
+        assertEquals(Arrays.asList("Phở", null, "Cơm tấm"), loaded.getVotes().get("u2").getRankings());
+        assertNull(loaded.getVotes().get("u1").getSingleChoice());
+        for (String option : OPTIONS) {
+            assertEquals(poll.getRankedScore(option), loaded.getRankedScore(option));
+        }
+
+        assertSame(null, store.getPollById("missing"));
+        assertEquals("poll_1", store.getPollByInviteCode(poll.getInviteCode()).getId());
+    }
+
+    @Test
+    public void groupByCountsMatchInMemoryTallies() {
+        Poll single = new Poll("poll_single", "Q", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        Poll ranked = new Poll("poll_ranked", "Q", OPTIONS, Poll.VotingMode.RANKED_CHOICE);
+        store.savePoll(single);
+        store.savePoll(ranked);
+
+        Random random = new Random(21);
+        for (int i = 0; i < 3_000; i++) {
+            String userId = "user_" + random.nextInt(1_000); // có bầu lại
+            Vote choice = new Vote(userId, OPTIONS.get(random.nextInt(OPTIONS.size())));
+            single.addVote(userId, choice);
+            assertTrue(store.castVote(single.getId(), userId, choice));
+
+            List<String> ranking = new ArrayList<>(OPTIONS);
+            Collections.shuffle(ranking, random);
+            Vote rankedVote = new Vote(userId, ranking.subList(0, 1 + random.nextInt(OPTIONS.size())));
+            ranked.addVote(userId, rankedVote);
+            assertTrue(store.castVote(ranked.getId(), userId, rankedVote));
+        }
+
+        Map<String, Integer> counts = store.getChoiceCounts(single.getId());
+        Map<String, Integer> scores = store.getRankedScores(ranked.getId());
+        assertEquals(OPTIONS, new ArrayList<>(counts.keySet()));
+        for (String option : OPTIONS) {
+            assertEquals(single.getChoiceCount(option), (int) counts.get(option));
+            assertEquals(ranked.getRankedScore(option), (int) scores.get(option));
+        }
+        assertEquals(single.getSingleChoiceVoterCount(), store.getSingleChoiceVoterCount(single.getId()));
+        assertEquals(ranked.getRankedVoterCount(), store.getRankedVoterCount(ranked.getId()));
+
+        single.closePoll();
+        ranked.closePoll();
+        store.closePoll(single.getId());
+        store.closePoll(ranked.getId());
+        assertEquals(single.getResults(), store.getPollById(single.getId()).getResults());
+        assertEquals(ranked.getResults(), store.getPollById(ranked.getId()).getResults());
+    }
+
+    @Test
+    public void savingAnExistingPollWritesOnlyChangedVotes() {
+        List<String> voteWrites = new ArrayList<>();
+        JdbcSqlDatabase jdbc = JdbcSqlDatabase.inMemory();
+        SqlPollStore counted = new SqlPollStore(new SqlDatabase() {
+            @Override
+            public void execute(String sql, Object... args) {
+                if (sql.startsWith("INSERT OR REPLACE INTO votes") || sql.startsWith("DELETE FROM votes")) {
+                    voteWrites.add(sql.startsWith("DELETE") ? "delete" : (String) args[1]);
+                }
+                jdbc.execute(sql, args);
+            }
+
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> mapper, Object... args) {
+                return jdbc.query(sql, mapper, args);
+            }
+
+            @Override
+            public void inTransaction(Runnable body) {
+                jdbc.inTransaction(body);
+            }
+
+            @Override
+            public void close() {
+                jdbc.close();
+            }
+        });
+        try {
+            Poll poll = new Poll("poll_1", "Q", OPTIONS, Poll.VotingMode.RANKED_CHOICE);
+            for (int i = 0; i < 50; i++) {
+                poll.addVote("u" + i, new Vote("u" + i, Arrays.asList("Phở", "Xôi")));
+            }
+            counted.savePoll(poll); // poll mới: ghi cả poll
+            assertEquals(51, voteWrites.size());
+
+            voteWrites.clear();
+            poll.addVote("u7", new Vote("u7", Arrays.asList("Xôi", "Bún chả"))); // bầu lại
+            poll.addVote("u50", new Vote("u50", Collections.singletonList("Cơm tấm")));
+            counted.savePoll(poll);
+            assertEquals(Arrays.asList("u50", "u7"), sortedCopy(voteWrites));
+
+            voteWrites.clear();
+            counted.savePoll(poll); // không có gì đổi
+            assertTrue(voteWrites.isEmpty());
+
+            Poll loaded = counted.getPollById("poll_1");
+            assertEquals(51, loaded.getVotes().size());
+            assertEquals(Arrays.asList("Xôi", "Bún chả"), loaded.getVotes().get("u7").getRankings());
+            for (String option : OPTIONS) {
+                assertEquals(poll.getRankedScore(option), loaded.getRankedScore(option));
+            }
+
+            // Đổi options thì ghi lại cả poll
+            voteWrites.clear();
+            poll.setOptions(Arrays.asList("Phở", "Xôi", "Bún chả", "Cơm tấm"));
+            counted.savePoll(poll);
+            assertEquals("delete", voteWrites.get(0));
+            assertEquals(52, voteWrites.size());
+            assertEquals(4, counted.getPollById("poll_1").getOptions().size());
+        } finally {
+            counted.close();
+        }
+    }
+
+    private static List<String> sortedCopy(List<String> values) {
+        List<String> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    @Test
+    public void savingACopyFromJsonWritesAllItsVotes() {
+        Poll poll = new Poll("poll_1", "Q", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        store.savePoll(poll);
+
+        // Bản poll đọc từ JSON (như current poll) chưa ghi lại thay đổi nào
+        Gson gson = PollGson.create();
+        Poll copy = gson.fromJson(gson.toJson(poll), Poll.class);
+        copy.addVote("u1", new Vote("u1", OPTIONS.get(0)));
+        store.savePoll(copy);
+
+        assertEquals(1, store.getPollById("poll_1").getChoiceCount(OPTIONS.get(0)));
+    }
+
+    @Test
+    public void tiesKeepOptionOrderLikeTallyEngine() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.SINGLE_CHOICE);
+        store.savePoll(poll);
+        store.castVote("poll_1", "u1", new Vote("u1", "C"));
+        store.castVote("poll_1", "u2", new Vote("u2", "B"));
+
+        assertEquals(Arrays.asList("B", "C", "A"), store.rankByChoiceCount("poll_1"));
+    }
+
+    @Test
+    public void closedPollRejectsVotes() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.INSTANT_RUNOFF);
+        store.savePoll(poll);
+        store.castVote("poll_1", "u1", new Vote("u1", Arrays.asList("B", "A")));
+        store.castVote("poll_1", "u2", new Vote("u2", Arrays.asList("B", "C")));
+        store.castVote("poll_1", "u3", new Vote("u3", Arrays.asList("A")));
+
+        store.closePoll("poll_1");
+        Poll closed = store.getPollById("poll_1");
+        assertFalse(closed.isActive());
+        assertTrue(closed.getEndTime() > 0);
+        assertEquals("B", closed.getResults().get(0));
+        assertNull(store.getPollByInviteCode(closed.getInviteCode()));
+
+        assertFalse(store.castVote("poll_1", "u4", new Vote("u4", Arrays.asList("C"))));
+        assertFalse(store.castVote("missing", "u4", new Vote("u4", "A")));
+        assertEquals(3, store.getRankedVoterCount("poll_1"));
+    }
+
+    @Test
+    public void deletesPollsAndStoresTemplates() {
+        Poll first = new Poll("poll_1", "Q1", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        first.setStartTime(2_000L);
+        Poll second = new Poll("poll_2", "Q2", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        second.setStartTime(1_000L);
+        store.savePoll(first);
+        store.savePoll(second);
+        store.castVote("poll_1", "u1", new Vote("u1", "Phở"));
+
+        List<Poll> polls = store.getAllPolls();
+        assertEquals(Arrays.asList("poll_2", "poll_1"), Arrays.asList(polls.get(0).getId(), polls.get(1).getId()));
+        assertEquals(1, polls.get(1).getVotes().size());
+
+        store.deletePoll("poll_1");
+        assertNull(store.getPollById("poll_1"));
+        assertEquals(0, store.getSingleChoiceVoterCount("poll_1"));
+        assertEquals(1, store.getAllPolls().size());
+
+        PollTemplate template = new PollTemplate(second);
+        template.setName("Trưa");
+        store.saveTemplate(template);
+        template.setDefaultTimerMinutes(5);
+        store.saveTemplate(template);
+        assertEquals(1, store.getAllTemplates().size());
+        PollTemplate loaded = store.getTemplateById(template.getId());
+        assertEquals("Trưa", loaded.getName());
+        assertEquals(OPTIONS, loaded.getOptions());
+        assertEquals(5, loaded.getDefaultTimerMinutes());
+        assertEquals(template.getCreatedTime(), loaded.getCreatedTime());
+
+        store.deleteTemplate(template.getId());
+        assertNull(store.getTemplateById(template.getId()));
+        store.clearAllData();
+        assertTrue(store.getAllPolls().isEmpty());
+    }
+}
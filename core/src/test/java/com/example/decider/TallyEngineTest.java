@@ -0,0 +1,126 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TallyEngineTest {
+
+    @Test
+    public void singleChoiceOrderingMatchesFullRecount() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> options = randomOptions(random);
+            Poll poll = new Poll("poll_" + round, "Q", options, Poll.VotingMode.SINGLE_CHOICE);
+            int voters = random.nextInt(50);
+            for (int i = 0; i < voters * 2; i++) {
+                // Cùng userId có thể bỏ phiếu lại, phiếu sau thay thế phiếu trước
+                String userId = "user_" + random.nextInt(voters + 1);
+                poll.addVote(userId, new Vote(userId, options.get(random.nextInt(options.size()))));
+            }
+
+            List<String> expected = legacySingleChoiceResults(options, poll.getVotes());
+            poll.closePoll();
+            assertEquals(expected, poll.getResults());
+        }
+    }
+
+    @Test
+    public void rankedChoiceOrderingMatchesFullRecount() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<String> options = randomOptions(random);
+            Poll poll = new Poll("poll_" + round, "Q", options, Poll.VotingMode.RANKED_CHOICE);
+            int voters = random.nextInt(50);
+            for (int i = 0; i < voters * 2; i++) {
+                String userId = "user_" + random.nextInt(voters + 1);
+                List<String> rankings = new ArrayList<>(options);
+                Collections.shuffle(rankings, random);
+                poll.addVote(userId, new Vote(userId, rankings));
+            }
+
+            List<String> expected = legacyRankedChoiceResults(options, poll.getVotes());
+            poll.closePoll();
+            assertEquals(expected, poll.getResults());
+        }
+    }
+
+    @Test
+    public void replacingVoteMovesCount() {
+        TallyEngine engine = new TallyEngine(Arrays.asList("A", "B", "C"));
+        engine.recordVote("u1", new Vote("u1", "A"));
+        engine.recordVote("u2", new Vote("u2", "A"));
+        engine.recordVote("u1", new Vote("u1", "C"));
+
+        assertEquals(1, engine.getChoiceCount(engine.indexOf("A")));
+        assertEquals(0, engine.getChoiceCount(engine.indexOf("B")));
+        assertEquals(1, engine.getChoiceCount(engine.indexOf("C")));
+        assertEquals(2, engine.getSingleChoiceVoters());
+        assertEquals(Arrays.asList("A", "C", "B"), engine.rankByChoiceCount());
+
+        engine.removeVote("u2");
+        assertEquals(Arrays.asList("C", "A", "B"), engine.rankByChoiceCount());
+    }
+
+    @Test
+    public void unknownOptionsAreIgnored() {
+        TallyEngine engine = new TallyEngine(Arrays.asList("A", "B"));
+        engine.recordVote("u1", new Vote("u1", "Z"));
+        engine.recordVote("u2", new Vote("u2", Arrays.asList("Z", "B", "A")));
+
+        assertEquals(-1, engine.indexOf("Z"));
+        assertEquals(1, engine.getSingleChoiceVoters());
+        assertEquals(1L, engine.getRankedScore(engine.indexOf("B")));
+        assertEquals(0L, engine.getRankedScore(engine.indexOf("A")));
+    }
+
+    private static List<String> randomOptions(Random random) {
+        int count = 2 + random.nextInt(8);
+        List<String> options = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            options.add("Option " + i);
+        }
+        return options;
+    }
+
+    // Cách tính cũ của Poll.calculateSingleChoiceResults: đếm lại toàn bộ phiếu rồi sắp xếp
+    private static List<String> legacySingleChoiceResults(List<String> options, Map<String, Vote> votes) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String option : options) {
+            counts.put(option, 0);
+        }
+        for (Vote vote : votes.values()) {
+            if (vote.getSingleChoice() != null) {
+                counts.put(vote.getSingleChoice(), counts.getOrDefault(vote.getSingleChoice(), 0) + 1);
+            }
+        }
+        List<String> results = new ArrayList<>(options);
+        results.sort((a, b) -> counts.getOrDefault(b, 0) - counts.getOrDefault(a, 0));
+        return results;
+    }
+
+    // Cách tính cũ của Poll.calculateRankedChoiceResults
+    private static List<String> legacyRankedChoiceResults(List<String> options, Map<String, Vote> votes) {
+        Map<String, Integer> scores = new HashMap<>();
+        for (String option : options) {
+            scores.put(option, 0);
+        }
+        for (Vote vote : votes.values()) {
+            List<String> rankings = vote.getRankings();
+            for (int i = 0; i < rankings.size(); i++) {
+                scores.put(rankings.get(i), scores.getOrDefault(rankings.get(i), 0) + options.size() - i);
+            }
+        }
+        List<String> results = new ArrayList<>(options);
+        results.sort((a, b) -> scores.getOrDefault(b, 0) - scores.getOrDefault(a, 0));
+        return results;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TieAnalysisTest {
+
+    @Test
+    public void singleChoiceReturnsEveryOptionTiedAtTop() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C", "D"), Poll.VotingMode.SINGLE_CHOICE);
+        vote(poll, "u1", "A");
+        vote(poll, "u2", "B");
+        vote(poll, "u3", "C");
+        vote(poll, "u4", "A");
+        vote(poll, "u5", "B");
+        vote(poll, "u6", "C");
+        vote(poll, "u7", "D");
+        poll.closePoll();
+
+        TieAnalysis ties = poll.analyzeTies();
+        assertTrue(ties.isTied());
+        assertEquals(Arrays.asList("A", "B", "C"), ties.getTiedOptions());
+        assertEquals(2, ties.getTopScore());
+        assertTrue(poll.hasTiedResults());
+    }
+
+    @Test
+    public void singleChoiceWinnerIsNotATie() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        vote(poll, "u1", "B");
+        vote(poll, "u2", "B");
+        vote(poll, "u3", "A");
+        poll.closePoll();
+
+        assertEquals(Collections.singletonList("B"), poll.analyzeTies().getTiedOptions());
+        assertFalse(poll.hasTiedResults());
+    }
+
+    @Test
+    public void bordaUsesRankedScoresInsteadOfChoiceCounts() {
+        // Trước đây poll xếp hạng luôn so số phiếu một lựa chọn (luôn bằng 0) nên luôn bị coi là hòa
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        rank(poll, "u1", "A", "B", "C");
+        rank(poll, "u2", "A", "C", "B");
+        poll.closePoll();
+        assertFalse(poll.hasTiedResults());
+
+        Poll tied = new Poll("poll_2", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        rank(tied, "u1", "A", "B", "C");
+        rank(tied, "u2", "B", "A", "C");
+        tied.closePoll();
+        assertEquals(Arrays.asList("A", "B"), tied.analyzeTies().getTiedOptions());
+        assertEquals(5, tied.analyzeTies().getTopScore());
+    }
+
+    @Test
+    public void runoffTieIsFoundInTheDecidingRound() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.INSTANT_RUNOFF);
+        rank(poll, "u1", "A");
+        rank(poll, "u2", "A", "C");
+        rank(poll, "u3", "A");
+        rank(poll, "u4", "B");
+        rank(poll, "u5", "B", "C");
+        rank(poll, "u6", "B");
+        rank(poll, "u7", "C");
+        poll.closePoll();
+
+        // C bị loại và phiếu của C hết lựa chọn: vòng 2 là A 3 – B 3
+        assertEquals(Arrays.asList("A", "B"), poll.analyzeTies().getTiedOptions());
+        assertEquals(3, poll.analyzeTies().getTopScore());
+
+        Poll majority = new Poll("poll_2", "Q", Arrays.asList("A", "B"), Poll.VotingMode.RANKED_CHOICE);
+        majority.setCountingMethod(Poll.CountingMethod.INSTANT_RUNOFF);
+        rank(majority, "u1", "A");
+        rank(majority, "u2", "A");
+        rank(majority, "u3", "B");
+        majority.closePoll();
+        assertFalse(majority.hasTiedResults());
+    }
+
+    @Test
+    public void schulzeReportsAllUnbeatenOptions() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C"), Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.SCHULZE);
+        rank(poll, "u1", "A", "B", "C");
+        rank(poll, "u2", "B", "C", "A");
+        rank(poll, "u3", "C", "A", "B");
+        poll.closePoll();
+
+        assertEquals(Arrays.asList("A", "B", "C"), poll.analyzeTies().getTiedOptions());
+    }
+
+    @Test
+    public void schulzeKeepsUnbeatenOptionsWithFewerWins() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B", "C", "D"), Poll.VotingMode.RANKED_CHOICE);
+        poll.setCountingMethod(Poll.CountingMethod.SCHULZE);
+        rank(poll, "u1", "C");
+        rank(poll, "u2", "D", "B", "C", "A");
+        poll.closePoll();
+
+        // C và D không bị ai thắng nhưng D thắng nhiều cặp hơn
+        SchulzeEngine.Result result = poll.getSchulzeResult();
+        assertTrue(result.getWins("D") > result.getWins("C"));
+        assertEquals(Arrays.asList("C", "D"), poll.analyzeTies().getTiedOptions());
+        assertTrue(poll.hasTiedResults());
+    }
+
+    @Test
+    public void spinnerAndEmptyPollsHaveNoTie() {
+        Poll spinner = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.RANDOM_SPINNER);
+        spinner.closePoll();
+        assertFalse(spinner.analyzeTies().isTied());
+
+        Poll open = new Poll("poll_2", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        assertTrue(open.analyzeTies().getTiedOptions().isEmpty());
+    }
+
+    private static void vote(Poll poll, String userId, String option) {
+        poll.addVote(userId, new Vote(userId, option));
+    }
+
+    private static void rank(Poll poll, String userId, String... ranking) {
+        poll.addVote(userId, new Vote(userId, Arrays.asList(ranking)));
+    }
+}
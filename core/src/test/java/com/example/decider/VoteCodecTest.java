@@ -0,0 +1,111 @@
+package com.example.decider;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VoteCodecTest {
+    private static final int VOTE_COUNT = 10_000;
+
+    @Test
+    public void roundTripKeepsVotes() {
+        Poll poll = new Poll("poll_1", "Ăn gì?", Arrays.asList("Phở", "Bún chả", "Cơm tấm"), Poll.VotingMode.SINGLE_CHOICE);
+        Vote single = new Vote("u1", "Bún chả");
+        single.setTimestamp(1_700_000_000_000L);
+        Vote ranked = new Vote("u2", Arrays.asList("Cơm tấm", "Không có trong danh sách", "Phở"));
+        ranked.setTimestamp(1_699_999_999_000L);
+        Vote mismatchedUser = new Vote(null, "Phở");
+        mismatchedUser.setRankings(null);
+        poll.addVote("u1", single);
+        poll.addVote("u2", ranked);
+        poll.addVote("u3", mismatchedUser);
+
+        Gson gson = PollGson.create();
+        Poll decoded = gson.fromJson(gson.toJson(poll), Poll.class);
+
+        assertEquals(3, decoded.getVotes().size());
+        assertVoteEquals(single, decoded.getVotes().get("u1"));
+        assertVoteEquals(ranked, decoded.getVotes().get("u2"));
+        assertVoteEquals(mismatchedUser, decoded.getVotes().get("u3"));
+        assertEquals(1, decoded.getChoiceCount("Bún chả"));
+    }
+
+    @Test
+    public void readsLegacyVotesField() {
+        Poll poll = new Poll("poll_1", "Q", Arrays.asList("A", "B"), Poll.VotingMode.SINGLE_CHOICE);
+        poll.addVote("u1", new Vote("u1", "B"));
+        String legacyJson = new Gson().toJson(poll);
+
+        Poll decoded = PollGson.create().fromJson(legacyJson, Poll.class);
+        assertEquals("B", decoded.getVotes().get("u1").getSingleChoice());
+    }
+
+    @Test
+    public void wideOptionIndexesRoundTrip() {
+        List<String> options = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            options.add("Option " + i);
+        }
+        Poll poll = new Poll("poll_1", "Q", options, Poll.VotingMode.RANKED_CHOICE);
+        List<String> ranking = new ArrayList<>(options);
+        Collections.reverse(ranking);
+        poll.addVote("u1", new Vote("u1", ranking));
+
+        Gson gson = PollGson.create();
+        Poll decoded = gson.fromJson(gson.toJson(poll), Poll.class);
+        assertEquals(ranking, decoded.getVotes().get("u1").getRankings());
+    }
+
+    @Test
+    public void compactEncodingIsSmallerForTenThousandVotes() {
+        List<String> options = Arrays.asList(
+                "Nhà hàng Việt Nam truyền thống", "Quán lẩu nướng Hàn Quốc", "Tiệm pizza Ý ở quận 1",
+                "Quán chay gần công ty", "Buffet hải sản cuối tuần");
+        Random random = new Random(1);
+
+        Poll single = new Poll("poll_single", "Q", options, Poll.VotingMode.SINGLE_CHOICE);
+        Poll ranked = new Poll("poll_ranked", "Q", options, Poll.VotingMode.RANKED_CHOICE);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < VOTE_COUNT; i++) {
+            String userId = "user_" + (timestamp + i);
+            timestamp += random.nextInt(5_000);
+
+            Vote choice = new Vote(userId, options.get(random.nextInt(options.size())));
+            choice.setTimestamp(timestamp);
+            single.addVote(userId, choice);
+
+            List<String> ranking = new ArrayList<>(options);
+            Collections.shuffle(ranking, random);
+            Vote rankedVote = new Vote(userId, ranking);
+            rankedVote.setTimestamp(timestamp);
+            ranked.addVote(userId, rankedVote);
+        }
+
+        Gson legacy = new Gson();
+        Gson compact = PollGson.create();
+        int legacySingle = legacy.toJson(single).length();
+        int compactSingle = compact.toJson(single).length();
+        int legacyRanked = legacy.toJson(ranked).length();
+        int compactRanked = compact.toJson(ranked).length();
+
+        assertTrue(compactSingle * 3 < legacySingle);
+        assertTrue(compactRanked * 5 < legacyRanked);
+        assertEquals(single.getVotes().size(), compact.fromJson(compact.toJson(single), Poll.class).getVotes().size());
+    }
+
+    private static void assertVoteEquals(Vote expected, Vote actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getSingleChoice(), actual.getSingleChoice());
+        assertEquals(expected.getRankings(), actual.getRankings());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.decider;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class VoteCountsTest {
+    private static final List<String> OPTIONS = Arrays.asList("A", "B", "C");
+
+    @Test
+    public void readsEachModeFromTheTally() {
+        Poll single = new Poll("p1", "Q", OPTIONS, Poll.VotingMode.SINGLE_CHOICE);
+        single.addVote("u1", new Vote("u1", "B"));
+        single.addVote("u2", new Vote("u2", "B"));
+        VoteCounts counts = VoteCounts.of(single, null);
+        assertEquals(2, counts.get("B"));
+        assertEquals(0, counts.get("A"));
+        assertEquals(2, counts.getTotal());
+        assertNull(counts.getRunoff());
+
+        Poll ranked = new Poll("p2", "Q", OPTIONS, Poll.VotingMode.RANKED_CHOICE);
+        ranked.addVote("u1", new Vote("u1", Arrays.asList("A", "C")));
+        ranked.addVote("u2", new Vote("u2", Arrays.asList("C", "A")));
+        ranked.addVote("u3", new Vote("u3", Collections.singletonList("C")));
+        assertEquals(ranked.getRankedScore("C"), VoteCounts.of(ranked, null).get("C"));
+
+        ranked.setCountingMethod(Poll.CountingMethod.INSTANT_RUNOFF);
+        VoteCounts runoff = VoteCounts.of(ranked, null);
+        assertNotNull(runoff.getRunoff());
+        assertEquals(2, runoff.get("C"));
+        assertEquals(3, runoff.getTotal());
+
+        ranked.setCountingMethod(Poll.CountingMethod.SCHULZE);
+        VoteCounts schulze = VoteCounts.of(ranked, null);
+        assertNotNull(schulze.getSchulze());
+        assertEquals(2, schulze.get("C")); // C thắng cả A và B
+        assertEquals(2, schulze.getTotal());
+    }
+
+    @Test
+    public void spinnerWinnerGetsTheOnlyVote() {
+        Poll spinner = new Poll("p3", "Q", OPTIONS, Poll.VotingMode.RANDOM_SPINNER);
+        VoteCounts counts = VoteCounts.of(spinner, Collections.singletonList("C"));
+        assertEquals(1, counts.get("C"));
+        assertEquals(1, counts.getTotal());
+        assertEquals(0, VoteCounts.of(null, null).getTotal());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.decider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class VoteIngestionPipelineTest {
+    private static final int PRODUCERS = 4;
+    private static final int VOTES_PER_PRODUCER = 25_000;
+
+    private final List<String> options = Arrays.asList("A", "B", "C", "D");
+    private final AtomicInteger saves = new AtomicInteger();
+    private Poll poll;
+    private ExecutorService storeExecutor;
+    private LocalPollTransport local;
+
+    @Before
+    public void setUp() {
+        poll = new Poll("poll_1", "Q", options, Poll.VotingMode.SINGLE_CHOICE);
+        storeExecutor = Executors.newSingleThreadExecutor();
+        InMemoryPollRepository repository = new InMemoryPollRepository() {
+            @Override
+            public void savePoll(Poll saved) {
+                saves.incrementAndGet();
+                super.savePoll(saved);
+            }
+        };
+        repository.savePoll(poll);
+        saves.set(0);
+        local = new LocalPollTransport(repository, storeExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        storeExecutor.shutdownNow();
+    }
+
+    @Test
+    public void validatesAgainstOptions() throws Exception {
+        VoteIngestionPipeline pipeline = new VoteIngestionPipeline(local, 16, 8);
+        pipeline.start();
+        List<VoteAck> acks = pipeline.submitVotes("poll_1", Arrays.asList(
+                new Vote("u1", "A"), new Vote("u2", "Z"), new Vote("u3", Arrays.asList("A", "B"))));
+        pipeline.close();
+
+        assertTrue(acks.get(0).isAccepted());
+        assertEquals(VoteAck.REASON_INVALID, acks.get(1).getReason());
+        assertEquals(VoteAck.REASON_INVALID, acks.get(2).getReason());
+        assertEquals(1, poll.getChoiceCount("A"));
+    }
+
+    @Test
+    public void failedBatchOnlyFailsItsOwnVotes() throws Exception {
+        // Lô có phiếu "boom" làm backend lỗi; maxBatch = 1 nên mỗi phiếu là một lô
+        PollTransport flaky = new PollTransport() {
+            @Override
+            public Poll findPollByInviteCode(String inviteCode) throws IOException {
+                return local.findPollByInviteCode(inviteCode);
+            }
+
+            @Override
+            public List<VoteAck> submitVotes(String pollId, List<Vote> votes) throws IOException {
+                for (Vote vote : votes) {
+                    if ("boom".equals(vote.getUserId())) {
+                        throw new IOException("storage failed");
+                    }
+                }
+                return local.submitVotes(pollId, votes);
+            }
+        };
+        VoteIngestionPipeline pipeline = new VoteIngestionPipeline(flaky, 16, 1);
+        pipeline.start();
+        List<VoteAck> acks = pipeline.submitVotes("poll_1", Arrays.asList(
+                new Vote("u1", "A"), new Vote("boom", "B"), new Vote("u2", "C")));
+        pipeline.close();
+
+        assertEquals(3, acks.size());
+        assertTrue(acks.get(0).isAccepted());
+        assertFalse(acks.get(1).isAccepted());
+        assertEquals("boom", acks.get(1).getUserId());
+        assertEquals(VoteAck.REASON_UNKNOWN, acks.get(1).getReason());
+        assertTrue(acks.get(2).isAccepted());
+        assertEquals(1, poll.getChoiceCount("A"));
+        assertEquals(1, poll.getChoiceCount("C"));
+    }
+
+    @Test
+    public void fullQueueSignalsBackpressure() throws Exception {
+        // Chưa start: không có luồng lấy phiếu ra, nhưng offer khi chưa chạy luôn bị từ chối
+        VoteIngestionPipeline stopped = new VoteIngestionPipeline(local, 4, 4);
+        assertNull(stopped.offer("poll_1", new Vote("u1", "A")));
+
+        // Chặn luồng lưu trữ để hàng đợi đầy dần
+        CountDownLatch release = new CountDownLatch(1);
+        storeExecutor.submit(() -> {
+            release.await();
+            return null;
+        });
+        VoteIngestionPipeline pipeline = new VoteIngestionPipeline(local, 4, 1);
+        pipeline.start();
+        List<CompletableFuture<VoteAck>> accepted = new ArrayList<>();
+        CompletableFuture<VoteAck> future;
+        int userId = 0;
+        while ((future = pipeline.offer("poll_1", new Vote("u" + userId, "B"))) != null) {
+            accepted.add(future);
+            userId++;
+        }
+        assertTrue(pipeline.isBackpressured());
+        assertEquals(0, pipeline.getRemainingCapacity());
+        assertEquals(1, pipeline.getRejectedBusyCount());
+
+        release.countDown();
+        for (CompletableFuture<VoteAck> ack : accepted) {
+            assertTrue(ack.get(5, TimeUnit.SECONDS).isAccepted());
+        }
+        pipeline.close();
+        assertEquals(accepted.size(), poll.getChoiceCount("B"));
+    }
+
+    @Test
+    public void closeAcksVotesStillQueued() throws Exception {
+        // Luồng áp dụng kẹt ở lô đầu tiên vì luồng lưu trữ đang bận
+        CountDownLatch release = new CountDownLatch(1);
+        storeExecutor.submit(() -> {
+            release.await();
+            return null;
+        });
+        VoteIngestionPipeline pipeline = new VoteIngestionPipeline(local, 8, 1);
+        pipeline.start();
+        List<CompletableFuture<VoteAck>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(pipeline.offer("poll_1", new Vote("u" + i, "A")));
+        }
+        while (pipeline.getQueuedCount() > 3) {
+            Thread.sleep(1);
+        }
+        pipeline.close();
+        release.countDown();
+
+        // Mọi phiếu đều có kết quả, không phiếu nào bị treo
+        for (CompletableFuture<VoteAck> future : futures) {
+            try {
+                VoteAck ack = future.get(5, TimeUnit.SECONDS);
+                assertEquals(VoteAck.REASON_BUSY, ack.getReason());
+            } catch (ExecutionException e) {
+                assertSame(futures.get(0), future); // lô đang áp dụng bị ngắt
+            }
+        }
+        assertNull(pipeline.offer("poll_1", new Vote("late", "A")));
+    }
+
+    @Test
+    public void ingestsConcurrentProducersInBatches() throws Exception {
+        VoteIngestionPipeline pipeline = new VoteIngestionPipeline(local);
+        pipeline.start();
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        List<Future<CompletableFuture<VoteAck>>> done = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            done.add(producers.submit(() -> {
+                CompletableFuture<VoteAck> ack = null;
+                for (int i = 0; i < VOTES_PER_PRODUCER; i++) {
+                    Vote vote = new Vote("p" + producer + "_" + i, options.get(i % options.size()));
+                    do {
+                        ack = pipeline.submit("poll_1", vote, 100, TimeUnit.MILLISECONDS);
+                    } while (ack == null);
+                }
+                return ack;
+            }));
+        }
+        // Hàng đợi FIFO: khi phiếu cuối của mỗi luồng được xác nhận thì mọi phiếu trước đó đã được áp dụng
+        for (Future<CompletableFuture<VoteAck>> future : done) {
+            assertTrue(future.get().get(30, TimeUnit.SECONDS).isAccepted());
+        }
+        producers.shutdown();
+        pipeline.close();
+
+        // Thông lượng được đo trong IngestionBenchmark của module benchmark
+        int total = PRODUCERS * VOTES_PER_PRODUCER;
+        assertEquals(total, poll.getVotes().size());
+        assertEquals(total, pipeline.getAppliedVoteCount());
+        assertEquals(total / options.size(), poll.getChoiceCount("A"));
+        assertTrue(saves.get() < total / 10);
+    }
+}